@@ -9,6 +9,7 @@ TRUNCATE TABLE tournaments CASCADE;
 TRUNCATE TABLE pushup_records CASCADE;
 TRUNCATE TABLE user_profiles CASCADE;
 TRUNCATE TABLE user_streaks CASCADE;
+TRUNCATE TABLE user_stats CASCADE;
 TRUNCATE TABLE users CASCADE;
 
 -- Reset auto-increment sequences for ID columns
@@ -1,3 +1,6 @@
+-- Reference copy of the schema. The server applies src/main/resources/db/migration at startup
+-- (V001 creates these tables if missing, later versions add indexes and changes)
+
 -- Users table to store registered users
 CREATE TABLE users (
     user_id SERIAL PRIMARY KEY,
@@ -1,87 +1,111 @@
 package com.seb;
 
-import com.seb.controller.StreakController;
-import com.seb.controller.ProfileController;
-import com.seb.controller.PushupController;
-import com.seb.controller.TournamentController;
 import com.seb.controller.UserController;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
-import java.io.BufferedReader;
+import com.seb.config.ServerConfig;
+import com.seb.dto.MessageResponse;
+import com.seb.http.ClientAddress;
+import com.seb.http.Compression;
+import com.seb.http.ConcurrencyBudget;
+import com.seb.http.HttpRequest;
+import com.seb.http.HttpRequestParser;
+import com.seb.http.KeepAlive;
+import com.seb.http.RateLimiter;
+import com.seb.http.RequestContext;
+import com.seb.http.RequestTooLargeException;
+import com.seb.http.ResponseWriter;
+import com.seb.http.Route;
+import com.seb.http.Router;
+import com.seb.security.TokenSigner.Claims;
+import com.seb.server.WorkerPool;
+
+import java.io.BufferedOutputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.Socket;
-import java.util.HashMap;
-import java.util.Map;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
 import java.util.Optional;
 
 public class RequestHandler implements Runnable {
 
+    // Built once for whole server
+    private static final Router ROUTER = Routes.create();
+    private static final UserController USER_CONTROLLER = new UserController();
+    private static final Compression COMPRESSION = Compression.fromConfig();
+    // Limit per client IP over all routes (--rateLimit.ip.perSecond=50 --rateLimit.ip.burst=100, 0 turns it off)
+    // Behind a reverse proxy set --server.trustedProxies, otherwise all clients share the proxy's bucket
+    private static final RateLimiter IP_LIMITER = RateLimiter.fromConfig("ip", 50, 100);
+    private static final ClientAddress CLIENT_ADDRESS = ClientAddress.fromConfig();
+
     private final Socket clientSocket;
 
-    private final ObjectMapper mapper;
+    private final KeepAlive keepAlive;
 
-    public RequestHandler(Socket clientSocket) {
+    private final int maxRequestBytes;
+
+    public RequestHandler(Socket clientSocket, KeepAlive keepAlive, int maxRequestBytes) {
         this.clientSocket = clientSocket;
+        this.keepAlive = keepAlive;
+        this.maxRequestBytes = maxRequestBytes;
+    }
 
-        this.mapper = new ObjectMapper();
-        mapper.registerModule(new com.fasterxml.jackson.datatype.jsr310.JavaTimeModule());
-        mapper.configure(com.fasterxml.jackson.databind.SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+    public RequestHandler(Socket clientSocket) {
+        this(clientSocket, KeepAlive.fromConfig(), ServerConfig.getInt("server.maxRequestBytes", 1024 * 1024));
+    }
+
+    // Handler without own socket (used by NIO server, which does the socket I/O itself)
+    public RequestHandler() {
+        this(null, null, 0);
     }
 
     @Override
     public void run() {
+        // Reused for all requests on this connection
+        HttpRequestParser parser = new HttpRequestParser(maxRequestBytes);
+        parser.setRemoteAddress(clientSocket.getInetAddress().getHostAddress());
+
         try (
-                // Read data from client
-                BufferedReader in = new BufferedReader(new InputStreamReader(clientSocket.getInputStream()));
-                // PrintWriter to send data to client
-                PrintWriter out = new PrintWriter(clientSocket.getOutputStream(), true)
+                // Read raw bytes from client (parsed in place by the parser)
+                InputStream in = clientSocket.getInputStream();
+                // Responses are written as bytes (exact Content-Length)
+                OutputStream out = new BufferedOutputStream(clientSocket.getOutputStream())
         ) {
-            // Read HTTP request
-            String requestLine = in.readLine();
-            if (requestLine == null) {
-                return;
-            }
-
-            // Parse request method, path and HTTP version
-            String[] requestParts = requestLine.split(" ");
-            if (requestParts.length < 3) {
-                sendResponse(out, 400, "Bad Request", "text/plain", "Invalid request format");
-                return;
-            }
-
-            String method = requestParts[0];
-            String path = requestParts[1];
-
-            // Parse headers
-            Map<String, String> headers = new HashMap<>();
-            String headerLine;
-            while ((headerLine = in.readLine()) != null && !headerLine.isEmpty()) {
-                int colonPos = headerLine.indexOf(":");
-                if (colonPos > 0) {
-                    String headerName = headerLine.substring(0, colonPos).trim();
-                    String headerValue = headerLine.substring(colonPos + 1).trim();
-                    headers.put(headerName.toLowerCase(), headerValue);
+            // Close idle keep-alive connections
+            clientSocket.setSoTimeout(keepAlive.getIdleTimeoutMillis());
+
+            // Handle requests on this connection until client or keep-alive rules close it
+            // (pipelined requests are simply parsed from the buffer and answered in order)
+            int served = 0;
+            while (true) {
+                HttpRequest request;
+                try {
+                    request = readRequest(in, parser);
+                } catch (SocketTimeoutException e) {
+                    // Idle timeout
+                    break;
+                } catch (RequestTooLargeException e) {
+                    new ResponseWriter(out, false).send(413, "Payload Too Large", "text/plain", e.getMessage());
+                    break;
+                } catch (IllegalArgumentException e) {
+                    new ResponseWriter(out, false).send(400, "Bad Request", "text/plain", e.getMessage());
+                    break;
                 }
-            }
 
-            // Parse request body if present
-            StringBuilder requestBody = new StringBuilder();
-            if ("POST".equalsIgnoreCase(method) || "PUT".equalsIgnoreCase(method)) {
-                if (headers.containsKey("content-length")) {
-                    int contentLength = Integer.parseInt(headers.get("content-length"));
-                    char[] buffer = new char[contentLength];
-                    in.read(buffer, 0, contentLength);
-                    requestBody.append(buffer);
+                if (request == null) {
+                    // Client closed connection
+                    break;
                 }
-            }
 
-            // Log the request
-            System.out.println("Received " + method + " request for " + path);
+                served++;
+                ResponseWriter writer = new ResponseWriter(out, keepAlive.keepOpen(request, served), request.supportsChunked());
+                handle(request, writer);
+                parser.consume();
 
-            // Route request to appropriate handler (based on path)
-            routeRequest(out, method, path, headers, requestBody.toString());
+                if (!writer.isKeepAlive() || writer.hasFailed()) {
+                    break;
+                }
+            }
 
         } catch (IOException e) {
             System.err.println("Error handling client request: " + e.getMessage());
@@ -94,212 +118,136 @@ public class RequestHandler implements Runnable {
         }
     }
 
-    private void routeRequest(PrintWriter out, String method, String path, Map<String, String> headers, String body) {
+    // Read next request from connection (null if connection was closed before a new request)
+    private HttpRequest readRequest(InputStream in, HttpRequestParser parser) throws IOException {
+        // Pipelined request might already be in the buffer
+        HttpRequest request = parser.parse();
+
+        while (request == null) {
+            ByteBuffer buffer = parser.writableBuffer();
+            int read = in.read(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            if (read < 0) {
+                return null;
+            }
+            buffer.position(buffer.position() + read);
+            request = parser.parse();
+        }
+        return request;
+    }
+
+    // Handle already parsed request and write response to out
+    public void handle(HttpRequest request, ResponseWriter out) {
+        // Log the request
+        System.out.println("Received " + request.getMethod() + " request for " + request.getPath());
+
+        // Route request to appropriate handler (based on path)
+        routeRequest(out, request);
+    }
 
+    private void routeRequest(ResponseWriter out, HttpRequest request) {
         try {
-            // * TEST * Health check endpoint
-            if (path.equals("/health")) {
-                sendResponse(out, 200, "OK", "application/json", "{\"status\":\"up\"}");
+            // Rate limits come first, before any database work
+            if (IP_LIMITER != null && !checkRateLimit(out, IP_LIMITER, CLIENT_ADDRESS.resolve(request))) {
                 return;
             }
 
-            // === USER ENDPOINTS ===
+            Router.Match match = ROUTER.match(request.getMethod(), request.getPath());
 
-            // User registration endpoint
-            if (method.equals("POST") && path.equals("/users")) {
-                try {
-                    Map<String, String> requestData = mapper.readValue(body, Map.class);
-                    String username = requestData.get("Username");
-                    String password = requestData.get("Password");
-
-                    if (username == null || password == null) {
-                        sendResponse(out, 400, "Bad Request", "application/json",
-                                mapper.writeValueAsString(Map.of("success", false, "message", "Username and password are required")));
-                        return;
-                    }
-
-                    UserController userController = new UserController();
-                    Map<String, Object> result = userController.register(username, password);
-
-                    int statusCode = (Boolean)result.get("success") ? 201 : 400;
-                    sendResponse(out, statusCode, statusCode == 201 ? "Created" : "Bad Request",
-                            "application/json", mapper.writeValueAsString(result));
-                    return;
-                } catch (Exception e) {
-                    sendResponse(out, 500, "Internal Server Error", "application/json",
-                            mapper.writeValueAsString(Map.of("success", false, "message", "Server error: " + e.getMessage())));
-                    return;
-                }
+            // Endpoint wasnt found
+            if (match == null) {
+                out.sendJson(404, "Not Found", MessageResponse.error("Endpoint not found"));
+                return;
             }
 
-            // User login endpoint
-            if (method.equals("POST") && path.equals("/sessions")) {
-                try {
-                    Map<String, String> requestData = mapper.readValue(body, Map.class);
-                    String username = requestData.get("Username");
-                    String password = requestData.get("Password");
-
-                    if (username == null || password == null) {
-                        sendResponse(out, 400, "Bad Request", "application/json",
-                                mapper.writeValueAsString(Map.of("success", false, "message", "Username and password are required")));
-                        return;
-                    }
-
-                    UserController userController = new UserController();
-                    Map<String, Object> result = userController.login(username, password);
-
-                    int statusCode = (Boolean)result.get("success") ? 200 : 401;
-                    sendResponse(out, statusCode, statusCode == 200 ? "OK" : "Unauthorized",
-                            "application/json", mapper.writeValueAsString(result));
-                    return;
-                } catch (Exception e) {
-                    sendResponse(out, 500, "Internal Server Error", "application/json",
-                            mapper.writeValueAsString(Map.of("success", false, "message", "Server error: " + e.getMessage())));
-                    return;
-                }
+            Route route = match.getRoute();
+            if (route.getOptions().isCompressible()) {
+                out.enableCompression(COMPRESSION, COMPRESSION.negotiate(request.getHeader("Accept-Encoding")));
             }
 
-            // All other endpoints require authentication
-            if (!path.equals("/users") && !path.equals("/sessions") && !path.equals("/health")) {
-                String authToken = headers.get("authorization");
-                if (authToken == null) {
-                    sendResponse(out, 401, "Unauthorized", "application/json",
-                            mapper.writeValueAsString(Map.of("success", false, "message", "Authentication required")));
-                    return;
-                }
+            // Signature only (no database): verified before the route limit, which counts per user
+            Optional<Claims> signed = route.isAuthRequired()
+                    ? USER_CONTROLLER.verifySigned(request.getAuthorization()) : Optional.empty();
+            if (!checkRateLimit(out, route.getOptions().getRateLimiter(), rateLimitKey(request, signed))) {
+                return;
+            }
 
-                // Extract username from token
-                UserController userController = new UserController();
-                String requestingUsername = userController.getUsernameFromToken(authToken);
+            // Shed before doing any work (auth already hits the database)
+            ConcurrencyBudget budget = route.getOptions().getBudget();
+            if (budget != null && !budget.tryAcquire()) {
+                out.sendRetryLater(503, "Service Unavailable", WorkerPool.RETRY_AFTER_SECONDS,
+                        "Server busy, please retry later");
+                return;
+            }
 
-                // Validate token and get user ID
-                Optional<Integer> userIdOpt = userController.getUserIdFromToken(authToken);
+            try {
+                RequestContext context = new RequestContext(request, out, match.getParams());
 
-                if (!userIdOpt.isPresent() || requestingUsername == null) {
-                    sendResponse(out, 401, "Unauthorized", "application/json",
-                            mapper.writeValueAsString(Map.of("success", false, "message", "Invalid authentication token")));
+                if (route.isAuthRequired() && !authenticate(out, request, context, signed)) {
                     return;
                 }
 
-                int userId = userIdOpt.get();
-
-                // User profile endpoints
-                if (path.startsWith("/users/")) {
-                    ProfileController profileController = new ProfileController();
-                    String profileUsername = path.substring("/users/".length());
-
-                    // Security check (so users can only access their own profiles)
-                    if (!profileUsername.equals(requestingUsername)) {
-                        sendResponse(out, 403, "Forbidden", "application/json",
-                                mapper.writeValueAsString(Map.of("success", false, "message", "You can only access your own profile")));
-                        return;
-                    }
-
-                    if (method.equals("GET")) {
-                        // Get profile
-                        Map<String, Object> result = profileController.getProfile(userId);
-                        sendResponse(out, 200, "OK", "application/json", mapper.writeValueAsString(result));
-                        return;
-                    } else if (method.equals("PUT")) {
-                        // Update profile
-                        Map<String, String> requestData = mapper.readValue(body, Map.class);
-
-                        // Extract Name, Bio, Image
-                        String name = requestData.get("Name");
-                        String bio = requestData.get("Bio");
-                        String image = requestData.get("Image");
-
-                        Map<String, Object> result = profileController.updateProfile(userId, name, bio, image);
-                        sendResponse(out, 200, "OK", "application/json", mapper.writeValueAsString(result));
-                        return;
-                    }
-                }
-
-                // Stats endpoint
-                if (path.equals("/stats")) {
-                    PushupController pushupController = new PushupController();
-
-                    if (method.equals("GET")) {
-                        Map<String, Object> result = pushupController.getUserStats(userId);
-                        sendResponse(out, 200, "OK", "application/json", mapper.writeValueAsString(result));
-                        return;
-                    }
-                }
-
-                // Scoreboard endpoint
-                if (path.equals("/score")) {
-                    ProfileController profileController = new ProfileController();
-
-                    if (method.equals("GET")) {
-                        Map<String, Object> result = profileController.getScoreboard();
-                        sendResponse(out, 200, "OK", "application/json", mapper.writeValueAsString(result));
-                        return;
-                    }
-                }
-
-                // Pushup history
-                if (path.equals("/history")) {
-                    PushupController pushupController = new PushupController();
-
-                    if (method.equals("GET")) {
-                        // Get pushup history
-                        Map<String, Object> result = pushupController.getUserHistory(userId);
-                        sendResponse(out, 200, "OK", "application/json", mapper.writeValueAsString(result));
-                        return;
-                    } else if (method.equals("POST")) {
-                        // Record pushups
-                        Map<String, Object> requestData = mapper.readValue(body, Map.class);
-
-                        // Extract fields
-                        String name = (String) requestData.get("Name");
-                        Integer count = (Integer) requestData.get("Count");
-                        Integer durationInSeconds = (Integer) requestData.get("DurationInSeconds");
-
-                        if (count == null) {
-                            sendResponse(out, 400, "Bad Request", "application/json",
-                                    mapper.writeValueAsString(Map.of("success", false, "message", "Count is required")));
-                            return;
-                        }
-
-                        Map<String, Object> result = pushupController.recordPushups(userId, count, durationInSeconds);
-                        sendResponse(out, 200, "OK", "application/json", mapper.writeValueAsString(result));
-                        return;
-                    }
-                }
-
-                // Tournament endpoint
-                if (path.equals("/tournament")) {
-                    TournamentController tournamentController = new TournamentController();
-
-                    if (method.equals("GET")) {
-                        // Get active tournament
-                        Map<String, Object> result = tournamentController.getActiveTournament();
-                        sendResponse(out, 200, "OK", "application/json", mapper.writeValueAsString(result));
-                        return;
-                    }
+                route.getHandler().handle(context);
+            } finally {
+                if (budget != null) {
+                    budget.release();
                 }
             }
 
-            // Endpoint wasnt found
-            sendResponse(out, 404, "Not Found", "application/json",
-                    mapper.writeValueAsString(Map.of("success", false, "message", "Endpoint not found")));
-
         } catch (Exception e) {
             try {
-                sendResponse(out, 500, "Internal Server Error", "application/json",
-                        mapper.writeValueAsString(Map.of("success", false, "message", "Server error: " + e.getMessage())));
+                out.sendJson(500, "Internal Server Error", MessageResponse.error("Server error: " + e.getMessage()));
             } catch (Exception jsonEx) {
                 sendResponse(out, 500, "Internal Server Error", "text/plain", "Server error");
             }
         }
     }
 
-    private void sendResponse(PrintWriter out, int statusCode, String statusText, String contentType, String body) {
-        out.println("HTTP/1.1 " + statusCode + " " + statusText);
-        out.println("Content-Type: " + contentType);
-        out.println("Content-Length: " + body.length());
-        out.println(); // Separating headers from body
-        out.println(body);
-        out.flush();
+    // Sends 429 and returns false if key is over the limit
+    private boolean checkRateLimit(ResponseWriter out, RateLimiter limiter, String key) {
+        if (limiter == null || key == null) {
+            return true;
+        }
+        long retryAfterSeconds = limiter.tryAcquire(key);
+        if (retryAfterSeconds == 0) {
+            return true;
+        }
+        out.sendRetryLater(429, "Too Many Requests", (int) retryAfterSeconds, "Rate limit exceeded");
+        return false;
+    }
+
+    // Route limits count per user of a verified token; everything else (no token, made-up or legacy token,
+    // routes without auth) per IP, so a new Authorization header on every request doesn't get a new bucket
+    private static String rateLimitKey(HttpRequest request, Optional<Claims> signed) {
+        if (signed.isPresent()) {
+            return "user:" + signed.get().userId();
+        }
+        String address = CLIENT_ADDRESS.resolve(request);
+        return address == null ? null : "ip:" + address;
+    }
+
+    // Check auth token and store user in context (sends 401 and returns false if invalid)
+    // A token already verified by its signature is not checked again
+    private boolean authenticate(ResponseWriter out, HttpRequest request, RequestContext context,
+                                 Optional<Claims> signed) throws IOException {
+        String authToken = request.getAuthorization();
+        if (authToken == null) {
+            out.sendJson(401, "Unauthorized", MessageResponse.error("Authentication required"));
+            return false;
+        }
+
+        // Validate token and get user ID and username
+        Optional<Claims> claims = signed.isPresent() ? signed : USER_CONTROLLER.authenticate(authToken);
+
+        if (!claims.isPresent()) {
+            out.sendJson(401, "Unauthorized", MessageResponse.error("Invalid authentication token"));
+            return false;
+        }
+
+        context.setUser(claims.get().userId(), claims.get().username());
+        return true;
+    }
+
+    private void sendResponse(ResponseWriter out, int statusCode, String statusText, String contentType, String body) {
+        out.send(statusCode, statusText, contentType, body);
     }
 }
\ No newline at end of file
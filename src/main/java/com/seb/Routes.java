@@ -0,0 +1,329 @@
+package com.seb;
+
+import com.seb.config.ServerConfig;
+import com.seb.controller.ProfileController;
+import com.seb.controller.PushupController;
+import com.seb.controller.TournamentController;
+import com.seb.controller.UserController;
+import com.seb.dto.AuthResponse;
+import com.seb.dto.CredentialsRequest;
+import com.seb.dto.ExportFormat;
+import com.seb.dto.HistoryCursor;
+import com.seb.dto.HistoryResponse;
+import com.seb.dto.ProfileUpdateRequest;
+import com.seb.dto.PushupRequest;
+import com.seb.http.ConcurrencyBudget;
+import com.seb.http.RateLimiter;
+import com.seb.http.RequestContext;
+import com.seb.http.RouteOptions;
+import com.seb.http.Router;
+import com.seb.metrics.Metrics;
+import com.seb.server.WorkerPool;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+
+// All endpoints of the server (route table is built once, controllers are shared)
+public class Routes {
+
+    private static final int DEFAULT_TOURNAMENT_LIMIT = 10;
+    private static final int MAX_TOURNAMENT_LIMIT = 100;
+    private static final int DEFAULT_HISTORY_PAGE_SIZE = 50;
+    private static final int MAX_HISTORY_PAGE_SIZE = 1000;
+    // Default worker pool has 10 threads
+    private static final int DEFAULT_READ_BUDGET = 6;
+
+    private final UserController userController = new UserController();
+    private final ProfileController profileController = new ProfileController();
+    private final PushupController pushupController = new PushupController();
+    private final TournamentController tournamentController = new TournamentController();
+
+    // Users allowed to export other users' records (--export.admins=coach1,coach2)
+    private final Set<String> exportAdmins = parseNames(ServerConfig.getString("export.admins", ""));
+    // Users allowed to read GET /metrics (--metrics.admins=ops1), nobody by default
+    private final Set<String> metricsAdmins = parseNames(ServerConfig.getString("metrics.admins", ""));
+
+    public static Router create() {
+        Routes routes = new Routes();
+
+        // Heavy reads share a budget below the worker count, so writes (POST /history) always find a free worker
+        ConcurrencyBudget reads = ConcurrencyBudget.fromConfig("reads", DEFAULT_READ_BUDGET);
+        // Each recorded session costs several database round trips, so writes are limited per token
+        RateLimiter historyWrites = RateLimiter.fromConfig("historyWrites", 5, 10);
+        // Each export holds a worker and a database connection until the last row is sent
+        ConcurrencyBudget exports = ConcurrencyBudget.fromConfig("exports", 2);
+        // Login/registration hash passwords, limited against guessing
+        RateLimiter sessions = RateLimiter.fromConfig("sessions", 2, 10);
+
+        return new Router()
+                // * TEST * Health check endpoint
+                .add("GET", "/health", false, RouteOptions.defaults().noCompression(), routes::health)
+                .add("GET", "/metrics", true, routes::metrics)
+
+                // === USER ENDPOINTS ===
+                .add("POST", "/users", false, RouteOptions.defaults().rateLimit(sessions), routes::register)
+                .add("POST", "/sessions", false, RouteOptions.defaults().rateLimit(sessions), routes::login)
+
+                // === AUTHENTICATED ENDPOINTS ===
+                .add("GET", "/users/{username}", true, routes::getProfile)
+                .add("PUT", "/users/{username}", true, routes::updateProfile)
+                .add("GET", "/stats", true, RouteOptions.defaults().budget(reads), routes::getStats)
+                .add("GET", "/score", true, RouteOptions.defaults().budget(reads), routes::getScoreboard)
+                .add("GET", "/history", true, RouteOptions.defaults().budget(reads), routes::getHistory)
+                .add("POST", "/history", true, RouteOptions.defaults().rateLimit(historyWrites), routes::recordPushups)
+                .add("GET", "/history/export", true, RouteOptions.defaults().budget(exports), routes::exportHistory)
+                .add("GET", "/tournament", true, routes::getActiveTournament)
+                .add("GET", "/tournaments", true, RouteOptions.defaults().budget(reads), routes::getRecentTournaments)
+                .add("GET", "/tournaments/{tournamentId}/logs", true, RouteOptions.defaults().budget(reads),
+                        routes::getTournamentLogs);
+    }
+
+    private void health(RequestContext ctx) {
+        ctx.send(200, "OK", "application/json", "{\"status\":\"up\"}");
+    }
+
+    // Counters and gauges of the running server (pool, queue and auth internals: admins only)
+    private void metrics(RequestContext ctx) throws Exception {
+        if (!metricsAdmins.contains(ctx.getUsername())) {
+            ctx.sendError(403, "Forbidden", "Metrics are only available to admins");
+            return;
+        }
+        ctx.sendJson(200, "OK", Metrics.snapshot());
+    }
+
+    // User registration endpoint
+    private void register(RequestContext ctx) throws Exception {
+        CredentialsRequest credentials = ctx.readBody(CredentialsRequest.class);
+
+        if (credentials.username() == null || credentials.password() == null) {
+            ctx.sendError(400, "Bad Request", "Username and password are required");
+            return;
+        }
+
+        AuthResponse result;
+        try {
+            result = userController.register(credentials.username(), credentials.password());
+        } catch (RejectedExecutionException e) {
+            // Password hashing is saturated
+            ctx.sendRetryLater(503, "Service Unavailable", WorkerPool.RETRY_AFTER_SECONDS, "Server busy, try again");
+            return;
+        }
+
+        int statusCode = result.success() ? 201 : 400;
+        ctx.sendJson(statusCode, statusCode == 201 ? "Created" : "Bad Request", result);
+    }
+
+    // User login endpoint
+    private void login(RequestContext ctx) throws Exception {
+        CredentialsRequest credentials = ctx.readBody(CredentialsRequest.class);
+
+        if (credentials.username() == null || credentials.password() == null) {
+            ctx.sendError(400, "Bad Request", "Username and password are required");
+            return;
+        }
+
+        AuthResponse result;
+        try {
+            result = userController.login(credentials.username(), credentials.password());
+        } catch (RejectedExecutionException e) {
+            // Password hashing is saturated
+            ctx.sendRetryLater(503, "Service Unavailable", WorkerPool.RETRY_AFTER_SECONDS, "Server busy, try again");
+            return;
+        }
+
+        int statusCode = result.success() ? 200 : 401;
+        ctx.sendJson(statusCode, statusCode == 200 ? "OK" : "Unauthorized", result);
+    }
+
+    // Security check (so users can only access their own profiles)
+    private boolean isOwnProfile(RequestContext ctx) throws Exception {
+        if (!ctx.getParams().matches("username", ctx.getUsername())) {
+            ctx.sendError(403, "Forbidden", "You can only access your own profile");
+            return false;
+        }
+        return true;
+    }
+
+    private void getProfile(RequestContext ctx) throws Exception {
+        if (!isOwnProfile(ctx)) {
+            return;
+        }
+        ctx.sendJson(200, "OK", profileController.getProfile(ctx.getUserId()));
+    }
+
+    private void updateProfile(RequestContext ctx) throws Exception {
+        if (!isOwnProfile(ctx)) {
+            return;
+        }
+
+        // Extract Name, Bio, Image
+        ProfileUpdateRequest update = ctx.readBody(ProfileUpdateRequest.class);
+
+        ctx.sendJson(200, "OK", profileController.updateProfile(ctx.getUserId(), update.name(), update.bio(), update.image()));
+    }
+
+    private void getStats(RequestContext ctx) throws Exception {
+        ctx.sendJson(200, "OK", pushupController.getUserStats(ctx.getUserId()));
+    }
+
+    private void getScoreboard(RequestContext ctx) throws Exception {
+        ctx.sendJson(200, "OK", profileController.getScoreboard());
+    }
+
+    // Whole history streamed, or pages with ?limit=n (and ?cursor= from the previous page's nextCursor)
+    private void getHistory(RequestContext ctx) throws Exception {
+        String limitParam = ctx.getQueryParam("limit");
+        String cursorParam = ctx.getQueryParam("cursor");
+
+        if (limitParam == null && cursorParam == null) {
+            try {
+                ctx.streamJson(200, "OK", json -> pushupController.writeUserHistory(ctx.getUserId(), json));
+            } catch (SQLException e) {
+                // Failed before anything was sent
+                ctx.sendJson(200, "OK", HistoryResponse.error("Database error: " + e.getMessage()));
+            }
+            return;
+        }
+
+        int limit = DEFAULT_HISTORY_PAGE_SIZE;
+        if (limitParam != null) {
+            try {
+                limit = Integer.parseInt(limitParam);
+            } catch (NumberFormatException e) {
+                ctx.sendError(400, "Bad Request", "limit must be a number");
+                return;
+            }
+            if (limit <= 0 || limit > MAX_HISTORY_PAGE_SIZE) {
+                ctx.sendError(400, "Bad Request", "limit must be between 1 and " + MAX_HISTORY_PAGE_SIZE);
+                return;
+            }
+        }
+
+        HistoryCursor cursor = null;
+        if (cursorParam != null && !cursorParam.isEmpty()) {
+            try {
+                cursor = HistoryCursor.decode(cursorParam);
+            } catch (IllegalArgumentException e) {
+                ctx.sendError(400, "Bad Request", "Invalid cursor");
+                return;
+            }
+        }
+
+        ctx.sendJson(200, "OK", pushupController.getUserHistoryPage(ctx.getUserId(), cursor, limit));
+    }
+
+    // Full history as a file download: ?format=csv|ndjson, admins may select users with ?users=a,b
+    private void exportHistory(RequestContext ctx) throws Exception {
+        ExportFormat format;
+        try {
+            format = ExportFormat.of(ctx.getQueryParam("format"));
+        } catch (IllegalArgumentException e) {
+            ctx.sendError(400, "Bad Request", "format must be csv or ndjson");
+            return;
+        }
+
+        Integer[] userIds = {ctx.getUserId()};
+        // Username goes into a header: only keep characters that need no quoting
+        String fileName = "history-" + ctx.getUsername().replaceAll("[^A-Za-z0-9_-]", "_");
+        String usersParam = ctx.getQueryParam("users");
+        if (usersParam != null) {
+            if (!exportAdmins.contains(ctx.getUsername())) {
+                ctx.sendError(403, "Forbidden", "Only admins can export other users");
+                return;
+            }
+            List<String> usernames = List.copyOf(parseNames(URLDecoder.decode(usersParam, StandardCharsets.UTF_8)));
+            if (usernames.isEmpty()) {
+                ctx.sendError(400, "Bad Request", "users must name at least one user");
+                return;
+            }
+            Map<String, Integer> found;
+            try {
+                found = pushupController.findUserIds(usernames);
+            } catch (SQLException e) {
+                ctx.sendError(500, "Internal Server Error", "Database error: " + e.getMessage());
+                return;
+            }
+            if (found.size() < usernames.size()) {
+                List<String> unknown = usernames.stream().filter(name -> !found.containsKey(name)).toList();
+                ctx.sendError(404, "Not Found", "Unknown users: " + String.join(", ", unknown));
+                return;
+            }
+            userIds = found.values().toArray(new Integer[0]);
+            fileName = "history-export";
+        }
+
+        Integer[] selected = userIds;
+        ctx.addHeader("Content-Disposition",
+                "attachment; filename=\"" + fileName + "." + format.getExtension() + "\"");
+        try {
+            ctx.stream(200, "OK", format.getContentType(),
+                    out -> pushupController.exportHistory(selected, format, out));
+        } catch (SQLException e) {
+            // Failed before anything was sent
+            ctx.clearHeaders();
+            ctx.sendError(500, "Internal Server Error", "Database error: " + e.getMessage());
+        }
+    }
+
+    // Comma separated names, blanks dropped, order kept
+    private static Set<String> parseNames(String value) {
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : value.split(",")) {
+            if (!name.isBlank()) {
+                names.add(name.trim());
+            }
+        }
+        return names;
+    }
+
+    private void recordPushups(RequestContext ctx) throws Exception {
+        PushupRequest pushups = ctx.readBody(PushupRequest.class);
+
+        if (pushups.count() == null) {
+            ctx.sendError(400, "Bad Request", "Count is required");
+            return;
+        }
+
+        ctx.sendJson(200, "OK", pushupController.recordPushups(ctx.getUserId(), pushups.count(), pushups.durationInSeconds()));
+    }
+
+    private void getActiveTournament(RequestContext ctx) throws Exception {
+        ctx.sendJson(200, "OK", tournamentController.getActiveTournament());
+    }
+
+    // Recent tournaments (optional ?limit=n)
+    private void getRecentTournaments(RequestContext ctx) throws Exception {
+        int limit = DEFAULT_TOURNAMENT_LIMIT;
+        String limitParam = ctx.getQueryParam("limit");
+        if (limitParam != null) {
+            try {
+                limit = Integer.parseInt(limitParam);
+            } catch (NumberFormatException e) {
+                ctx.sendError(400, "Bad Request", "limit must be a number");
+                return;
+            }
+            if (limit <= 0 || limit > MAX_TOURNAMENT_LIMIT) {
+                ctx.sendError(400, "Bad Request", "limit must be between 1 and " + MAX_TOURNAMENT_LIMIT);
+                return;
+            }
+        }
+        ctx.sendJson(200, "OK", tournamentController.getRecentTournaments(limit));
+    }
+
+    private void getTournamentLogs(RequestContext ctx) throws Exception {
+        int tournamentId;
+        try {
+            tournamentId = Integer.parseInt(ctx.getParam("tournamentId"));
+        } catch (NumberFormatException e) {
+            ctx.sendError(400, "Bad Request", "Invalid tournament id");
+            return;
+        }
+        ctx.sendJson(200, "OK", tournamentController.getTournamentLogs(tournamentId));
+    }
+}
@@ -1,77 +1,258 @@
 package com.seb;
 
+import com.seb.config.DatabaseConfig;
+import com.seb.config.ServerConfig;
+import com.seb.controller.UserController;
+import com.seb.db.ConnectionPool;
+import com.seb.db.MigrationRunner;
+import com.seb.db.PartitionManager;
+import com.seb.http.KeepAlive;
+import com.seb.http.ResponseWriter;
+import com.seb.scheduler.SessionSweeper;
+import com.seb.scheduler.TournamentScheduler;
+import com.seb.server.ListenerSettings;
+import com.seb.server.NioServer;
+import com.seb.server.WorkerPool;
+
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 
 public class Server {
-    private static final int PORT = 10001;
+    private static final int DEFAULT_PORT = 10001;
+
+    // Server modes (selected with --server.mode=...)
+    public static final String MODE_NIO = "nio";
+    public static final String MODE_BLOCKING = "blocking";
+    public static final String MODE_VIRTUAL = "virtual";
+
+    private final int port;
+    private final String mode;
     private final ExecutorService threadPool;
-    private boolean running;
+    private final KeepAlive keepAlive;
+    private final int maxRequestBytes;
+    private final ListenerSettings listener;
+    private NioServer nioServer;
+    private TournamentScheduler tournamentScheduler;
+    private SessionSweeper sessionSweeper;
+    private PartitionManager partitionManager;
+    private volatile List<ServerSocket> serverSockets = new ArrayList<>();
+    private volatile boolean running;
 
     public Server() {
-        // Thread pool for handling client connections
-        this.threadPool = Executors.newFixedThreadPool(10);
+        this.port = ServerConfig.getInt("server.port", DEFAULT_PORT);
+        this.mode = ServerConfig.getString("server.mode", MODE_NIO).toLowerCase();
+        // Thread pool for handling client requests (virtual mode starts one virtual thread per connection)
+        // Platform pool has a bounded queue, work beyond it is answered with 503 (--server.queueDepth=100)
+        this.threadPool = MODE_VIRTUAL.equals(mode)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : WorkerPool.create(ServerConfig.getInt("server.workers", 10),
+                        ServerConfig.getInt("server.queueDepth", 100));
+        this.keepAlive = KeepAlive.fromConfig();
+        this.maxRequestBytes = ServerConfig.getInt("server.maxRequestBytes", 1024 * 1024);
+        this.listener = ListenerSettings.fromConfig();
         this.running = false;
     }
 
     public void start() {
         running = true;
-        ServerSocket serverSocket = null;
 
-        try {
-            // Initialize server socket
-            serverSocket = new ServerSocket(PORT);
-            System.out.println("SEB Server started on port " + PORT);
-
-            // Test DB connection
-            if (com.seb.config.DatabaseConfig.getInstance().testConnection()) {
-                System.out.println("Database connection successful!");
-            } else {
-                System.err.println("WARNING: Database connection failed!");
+        // Test DB connection
+        if (DatabaseConfig.getInstance().testConnection()) {
+            System.out.println("Database connection successful!");
+        } else {
+            System.err.println("WARNING: Database connection failed!");
+            System.exit(1);
+        }
+        checkPoolSize(DatabaseConfig.getInstance().getPool());
+
+        // Bring schema up to date before serving (--db.migrate=false if it is managed elsewhere)
+        if (ServerConfig.getBoolean("db.migrate", true)) {
+            try {
+                int applied = new MigrationRunner(DatabaseConfig.getInstance().getPool()).migrate();
+                System.out.println("Database schema up to date (" + applied + " migrations applied)");
+            } catch (SQLException e) {
+                System.err.println("Database migration failed: " + e.getMessage());
                 System.exit(1);
             }
+        }
 
-            // Loop for accepting client connections
-            while (running) {
-                try {
-                    Socket clientSocket = serverSocket.accept();
-                    // Submit client handling to thread pool
-                    threadPool.submit(new RequestHandler(clientSocket));
-                } catch (IOException e) {
-                    if (running) {
-                        System.err.println("Error accepting client connection: " + e.getMessage());
-                    }
-                }
-            }
+        // Auth configuration is checked before serving (e.g. a missing signing key)
+        try {
+            UserController.init();
+        } catch (ExceptionInInitializerError e) {
+            System.err.println("Invalid auth configuration: " + e.getCause().getMessage());
+            System.exit(1);
+        }
+
+        // Monthly pushup_records partitions exist before the first insert
+        partitionManager = PartitionManager.fromConfig(DatabaseConfig.getInstance().getPool());
+        if (partitionManager != null) {
+            partitionManager.start();
+        }
+
+        // Tournament expiry and creation run in the background, not in request handlers
+        tournamentScheduler = TournamentScheduler.fromConfig();
+        if (tournamentScheduler != null) {
+            tournamentScheduler.start();
+        }
+
+        // Expired login sessions are deleted in batches, not during login
+        sessionSweeper = SessionSweeper.fromConfig();
+        if (sessionSweeper != null) {
+            sessionSweeper.start();
+        }
+
+        if (MODE_BLOCKING.equals(mode) || MODE_VIRTUAL.equals(mode)) {
+            startBlocking();
+        } else if (MODE_NIO.equals(mode)) {
+            startNio();
+        } else {
+            System.err.println("Unknown server mode: " + mode);
+            System.exit(1);
+        }
+    }
+
+    // Non-blocking mode: event loops do socket I/O, thread pool only runs routing
+    private void startNio() {
+        try {
+            int eventLoops = ServerConfig.getInt("server.eventLoops",
+                    Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+
+            nioServer = new NioServer(port, eventLoops, threadPool, maxRequestBytes, keepAlive, listener);
+            nioServer.bind();
+            System.out.println("SEB Server started on port " + port + " (nio, " + eventLoops + " event loops, "
+                    + listener.getAcceptors() + " acceptors, " + nioServer.getListenerCount() + " listening sockets)");
+
+            nioServer.acceptLoop();
         } catch (IOException e) {
-            System.err.println("Could not start server on port " + PORT);
+            System.err.println("Could not start server on port " + port);
             e.printStackTrace();
         } finally {
             System.out.println("SEB Server shutting down...");
-            stop(serverSocket);
+            stop();
         }
     }
 
-    public void stop(ServerSocket serverSocket) {
-        running = false;
+    // Blocking mode: one pool thread per connection (or one virtual thread per connection in virtual mode)
+    private void startBlocking() {
+        try {
+            // Initialize server socket(s), one per acceptor with SO_REUSEPORT
+            serverSockets = listener.openSockets(port);
+            System.out.println("SEB Server started on port " + port + " (" + mode + ", "
+                    + listener.getAcceptors() + " acceptors, " + serverSockets.size() + " listening sockets)");
+
+            List<Thread> extraAcceptors = new ArrayList<>();
+            for (int i = 1; i < listener.getAcceptors(); i++) {
+                ServerSocket serverSocket = serverSockets.get(i % serverSockets.size());
+                Thread thread = new Thread(() -> acceptLoop(serverSocket), "seb-acceptor-" + i);
+                thread.start();
+                extraAcceptors.add(thread);
+            }
+
+            acceptLoop(serverSockets.get(0));
+
+            for (Thread thread : extraAcceptors) {
+                thread.join();
+            }
+        } catch (IOException e) {
+            System.err.println("Could not start server on port " + port);
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            System.out.println("SEB Server shutting down...");
+            stop();
+        }
+    }
 
-        if (serverSocket != null && !serverSocket.isClosed()) {
+    // Loop for accepting client connections
+    private void acceptLoop(ServerSocket serverSocket) {
+        while (running) {
             try {
-                serverSocket.close();
+                Socket clientSocket = serverSocket.accept();
+                listener.configure(clientSocket);
+                // Submit client handling to thread pool
+                try {
+                    threadPool.submit(new RequestHandler(clientSocket, keepAlive, maxRequestBytes));
+                } catch (RejectedExecutionException e) {
+                    rejectConnection(clientSocket);
+                }
             } catch (IOException e) {
-                System.err.println("Error closing server socket: " + e.getMessage());
+                if (running) {
+                    System.err.println("Error accepting client connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Workers beyond the pool size only wait for a connection (pool stats are on GET /metrics)
+    private void checkPoolSize(ConnectionPool pool) {
+        if (threadPool instanceof ThreadPoolExecutor workers) {
+            System.out.println("Database pool: " + pool.getMaxSize() + " connections for "
+                    + workers.getMaximumPoolSize() + " workers");
+            if (workers.getMaximumPoolSize() > pool.getMaxSize()) {
+                System.err.println("WARNING: more workers than database connections (--db.pool.maxSize)");
             }
+        } else {
+            System.out.println("Database pool: " + pool.getMaxSize() + " connections (virtual threads wait for one)");
+        }
+    }
+
+    // Queue full: answer 503 right away instead of letting client wait for a worker
+    private void rejectConnection(Socket clientSocket) {
+        WorkerPool.SHED_QUEUE_FULL.increment();
+        try (Socket socket = clientSocket) {
+            new ResponseWriter(socket.getOutputStream(), false).sendRetryLater(503, "Service Unavailable",
+                    WorkerPool.RETRY_AFTER_SECONDS, "Server busy, please retry later");
+        } catch (IOException e) {
+            System.err.println("Error rejecting client connection: " + e.getMessage());
+        }
+    }
+
+    public void stop() {
+        running = false;
+
+        for (ServerSocket serverSocket : serverSockets) {
+            if (!serverSocket.isClosed()) {
+                try {
+                    serverSocket.close();
+                } catch (IOException e) {
+                    System.err.println("Error closing server socket: " + e.getMessage());
+                }
+            }
+        }
+
+        if (nioServer != null) {
+            nioServer.stop();
         }
 
         threadPool.shutdown();
+        if (tournamentScheduler != null) {
+            tournamentScheduler.stop();
+        }
+        if (sessionSweeper != null) {
+            sessionSweeper.stop();
+        }
+        if (partitionManager != null) {
+            partitionManager.stop();
+        }
+        DatabaseConfig.getInstance().shutdown();
         System.out.println("Server stopped");
     }
 
     public static void main(String[] args) {
+        // e.g. --server.mode=blocking --server.port=10001
+        ServerConfig.applyArgs(args);
+
         Server server = new Server();
         server.start();
     }
-}
\ No newline at end of file
+}
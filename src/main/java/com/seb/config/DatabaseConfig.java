@@ -1,5 +1,9 @@
 package com.seb.config;
 
+import com.seb.db.ConnectionPool;
+import com.seb.db.PoolSettings;
+import com.seb.db.UnitOfWork;
+
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
@@ -11,8 +15,8 @@ public class DatabaseConfig {
     private static final String DB_USER = "webserver";
     private static final String DB_PASSWORD = "webserver";
 
-    // To store instance of DatabaseConfig
-    private static DatabaseConfig instance;
+    // Physical connections are reused across requests (sized with --db.pool.* settings)
+    private final ConnectionPool pool;
 
     // Load PostgreSQL driver in memory
     private DatabaseConfig() {
@@ -23,23 +27,42 @@ public class DatabaseConfig {
             e.printStackTrace();
             throw new RuntimeException("Failed to load database driver", e);
         }
+        this.pool = new ConnectionPool("main",
+                () -> DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD), PoolSettings.fromConfig());
     }
 
-    // Get DatabaseConfig instance
-    // "synchronized" ensures that only one instance of DatabaseConfig exist (Singleton)
-    public static synchronized DatabaseConfig getInstance() {
-        if (instance == null) {
-            instance = new DatabaseConfig();
-        }
-        return instance;
+    // Holds the single instance, created lazily on first access (class init is thread-safe)
+    // No "synchronized" here so virtual threads never pin their carrier thread on this lock
+    private static class Holder {
+        private static final DatabaseConfig INSTANCE = new DatabaseConfig();
     }
 
-    // Creates and returns new connection do DB
+    // Get DatabaseConfig instance (Singleton)
+    public static DatabaseConfig getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    // Borrows a connection from the pool (close() returns it)
+    // Inside a unit of work all callers on this thread share its connection and transaction
     public Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+        return UnitOfWork.getConnection(pool);
+    }
+
+    // One connection and one commit for all repository calls until the unit of work is closed
+    public UnitOfWork beginWork() {
+        return UnitOfWork.begin(pool);
+    }
+
+    public ConnectionPool getPool() {
+        return pool;
+    }
+
+    // Close pooled connections on server shutdown
+    public void shutdown() {
+        pool.close();
     }
 
-    // Safely close connection
+    // Safely close (return) connection
     public void closeConnection(Connection connection) {
         if (connection != null) {
             try {
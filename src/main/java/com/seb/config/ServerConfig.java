@@ -0,0 +1,62 @@
+package com.seb.config;
+
+public class ServerConfig {
+
+    // All settings are read from system properties with this prefix (e.g. -Dseb.server.mode=nio)
+    private static final String PREFIX = "seb.";
+
+    private ServerConfig() {
+    }
+
+    // Copy "--key=value" startup arguments into system properties ("--server.mode=blocking" -> seb.server.mode)
+    public static void applyArgs(String[] args) {
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                continue;
+            }
+            int eqPos = arg.indexOf('=');
+            if (eqPos > 2) {
+                System.setProperty(PREFIX + arg.substring(2, eqPos), arg.substring(eqPos + 1));
+            } else {
+                // Flag without value (e.g. "--server.tcpNoDelay")
+                System.setProperty(PREFIX + arg.substring(2), "true");
+            }
+        }
+    }
+
+    public static String getString(String key, String defaultValue) {
+        String value = System.getProperty(PREFIX + key);
+        return (value == null || value.isBlank()) ? defaultValue : value.trim();
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        String value = System.getProperty(PREFIX + key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid number for " + PREFIX + key + ": " + value + " (using " + defaultValue + ")");
+            return defaultValue;
+        }
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        String value = System.getProperty(PREFIX + key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid number for " + PREFIX + key + ": " + value + " (using " + defaultValue + ")");
+            return defaultValue;
+        }
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = System.getProperty(PREFIX + key);
+        return (value == null || value.isBlank()) ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+}
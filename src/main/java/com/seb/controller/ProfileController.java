@@ -1,11 +1,13 @@
 package com.seb.controller;
 
+import com.seb.config.DatabaseConfig;
+import com.seb.db.UnitOfWork;
+import com.seb.dto.ProfileResponse;
+import com.seb.dto.ScoreboardResponse;
 import com.seb.model.UserProfile;
 import com.seb.repository.UserRepository;
 
 import java.sql.SQLException;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Optional;
 
 public class ProfileController {
@@ -16,94 +18,66 @@ public class ProfileController {
     }
 
     // Get user profile
-    public Map<String, Object> getProfile(int userId) {
-        Map<String, Object> response = new HashMap<>();
-
-        try {
+    public ProfileResponse getProfile(int userId) {
+        // User and profile lookups on one connection
+        try (UnitOfWork work = DatabaseConfig.getInstance().beginWork()) {
             // Get user info
             Optional<com.seb.model.User> userOpt = userRepository.findById(userId);
 
             if (!userOpt.isPresent()) {
-                response.put("success", false);
-                response.put("message", "User not found");
-                return response;
+                return ProfileResponse.error("User not found");
             }
 
             com.seb.model.User user = userOpt.get();
 
             // Get profile info (might not exist yet)
             Optional<UserProfile> profileOpt = userRepository.getUserProfile(userId);
-
-            response.put("success", true);
-            response.put("UserId", user.getUserId());
-            response.put("Username", user.getUsername());
-            response.put("ELO", user.getElo());
+            work.commit();
 
             // Add profile fields if profile exists
             if (profileOpt.isPresent()) {
                 UserProfile profile = profileOpt.get();
-                response.put("Name", profile.getDisplayName());
-                response.put("Bio", profile.getBio());
-                response.put("Image", profile.getImage());
-            } else {
-                // Default values
-                response.put("Name", user.getUsername());
-                response.put("Bio", "");
-                response.put("Image", "");
+                return new ProfileResponse(true, null, user.getUserId(), user.getUsername(), user.getElo(),
+                        profile.getDisplayName(), profile.getBio(), profile.getImage());
             }
 
+            // Default values
+            return new ProfileResponse(true, null, user.getUserId(), user.getUsername(), user.getElo(),
+                    user.getUsername(), "", "");
+
         } catch (SQLException e) {
-            response.put("success", false);
-            response.put("message", "Database error: " + e.getMessage());
+            return ProfileResponse.error("Database error: " + e.getMessage());
         }
-
-        return response;
     }
 
     // Update user profile
-    public Map<String, Object> updateProfile(int userId, String name, String bio, String image) {
-        Map<String, Object> response = new HashMap<>();
-
-        try {
+    public ProfileResponse updateProfile(int userId, String name, String bio, String image) {
+        try (UnitOfWork work = DatabaseConfig.getInstance().beginWork()) {
             // Check if user exists
             Optional<com.seb.model.User> userOpt = userRepository.findById(userId);
 
             if (!userOpt.isPresent()) {
-                response.put("success", false);
-                response.put("message", "User not found");
-                return response;
+                return ProfileResponse.error("User not found");
             }
 
             // Update or create profile
             UserProfile profile = new UserProfile(userId, name, bio, image);
             userRepository.saveUserProfile(profile);
+            work.commit();
 
-            response.put("success", true);
-            response.put("message", "Profile updated successfully");
-            response.put("Name", name);
-            response.put("Bio", bio);
-            response.put("Image", image);
+            return new ProfileResponse(true, "Profile updated successfully", null, null, null, name, bio, image);
 
         } catch (SQLException e) {
-            response.put("success", false);
-            response.put("message", "Database error: " + e.getMessage());
+            return ProfileResponse.error("Database error: " + e.getMessage());
         }
-
-        return response;
     }
 
     // Get scoreboard
-    public Map<String, Object> getScoreboard() {
-        Map<String, Object> response = new HashMap<>();
-
+    public ScoreboardResponse getScoreboard() {
         try {
-            response.put("success", true);
-            response.put("scoreboard", userRepository.getScoreboard());
+            return new ScoreboardResponse(true, null, userRepository.getScoreboard());
         } catch (SQLException e) {
-            response.put("success", false);
-            response.put("message", "Database error: " + e.getMessage());
+            return ScoreboardResponse.error("Database error: " + e.getMessage());
         }
-
-        return response;
     }
-}
\ No newline at end of file
+}
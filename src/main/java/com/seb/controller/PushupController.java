@@ -1,114 +1,161 @@
 package com.seb.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.seb.config.DatabaseConfig;
+import com.seb.db.UnitOfWork;
+import com.seb.dto.ExportFormat;
+import com.seb.dto.HistoryCursor;
+import com.seb.dto.HistoryEntry;
+import com.seb.dto.HistoryResponse;
+import com.seb.dto.PushupIngestResult;
+import com.seb.dto.RecordPushupsResponse;
+import com.seb.dto.StatsResponse;
+import com.seb.metrics.Metrics;
 import com.seb.repository.StreakRepository;
 import com.seb.model.PushupRecord;
 import com.seb.model.Tournament;
 import com.seb.model.TournamentParticipant;
 import com.seb.repository.PushupRepository;
 import com.seb.repository.TournamentRepository;
+import com.seb.repository.UserRepository;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.sql.SQLException;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 public class PushupController {
     private final PushupRepository pushupRepository;
     private final TournamentRepository tournamentRepository;
     private final StreakRepository streakRepository;
+    private final UserRepository userRepository;
+
+    private final LongAdder exportedRows = Metrics.counter("export.rows");
 
     public PushupController() {
         this.pushupRepository = new PushupRepository();
         this.tournamentRepository = new TournamentRepository();
         this.streakRepository = new StreakRepository();
+        this.userRepository = new UserRepository();
     }
 
     // Record pushups
-    public Map<String, Object> recordPushups(int userId, int count, Integer durationInSeconds) {
-        Map<String, Object> response = new HashMap<>();
-
-        try {
+    public RecordPushupsResponse recordPushups(int userId, int count, Integer durationInSeconds) {
+        // All statements below share one connection and commit once
+        try (UnitOfWork work = DatabaseConfig.getInstance().beginWork()) {
             // Validate count
             if (count <= 0) {
-                response.put("success", false);
-                response.put("message", "Count must be greater than zero");
-                return response;
+                return RecordPushupsResponse.error("Count must be greater than zero");
             }
 
             // Use default duration if not provided
             int duration = (durationInSeconds != null) ? durationInSeconds : 120;
 
-            // Create pushup record with duration
+            // Record, tournament total and streak in one statement
             PushupRecord record = new PushupRecord(userId, count, duration);
-            PushupRecord savedRecord = pushupRepository.addRecord(record);
+            PushupIngestResult result = pushupRepository.ingest(record);
 
-            // Get or create active tournament
-            Tournament tournament = tournamentRepository.getOrCreateActiveTournament();
-
-            // Add user to tournament
-            TournamentParticipant participant = tournamentRepository.addParticipant(
-                    tournament.getTournamentId(), userId, count);
+            Tournament tournament;
+            int yourTotal;
+            if (result.tournamentId() != null) {
+                tournament = new Tournament(result.tournamentId(), result.tournamentStart(), "ACTIVE");
+                yourTotal = result.totalPushups();
+            } else {
+                // No running tournament: complete the expired one, start a new one and join it
+                tournament = tournamentRepository.getOrCreateActiveTournament();
+                TournamentParticipant participant = tournamentRepository.addParticipant(
+                        tournament.getTournamentId(), userId, count);
+                yourTotal = participant.getTotalPushups();
+            }
 
             // Check if tournament is expired after adding participant
-            if (tournament.isExpired()) {
+            boolean completed = tournament.isExpired();
+            Long remainingTime = null;
+            if (completed) {
                 tournamentRepository.completeTournament(tournament.getTournamentId());
-                response.put("tournamentCompleted", true);
             } else {
-                response.put("tournamentCompleted", false);
-
                 // Calculate time left (seconds)
                 long remainingSeconds = java.time.Duration.between(
                         java.time.LocalDateTime.now(),
-                        tournament.getStartTime().plusMinutes(2)
+                        tournament.getStartTime().plus(Tournament.DURATION)
                 ).getSeconds();
 
-                response.put("remainingTime", Math.max(0, remainingSeconds));
+                remainingTime = Math.max(0, remainingSeconds);
             }
 
-            response.put("success", true);
-            response.put("message", "Pushups recorded successfully");
-            response.put("recordId", savedRecord.getRecordId());
-            response.put("tournamentId", tournament.getTournamentId());
-            response.put("yourTotal", participant.getTotalPushups());
+            work.commit();
+            return new RecordPushupsResponse(true, "Pushups recorded successfully", result.recordId(),
+                    tournament.getTournamentId(), yourTotal, completed, remainingTime);
 
         } catch (SQLException e) {
-            response.put("success", false);
-            response.put("message", "Database error: " + e.getMessage());
+            return RecordPushupsResponse.error("Database error: " + e.getMessage());
         }
-
-        return response;
     }
 
     // Get user pushup history
-    public Map<String, Object> getUserHistory(int userId) {
-        Map<String, Object> response = new HashMap<>();
+    public HistoryResponse getUserHistory(int userId) {
+        try {
+            return new HistoryResponse(true, null, pushupRepository.getUserHistory(userId));
+        } catch (SQLException e) {
+            return HistoryResponse.error("Database error: " + e.getMessage());
+        }
+    }
 
+    // One page of history (newest first) with the cursor of the next page, if there is one
+    public HistoryResponse getUserHistoryPage(int userId, HistoryCursor after, int limit) {
         try {
-            List<Map<String, Object>> history = pushupRepository.getUserHistory(userId);
-            response.put("success", true);
-            response.put("history", history);
+            // One extra row tells whether another page follows
+            List<HistoryEntry> entries = pushupRepository.getUserHistoryPage(userId, after, limit + 1);
+            String nextCursor = null;
+            if (entries.size() > limit) {
+                entries = entries.subList(0, limit);
+                nextCursor = HistoryCursor.after(entries.get(limit - 1)).encode();
+            }
+            return new HistoryResponse(true, null, entries, nextCursor);
         } catch (SQLException e) {
-            response.put("success", false);
-            response.put("message", "Database error: " + e.getMessage());
+            return HistoryResponse.error("Database error: " + e.getMessage());
         }
+    }
 
-        return response;
+    // Write the whole history as a HistoryResponse while the rows are read (no list in memory)
+    // The connection is held until the last row is written
+    public void writeUserHistory(int userId, JsonGenerator json) throws SQLException, IOException {
+        // Transaction lets the driver fetch the rows in batches
+        try (UnitOfWork work = DatabaseConfig.getInstance().beginWork()) {
+            json.writeStartObject();
+            json.writeBooleanField("success", true);
+            json.writeArrayFieldStart("history");
+            pushupRepository.streamUserHistory(userId, json::writeObject);
+            json.writeEndArray();
+            json.writeEndObject();
+            work.commit();
+        }
     }
 
-    // Get user stats
-    public Map<String, Object> getUserStats(int userId) {
-        Map<String, Object> response = new HashMap<>();
+    // Stream the records of the given users into out as CSV or NDJSON, returns rows written
+    public long exportHistory(Integer[] userIds, ExportFormat format, OutputStream out)
+            throws SQLException, IOException {
+        long start = System.currentTimeMillis();
+        long rows = pushupRepository.exportHistory(userIds, format, out);
+        exportedRows.add(rows);
+        System.out.println("Exported " + rows + " records of " + userIds.length + " users in "
+                + (System.currentTimeMillis() - start) + " ms");
+        return rows;
+    }
 
-        try {
-            Map<String, Object> stats = pushupRepository.getUserStats(userId);
+    // user_id of every known username (group export)
+    public Map<String, Integer> findUserIds(List<String> usernames) throws SQLException {
+        return userRepository.findUserIds(usernames);
+    }
 
-            response.put("success", true);
-            response.putAll(stats);
+    // Get user stats
+    public StatsResponse getUserStats(int userId) {
+        try {
+            return StatsResponse.of(pushupRepository.getUserStats(userId));
         } catch (SQLException e) {
-            response.put("success", false);
-            response.put("message", "Database error: " + e.getMessage());
+            return StatsResponse.error("Database error: " + e.getMessage());
         }
-
-        return response;
     }
-}
\ No newline at end of file
+}
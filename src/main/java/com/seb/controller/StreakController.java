@@ -1,11 +1,15 @@
 package com.seb.controller;
 
+import com.seb.dto.StreakEntry;
+import com.seb.dto.StreakLeaderboardResponse;
+import com.seb.dto.StreakResponse;
 import com.seb.model.UserStreak;
 import com.seb.repository.StreakRepository;
 
 import java.sql.SQLException;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Optional;
 
 public class StreakController {
@@ -16,45 +20,34 @@ public class StreakController {
     }
 
     // Get user streak info
-    public Map<String, Object> getUserStreak(int userId) {
-        Map<String, Object> response = new HashMap<>();
-
+    public StreakResponse getUserStreak(int userId) {
         try {
             Optional<UserStreak> streakOpt = streakRepository.getUserStreak(userId);
 
-            response.put("success", true);
-
             if (streakOpt.isPresent()) {
                 UserStreak streak = streakOpt.get();
-                response.put("currentStreak", streak.getCurrentStreak());
-                response.put("longestStreak", streak.getLongestStreak());
-                response.put("lastActive", streak.getLastActive());
-            } else {
-                response.put("currentStreak", 0);
-                response.put("longestStreak", 0);
-                response.put("lastActive", null);
+                return new StreakResponse(true, null, streak.getCurrentStreak(), streak.getLongestStreak(),
+                        streak.getLastActive());
             }
+            return new StreakResponse(true, null, 0, 0, null);
 
         } catch (SQLException e) {
-            response.put("success", false);
-            response.put("message", "Database error: " + e.getMessage());
+            return StreakResponse.error("Database error: " + e.getMessage());
         }
-
-        return response;
     }
 
     // Get streak leaderboard
-    public Map<String, Object> getStreakLeaderboard() {
-        Map<String, Object> response = new HashMap<>();
-
+    public StreakLeaderboardResponse getStreakLeaderboard() {
         try {
-            response.put("success", true);
-            response.putAll(streakRepository.getStreakLeaderboard());
+            List<StreakEntry> currentStreaks = streakRepository.getStreakLeaderboard();
+
+            // Sort copy for longest streaks
+            List<StreakEntry> longestStreaks = new ArrayList<>(currentStreaks);
+            longestStreaks.sort(Comparator.comparingInt(StreakEntry::longestStreak).reversed());
+
+            return new StreakLeaderboardResponse(true, null, currentStreaks, longestStreaks);
         } catch (SQLException e) {
-            response.put("success", false);
-            response.put("message", "Database error: " + e.getMessage());
+            return StreakLeaderboardResponse.error("Database error: " + e.getMessage());
         }
-
-        return response;
     }
-}
\ No newline at end of file
+}
@@ -1,11 +1,14 @@
 package com.seb.controller;
 
+import com.seb.config.DatabaseConfig;
+import com.seb.db.UnitOfWork;
+import com.seb.dto.RecentTournamentsResponse;
+import com.seb.dto.TournamentLogsResponse;
+import com.seb.dto.TournamentResponse;
 import com.seb.model.Tournament;
 import com.seb.repository.TournamentRepository;
 
 import java.sql.SQLException;
-import java.util.HashMap;
-import java.util.Map;
 
 public class TournamentController {
     private final TournamentRepository tournamentRepository;
@@ -15,17 +18,11 @@ public class TournamentController {
     }
 
     // Get active tournament/create new tournament
-    public Map<String, Object> getActiveTournament() {
-        Map<String, Object> response = new HashMap<>();
-
-        try {
+    public TournamentResponse getActiveTournament() {
+        // Lookup, participants and a possible rollover to a new tournament on one connection
+        try (UnitOfWork work = DatabaseConfig.getInstance().beginWork()) {
             Tournament tournament = tournamentRepository.getOrCreateActiveTournament();
-
-            response.put("success", true);
-            response.put("tournamentId", tournament.getTournamentId());
-            response.put("startTime", tournament.getStartTime());
-            response.put("status", tournament.getStatus());
-            response.put("participants", tournament.getParticipants());
+            work.commit();
 
             // Calculate remaining time in seconds
             long remainingSeconds = java.time.Duration.between(
@@ -33,43 +30,29 @@ public class TournamentController {
                     tournament.getStartTime().plusMinutes(2)
             ).getSeconds();
 
-            response.put("remainingTime", Math.max(0, remainingSeconds));
+            return new TournamentResponse(true, null, tournament.getTournamentId(), tournament.getStartTime(),
+                    tournament.getStatus(), tournament.getParticipants(), Math.max(0, remainingSeconds));
 
         } catch (SQLException e) {
-            response.put("success", false);
-            response.put("message", "Database error: " + e.getMessage());
+            return TournamentResponse.error("Database error: " + e.getMessage());
         }
-
-        return response;
     }
 
     // Get recent tournaments
-    public Map<String, Object> getRecentTournaments(int limit) {
-        Map<String, Object> response = new HashMap<>();
-
+    public RecentTournamentsResponse getRecentTournaments(int limit) {
         try {
-            response.put("success", true);
-            response.put("tournaments", tournamentRepository.getRecentTournaments(limit));
+            return new RecentTournamentsResponse(true, null, tournamentRepository.getRecentTournaments(limit));
         } catch (SQLException e) {
-            response.put("success", false);
-            response.put("message", "Database error: " + e.getMessage());
+            return RecentTournamentsResponse.error("Database error: " + e.getMessage());
         }
-
-        return response;
     }
 
     // Get tournament logs
-    public Map<String, Object> getTournamentLogs(int tournamentId) {
-        Map<String, Object> response = new HashMap<>();
-
+    public TournamentLogsResponse getTournamentLogs(int tournamentId) {
         try {
-            response.put("success", true);
-            response.put("logs", tournamentRepository.getTournamentLogs(tournamentId));
+            return new TournamentLogsResponse(true, null, tournamentRepository.getTournamentLogs(tournamentId));
         } catch (SQLException e) {
-            response.put("success", false);
-            response.put("message", "Database error: " + e.getMessage());
+            return TournamentLogsResponse.error("Database error: " + e.getMessage());
         }
-
-        return response;
     }
-}
\ No newline at end of file
+}
@@ -1,112 +1,155 @@
 package com.seb.controller;
 
+import com.seb.config.ServerConfig;
+import com.seb.dto.AuthResponse;
+import com.seb.metrics.Metrics;
 import com.seb.model.User;
 import com.seb.repository.UserRepository;
+import com.seb.security.PasswordHasher;
 import com.seb.security.PasswordUtil;
+import com.seb.security.TokenSigner;
+import com.seb.security.TokenSigner.Claims;
 
 import java.sql.SQLException;
-import java.util.HashMap;
-import java.util.Map;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
 
 public class UserController {
+    private static final String LEGACY_SUFFIX = "-sebToken";
+    // Signs new tokens (null: keep issuing legacy username-sebToken tokens stored in auth_tokens)
+    private static final TokenSigner SIGNER = TokenSigner.fromConfig();
+    // Existing legacy rows are still verified during the migration (no new ones are written while signing)
+    // --auth.legacyTokens=true --auth.legacyTokens.until=2026-12-01T00:00:00Z (cut-off, empty: until the rows expire)
+    private static final boolean ACCEPT_LEGACY = ServerConfig.getBoolean("auth.legacyTokens", true);
+    private static final Instant LEGACY_UNTIL = parseInstant(ServerConfig.getString("auth.legacyTokens.until", ""));
+    // Password hashing off the request threads (throws RejectedExecutionException when saturated)
+    private static final PasswordHasher HASHER = PasswordHasher.fromConfig();
+    private static final LongAdder REHASHED = Metrics.counter("auth.hashing.rehashed");
+
     private final UserRepository userRepository;
 
     public UserController() {
         this.userRepository = new UserRepository();
     }
 
-    // Register
-    public Map<String, Object> register(String username, String password) {
-        Map<String, Object> response = new HashMap<>();
+    // Loads token signing and password hashing settings (called at startup, so bad configuration stops the server)
+    public static void init() {
+        System.out.println("Auth tokens: " + (SIGNER != null ? "signed" : "legacy")
+                + ", password hashing: PBKDF2 with " + PasswordUtil.ITERATIONS + " iterations");
+    }
 
+    // Register
+    public AuthResponse register(String username, String password) {
         try {
             // Check if username exists
             Optional<User> existingUser = userRepository.findByUsername(username);
             if (existingUser.isPresent()) {
-                response.put("success", false);
-                response.put("message", "Username already exists");
-                return response;
+                return AuthResponse.error("Username already exists");
             }
 
             // Hash password
-            String passwordHash = PasswordUtil.hashPassword(password);
+            String passwordHash = HASHER.hash(password);
 
             // Create new user
             User newUser = new User(username, passwordHash);
             User createdUser = userRepository.createUser(newUser);
 
             // Generate auth token
-            String token = userRepository.createAuthToken(createdUser.getUserId(), username);
+            String token = issueToken(createdUser.getUserId(), username);
 
-            response.put("success", true);
-            response.put("message", "User registered successfully");
-            response.put("userId", createdUser.getUserId());
-            response.put("token", token);
+            return new AuthResponse(true, "User registered successfully", createdUser.getUserId(), token, null);
 
         } catch (SQLException e) {
-            response.put("success", false);
-            response.put("message", "Database error: " + e.getMessage());
+            return AuthResponse.error("Database error: " + e.getMessage());
         }
-
-        return response;
     }
 
     // Login
-    public Map<String, Object> login(String username, String password) {
-        Map<String, Object> response = new HashMap<>();
-
+    public AuthResponse login(String username, String password) {
         try {
             // Find user by username
             Optional<User> userOpt = userRepository.findByUsername(username);
 
             if (!userOpt.isPresent()) {
-                response.put("success", false);
-                response.put("message", "Invalid username or password");
-                return response;
+                return AuthResponse.error("Invalid username or password");
             }
 
             User user = userOpt.get();
 
             // Verify password
-            if (!PasswordUtil.verifyPassword(password, user.getPasswordHash())) {
-                response.put("success", false);
-                response.put("message", "Invalid username or password");
-                return response;
+            if (!HASHER.verify(password, user.getPasswordHash())) {
+                return AuthResponse.error("Invalid username or password");
+            }
+
+            // Old format or parameters: store a current hash in the background, the login does not wait
+            if (PasswordUtil.needsRehash(user.getPasswordHash())) {
+                HASHER.runLater(() -> rehash(user, password));
             }
 
             // Generate auth token with username
-            String token = userRepository.createAuthToken(user.getUserId(), username);
+            String token = issueToken(user.getUserId(), username);
 
-            response.put("success", true);
-            response.put("message", "Login successful");
-            response.put("userId", user.getUserId());
-            response.put("token", token);
-            response.put("elo", user.getElo());
+            return new AuthResponse(true, "Login successful", user.getUserId(), token, user.getElo());
+
+        } catch (SQLException e) {
+            return AuthResponse.error("Database error: " + e.getMessage());
+        }
+    }
 
+    private void rehash(User user, String password) {
+        try {
+            if (userRepository.updatePasswordHash(user.getUserId(), user.getPasswordHash(),
+                    PasswordUtil.hashPassword(password))) {
+                REHASHED.increment();
+            }
         } catch (SQLException e) {
-            response.put("success", false);
-            response.put("message", "Database error: " + e.getMessage());
+            System.err.println("Rehashing password of user " + user.getUserId() + " failed: " + e.getMessage());
+        }
+    }
+
+    // Signed token, or the legacy token when signing is switched off
+    private String issueToken(int userId, String username) throws SQLException {
+        if (SIGNER == null) {
+            return userRepository.createAuthToken(userId, username);
+        }
+        return SIGNER.issue(userId, username);
+    }
+
+    // Without signing, legacy tokens are the only ones; otherwise only during the migration window
+    private static boolean acceptsLegacy() {
+        if (SIGNER == null) {
+            return true;
         }
+        return ACCEPT_LEGACY && (LEGACY_UNTIL == null || Instant.now().isBefore(LEGACY_UNTIL));
+    }
 
-        return response;
+    private static Instant parseInstant(String value) {
+        if (value.isBlank()) {
+            return null;
+        }
+        try {
+            return Instant.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("auth.legacyTokens.until must be an ISO instant, e.g. 2026-12-01T00:00:00Z");
+        }
     }
 
     // Validate auth token
     public boolean validateToken(String token) {
         try {
-            return userRepository.validateToken(token).isPresent();
+            return verify(token).isPresent();
         } catch (SQLException e) {
             return false;
         }
     }
 
-    // Get user ID from token
-    public Optional<Integer> getUserIdFromToken(String authHeader) {
+    // User of the "Basic <token>" header: signed tokens need no database, legacy ones are looked up
+    public Optional<Claims> authenticate(String authHeader) {
         try {
             if (authHeader != null && authHeader.startsWith("Basic ")) {
-                String token = authHeader.substring("Basic ".length());
-                return userRepository.validateToken(token);
+                return verify(authHeader.substring("Basic ".length()));
             }
             return Optional.empty();
         } catch (SQLException e) {
@@ -114,15 +157,36 @@ public class UserController {
         }
     }
 
-    // Extract username from auth header
-    public String getUsernameFromToken(String authHeader) {
-        if (authHeader != null && authHeader.startsWith("Basic ")) {
-            String token = authHeader.substring("Basic ".length());
-            if (token.contains("-sebToken")) {
-                return token.split("-sebToken")[0];
+    // User of a signed "Basic <token>" header, checked without the database (legacy tokens: empty)
+    public Optional<Claims> verifySigned(String authHeader) {
+        if (SIGNER == null || authHeader == null || !authHeader.startsWith("Basic ")) {
+            return Optional.empty();
+        }
+        return SIGNER.verify(authHeader.substring("Basic ".length()));
+    }
+
+    private Optional<Claims> verify(String token) throws SQLException {
+        if (SIGNER != null) {
+            Optional<Claims> claims = SIGNER.verify(token);
+            if (claims.isPresent()) {
+                return claims;
             }
         }
-        return null;
+        if (!acceptsLegacy() || !token.endsWith(LEGACY_SUFFIX) || token.length() == LEGACY_SUFFIX.length()) {
+            return Optional.empty();
+        }
+        String username = token.substring(0, token.length() - LEGACY_SUFFIX.length());
+        return userRepository.validateToken(token).map(userId -> new Claims(userId, username, Long.MAX_VALUE));
+    }
+
+    // Get user ID from token
+    public Optional<Integer> getUserIdFromToken(String authHeader) {
+        return authenticate(authHeader).map(Claims::userId);
+    }
+
+    // Extract username from auth header (only for a valid token)
+    public String getUsernameFromToken(String authHeader) {
+        return authenticate(authHeader).map(Claims::username).orElse(null);
     }
 
     // Check if user can access profile
@@ -130,4 +194,4 @@ public class UserController {
         String tokenUsername = getUsernameFromToken(authHeader);
         return tokenUsername != null && tokenUsername.equals(profileUsername);
     }
-}
\ No newline at end of file
+}
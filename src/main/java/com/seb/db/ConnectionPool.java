@@ -0,0 +1,470 @@
+package com.seb.db;
+
+import com.seb.metrics.Metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Keeps physical database connections open and hands them out again
+// Callers use the returned Connection as before: close() gives it back to the pool instead of closing it
+public final class ConnectionPool {
+
+    // Opens a new physical connection
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection create() throws SQLException;
+    }
+
+    public record Stats(int total, int idle, int active, int waiting, int maxSize) {
+    }
+
+    private final String name;
+    private final ConnectionFactory factory;
+    private final PoolSettings settings;
+
+    // ReentrantLock instead of synchronized: waiting virtual threads don't pin their carrier thread
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition returned = lock.newCondition();
+    // Most recently used first (keeps few connections warm, the others can idle out)
+    private final ArrayDeque<PooledConnection> idle = new ArrayDeque<>();
+    // Physical connections open or being opened, and threads waiting for one (guarded by lock)
+    private int total;
+    private int waiting;
+    private boolean closed;
+
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+
+    private final LongAdder created;
+    private final LongAdder closedConnections;
+    private final LongAdder borrows;
+    private final LongAdder waitMillis;
+    private final LongAdder timeouts;
+    private final LongAdder invalid;
+    private final LongAdder leaks;
+
+    public ConnectionPool(String name, ConnectionFactory factory, PoolSettings settings) {
+        this.name = name;
+        this.factory = factory;
+        this.settings = settings;
+
+        String prefix = "db.pool." + name + ".";
+        this.created = Metrics.counter(prefix + "created");
+        this.closedConnections = Metrics.counter(prefix + "closed");
+        this.borrows = Metrics.counter(prefix + "borrows");
+        this.waitMillis = Metrics.counter(prefix + "waitMillis");
+        this.timeouts = Metrics.counter(prefix + "timeouts");
+        this.invalid = Metrics.counter(prefix + "invalid");
+        this.leaks = Metrics.counter(prefix + "leaks");
+        Metrics.gauge(prefix + "total", () -> getStats().total());
+        Metrics.gauge(prefix + "idle", () -> getStats().idle());
+        Metrics.gauge(prefix + "active", () -> getStats().active());
+        Metrics.gauge(prefix + "waiting", () -> getStats().waiting());
+        Metrics.gauge(prefix + "maxSize", settings::getMaxSize);
+
+        if (settings.getHousekeepingMillis() > 0) {
+            housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "seb-db-pool-" + name);
+                thread.setDaemon(true);
+                return thread;
+            });
+            // First run right away opens the minIdle connections
+            housekeeper.scheduleWithFixedDelay(this::runHousekeeping, 0, settings.getHousekeepingMillis(),
+                    TimeUnit.MILLISECONDS);
+        } else {
+            housekeeper = null;
+        }
+    }
+
+    // Borrow a connection, waits up to borrowTimeoutMillis if all are in use
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(settings.getBorrowTimeoutMillis());
+
+        while (true) {
+            PooledConnection entry = null;
+            boolean open = false;
+
+            lock.lock();
+            try {
+                while (entry == null && !open) {
+                    if (closed) {
+                        throw new SQLException("Connection pool " + name + " is closed");
+                    }
+                    entry = idle.pollFirst();
+                    if (entry == null && total < settings.getMaxSize()) {
+                        // Reserve the slot, connect outside the lock
+                        total++;
+                        open = true;
+                    } else if (entry == null) {
+                        awaitReturn(deadline);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (open) {
+                entry = openReserved();
+            } else if (!isUsable(entry)) {
+                discard(entry);
+                continue;
+            }
+            return lease(entry, start);
+        }
+    }
+
+    // Wait for a returned connection (lock held)
+    private void awaitReturn(long deadline) throws SQLException {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            timeouts.increment();
+            throw new SQLTransientConnectionException("Connection pool " + name + " timed out after "
+                    + settings.getBorrowTimeoutMillis() + " ms (" + total + " connections in use, max "
+                    + settings.getMaxSize() + ")");
+        }
+        waiting++;
+        try {
+            returned.awaitNanos(remaining);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        } finally {
+            waiting--;
+        }
+    }
+
+    // Open a connection for a slot already counted in total (slot is freed again on failure)
+    private PooledConnection openReserved() throws SQLException {
+        try {
+            Connection physical = factory.create();
+            created.increment();
+            return new PooledConnection(physical, System.nanoTime());
+        } catch (SQLException | RuntimeException e) {
+            freeSlot();
+            throw e;
+        }
+    }
+
+    // Idle connection still good? Recently used ones skip the isValid() round trip
+    private boolean isUsable(PooledConnection entry) {
+        long now = System.nanoTime();
+        if (isExpired(entry, now)) {
+            return false;
+        }
+        if (now - entry.lastUsed < TimeUnit.MILLISECONDS.toNanos(settings.getValidationBypassMillis())) {
+            return true;
+        }
+        try {
+            if (entry.physical.isValid(settings.getValidationTimeoutSeconds())) {
+                return true;
+            }
+        } catch (SQLException e) {
+            System.err.println("Connection validation failed: " + e.getMessage());
+        }
+        invalid.increment();
+        return false;
+    }
+
+    private boolean isExpired(PooledConnection entry, long now) {
+        return settings.getMaxLifetimeMillis() > 0
+                && now - entry.createdAt > TimeUnit.MILLISECONDS.toNanos(settings.getMaxLifetimeMillis());
+    }
+
+    private Connection lease(PooledConnection entry, long start) {
+        long now = System.nanoTime();
+        entry.borrowedAt = now;
+        entry.borrowerThread = Thread.currentThread().getName();
+        // Capturing the stack costs a few microseconds, only done when leak detection is on
+        entry.borrower = settings.getLeakDetectionMillis() > 0 ? new Throwable("Connection borrowed here") : null;
+        entry.leakReported = false;
+        borrowed.add(entry);
+
+        borrows.increment();
+        waitMillis.add(TimeUnit.NANOSECONDS.toMillis(now - start));
+
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new Lease(entry));
+    }
+
+    // Called by close() of a borrowed connection
+    private void giveBack(PooledConnection entry) {
+        borrowed.remove(entry);
+        long now = System.nanoTime();
+        if (entry.leakReported) {
+            System.err.println("Connection reported as leaked was returned after "
+                    + TimeUnit.NANOSECONDS.toMillis(now - entry.borrowedAt) + " ms");
+        }
+        entry.borrower = null;
+
+        if (entry.broken || isExpired(entry, now) || !reset(entry)) {
+            discard(entry);
+            return;
+        }
+        entry.lastUsed = now;
+
+        lock.lock();
+        try {
+            if (!closed) {
+                idle.addFirst(entry);
+                returned.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        discard(entry);
+    }
+
+    // Undo what the borrower left behind (open transaction, autocommit off)
+    private boolean reset(PooledConnection entry) {
+        try {
+            if (entry.physical.isClosed()) {
+                return false;
+            }
+            if (!entry.physical.getAutoCommit()) {
+                entry.physical.rollback();
+                entry.physical.setAutoCommit(true);
+            }
+            entry.physical.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Could not reset pooled connection: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void discard(PooledConnection entry) {
+        freeSlot();
+        closePhysical(entry);
+    }
+
+    private void freeSlot() {
+        lock.lock();
+        try {
+            total--;
+            returned.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void closePhysical(PooledConnection entry) {
+        closedConnections.increment();
+        try {
+            entry.physical.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    private void runHousekeeping() {
+        try {
+            housekeep();
+        } catch (RuntimeException e) {
+            // Keep the scheduled task alive
+            System.err.println("Connection pool housekeeping failed: " + e.getMessage());
+        }
+    }
+
+    // Close expired and surplus idle connections, open up to minIdle again, report leaks
+    public void housekeep() {
+        long now = System.nanoTime();
+        long idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(settings.getIdleTimeoutMillis());
+        List<PooledConnection> retired = new ArrayList<>();
+        int missing;
+
+        lock.lock();
+        try {
+            // Least recently used first
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext()) {
+                PooledConnection entry = it.next();
+                boolean surplus = settings.getIdleTimeoutMillis() > 0 && now - entry.lastUsed > idleTimeoutNanos
+                        && idle.size() > settings.getMinIdle();
+                if (surplus || isExpired(entry, now)) {
+                    it.remove();
+                    total--;
+                    retired.add(entry);
+                }
+            }
+            missing = closed ? 0 : Math.min(settings.getMinIdle() - idle.size(), settings.getMaxSize() - total);
+            if (missing > 0) {
+                total += missing;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        for (PooledConnection entry : retired) {
+            closePhysical(entry);
+        }
+
+        for (int i = 0; i < missing; i++) {
+            PooledConnection entry;
+            try {
+                entry = openReserved();
+            } catch (SQLException e) {
+                System.err.println("Could not open database connection for pool " + name + ": " + e.getMessage());
+                for (int j = i + 1; j < missing; j++) {
+                    freeSlot();
+                }
+                break;
+            }
+            lock.lock();
+            try {
+                // Fresh connections go to the cold end, warm ones stay in front
+                idle.addLast(entry);
+                returned.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        detectLeaks(now);
+    }
+
+    private void detectLeaks(long now) {
+        if (settings.getLeakDetectionMillis() <= 0) {
+            return;
+        }
+        long thresholdNanos = TimeUnit.MILLISECONDS.toNanos(settings.getLeakDetectionMillis());
+        for (PooledConnection entry : borrowed) {
+            Throwable borrower = entry.borrower;
+            if (!entry.leakReported && now - entry.borrowedAt > thresholdNanos) {
+                entry.leakReported = true;
+                leaks.increment();
+                System.err.println("Possible connection leak in pool " + name + ": borrowed "
+                        + TimeUnit.NANOSECONDS.toMillis(now - entry.borrowedAt) + " ms ago by thread "
+                        + entry.borrowerThread);
+                if (borrower != null) {
+                    borrower.printStackTrace();
+                }
+            }
+        }
+    }
+
+    public Stats getStats() {
+        lock.lock();
+        try {
+            return new Stats(total, idle.size(), total - idle.size(), waiting, settings.getMaxSize());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getMaxSize() {
+        return settings.getMaxSize();
+    }
+
+    // Close idle connections now, borrowed ones when they are returned
+    public void close() {
+        if (housekeeper != null) {
+            housekeeper.shutdownNow();
+        }
+        List<PooledConnection> closing;
+        lock.lock();
+        try {
+            closed = true;
+            closing = new ArrayList<>(idle);
+            idle.clear();
+            total -= closing.size();
+            returned.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (PooledConnection entry : closing) {
+            closePhysical(entry);
+        }
+    }
+
+    // SQLState class 08 = connection exception, 57P = server shutting down
+    private static boolean isFatal(SQLException e) {
+        String state = e.getSQLState();
+        return state != null && (state.startsWith("08") || state.startsWith("57P"));
+    }
+
+    private static class PooledConnection {
+        private final Connection physical;
+        private final long createdAt;
+        private volatile long lastUsed;
+
+        // Current borrower (for leak reports)
+        private volatile long borrowedAt;
+        private volatile String borrowerThread;
+        private volatile Throwable borrower;
+        private volatile boolean leakReported;
+        private volatile boolean broken;
+
+        PooledConnection(Connection physical, long now) {
+            this.physical = physical;
+            this.createdAt = now;
+            this.lastUsed = now;
+        }
+    }
+
+    // Handle given to one borrower: close() returns the connection, any use afterwards fails
+    private class Lease implements InvocationHandler {
+        private final PooledConnection entry;
+        private volatile boolean released;
+
+        Lease(PooledConnection entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!released) {
+                        released = true;
+                        giveBack(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    if (released) {
+                        return true;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + entry.physical + "]";
+                default:
+                    break;
+            }
+
+            if (released) {
+                throw new SQLException("Connection was already returned to the pool");
+            }
+            try {
+                return method.invoke(entry.physical, args);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException sqlException && isFatal(sqlException)) {
+                    entry.broken = true;
+                }
+                throw cause;
+            }
+        }
+    }
+}
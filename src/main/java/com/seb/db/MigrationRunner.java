@@ -0,0 +1,197 @@
+package com.seb.db;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Applies the numbered SQL scripts in db/migration (V001__description.sql, V002__...) at startup
+// Applied versions are recorded with a checksum in schema_migrations, each script runs in its own transaction.
+// A Postgres advisory lock serializes servers starting at the same time (the others wait, then find nothing to do)
+public class MigrationRunner {
+    static final String LOCATION = "db/migration";
+
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    // Same constant on every server of this application
+    private static final long LOCK_KEY = 0x5EB_0001L;
+
+    public record Migration(int version, String description, String script, String checksum) {
+    }
+
+    private final ConnectionPool pool;
+
+    public MigrationRunner(ConnectionPool pool) {
+        this.pool = pool;
+    }
+
+    // Apply all pending migrations, returns how many were applied
+    public int migrate() throws SQLException {
+        List<Migration> migrations = loadMigrations(MigrationRunner.class.getClassLoader());
+
+        // Advisory lock belongs to the session: take and release it on the same connection
+        try (Connection conn = pool.getConnection()) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("SELECT pg_advisory_lock(" + LOCK_KEY + ")");
+            }
+            try {
+                createHistoryTable(conn);
+                Map<Integer, String> applied = getAppliedChecksums(conn);
+
+                int count = 0;
+                for (Migration migration : migrations) {
+                    String checksum = applied.get(migration.version());
+                    if (checksum == null) {
+                        apply(conn, migration);
+                        count++;
+                    } else if (!checksum.equals(migration.checksum())) {
+                        throw new SQLException("Migration " + name(migration)
+                                + " was changed after it was applied (checksum mismatch)");
+                    }
+                }
+                return count;
+            } finally {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("SELECT pg_advisory_unlock(" + LOCK_KEY + ")");
+                }
+            }
+        }
+    }
+
+    private void createHistoryTable(Connection conn) throws SQLException {
+        String sql = "CREATE TABLE IF NOT EXISTS schema_migrations (" +
+                "version INTEGER PRIMARY KEY, " +
+                "description VARCHAR(200) NOT NULL, " +
+                "checksum VARCHAR(64) NOT NULL, " +
+                "applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                "execution_millis INTEGER NOT NULL)";
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    private Map<Integer, String> getAppliedChecksums(Connection conn) throws SQLException {
+        Map<Integer, String> applied = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM schema_migrations")) {
+            while (rs.next()) {
+                applied.put(rs.getInt("version"), rs.getString("checksum"));
+            }
+        }
+        return applied;
+    }
+
+    // Script and history row commit together (Postgres DDL is transactional)
+    private void apply(Connection conn, Migration migration) throws SQLException {
+        long start = System.nanoTime();
+        conn.setAutoCommit(false);
+        try {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(migration.script());
+            }
+            int millis = (int) ((System.nanoTime() - start) / 1_000_000);
+
+            String sql = "INSERT INTO schema_migrations (version, description, checksum, execution_millis) " +
+                    "VALUES (?, ?, ?, ?)";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setInt(1, migration.version());
+                stmt.setString(2, migration.description());
+                stmt.setString(3, migration.checksum());
+                stmt.setInt(4, millis);
+                stmt.executeUpdate();
+            }
+            conn.commit();
+            System.out.println("Applied migration " + name(migration) + " in " + millis + " ms");
+        } catch (SQLException e) {
+            conn.rollback();
+            throw new SQLException("Migration " + name(migration) + " failed: " + e.getMessage(), e);
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private static String name(Migration migration) {
+        return "V" + migration.version() + " (" + migration.description() + ")";
+    }
+
+    // All scripts in LOCATION ordered by version (directory on disk or inside the jar)
+    static List<Migration> loadMigrations(ClassLoader loader) throws SQLException {
+        URL url = loader.getResource(LOCATION);
+        if (url == null) {
+            return List.of();
+        }
+        try {
+            URI uri = url.toURI();
+            if (!"jar".equals(uri.getScheme())) {
+                return readDirectory(Paths.get(uri));
+            }
+            try (FileSystem jar = FileSystems.newFileSystem(uri, Map.of())) {
+                return readDirectory(jar.getPath(LOCATION));
+            } catch (FileSystemAlreadyExistsException e) {
+                return readDirectory(FileSystems.getFileSystem(uri).getPath(LOCATION));
+            }
+        } catch (IOException | URISyntaxException e) {
+            throw new SQLException("Could not read migrations from " + url, e);
+        }
+    }
+
+    private static List<Migration> readDirectory(Path directory) throws IOException, SQLException {
+        List<Migration> migrations = new ArrayList<>();
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.toList();
+        }
+
+        for (Path file : files) {
+            Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+            if (!matcher.matches()) {
+                continue;
+            }
+            String script = Files.readString(file, StandardCharsets.UTF_8);
+            migrations.add(new Migration(Integer.parseInt(matcher.group(1)), matcher.group(2).replace('_', ' '),
+                    script, checksum(script)));
+        }
+
+        migrations.sort(Comparator.comparingInt(Migration::version));
+        for (int i = 1; i < migrations.size(); i++) {
+            if (migrations.get(i).version() == migrations.get(i - 1).version()) {
+                throw new SQLException("Duplicate migration version " + migrations.get(i).version());
+            }
+        }
+        return migrations;
+    }
+
+    // SHA-256 of the script, line endings normalized (a Windows checkout must not count as a change)
+    static String checksum(String script) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(script.replace("\r\n", "\n").getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.seb.db;
+
+import com.seb.config.ServerConfig;
+import com.seb.metrics.Metrics;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Keeps the monthly partitions of pushup_records (migration V004) ahead of time
+// There is no default partition, so an insert into a month without partition fails: runs once at startup,
+// then periodically. Months older than the retention are detached and stay behind as plain tables
+// (archive: dump or drop them). user_stats keeps counting detached records, UserStatsBackfill would not
+public class PartitionManager {
+    static final String TABLE = "pushup_records";
+
+    private static final Pattern PARTITION_NAME = Pattern.compile(TABLE + "_p(\\d{4})_(\\d{2})");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    // Same constant on every server of this application (MigrationRunner uses 0x5EB_0001)
+    private static final long LOCK_KEY = 0x5EB_0002L;
+
+    // Months to create and detach in one maintenance run
+    record Plan(List<YearMonth> create, List<YearMonth> detach) {
+    }
+
+    private final ConnectionPool pool;
+    // Partitions kept ready beyond the current month
+    private final int monthsAhead;
+    // Months kept attached including the current one (0 = keep everything)
+    private final int retentionMonths;
+    private final long intervalMillis;
+    private final ScheduledExecutorService executor;
+
+    private final LongAdder created = Metrics.counter("db.partitions.created");
+    private final LongAdder detached = Metrics.counter("db.partitions.detached");
+    private final LongAdder failures = Metrics.counter("db.partitions.failures");
+    private final AtomicLong attached = new AtomicLong();
+
+    public PartitionManager(ConnectionPool pool, int monthsAhead, int retentionMonths, long intervalMillis) {
+        this.pool = pool;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.intervalMillis = intervalMillis;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "seb-partition-manager");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Metrics.gauge("db.partitions.attached", attached::get);
+    }
+
+    // --db.partitions.enabled=true --db.partitions.monthsAhead=3 --db.partitions.retentionMonths=0
+    // --db.partitions.intervalMillis=21600000 (null if disabled)
+    public static PartitionManager fromConfig(ConnectionPool pool) {
+        if (!ServerConfig.getBoolean("db.partitions.enabled", true)) {
+            return null;
+        }
+        return new PartitionManager(pool,
+                ServerConfig.getInt("db.partitions.monthsAhead", 3),
+                ServerConfig.getInt("db.partitions.retentionMonths", 0),
+                ServerConfig.getLong("db.partitions.intervalMillis", 6 * 60 * 60 * 1000L));
+    }
+
+    // First run before requests are served, the following ones in the background
+    public void start() {
+        tick();
+        executor.scheduleWithFixedDelay(this::tick, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    private void tick() {
+        try {
+            maintain(YearMonth.now());
+        } catch (SQLException | RuntimeException e) {
+            failures.increment();
+            System.err.println("Partition maintenance failed: " + e.getMessage());
+        }
+    }
+
+    // Create missing partitions up to monthsAhead, detach the ones past retention
+    public void maintain(YearMonth current) throws SQLException {
+        inTransaction(conn -> {
+            Set<YearMonth> existing = getPartitions(conn);
+            Plan plan = plan(existing, current, monthsAhead, retentionMonths);
+            for (YearMonth month : plan.create()) {
+                createPartition(conn, month);
+            }
+            for (YearMonth month : plan.detach()) {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + partitionName(month));
+                }
+                detached.increment();
+                System.out.println("Detached partition " + partitionName(month) + " (archived as plain table)");
+            }
+            attached.set(existing.size() + plan.create().size() - plan.detach().size());
+        });
+    }
+
+    // Partitions for every month from..to (e.g. before loading records with old dates)
+    public void ensurePartitions(YearMonth from, YearMonth to) throws SQLException {
+        inTransaction(conn -> {
+            Set<YearMonth> existing = getPartitions(conn);
+            for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+                if (!existing.contains(month)) {
+                    createPartition(conn, month);
+                }
+            }
+        });
+    }
+
+    private interface Work {
+        void run(Connection conn) throws SQLException;
+    }
+
+    // One transaction under the advisory lock, so servers don't create the same partition at once
+    private void inTransaction(Work work) throws SQLException {
+        try (Connection conn = pool.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("SELECT pg_advisory_xact_lock(" + LOCK_KEY + ")");
+                }
+                if (!isPartitioned(conn)) {
+                    System.err.println("WARNING: " + TABLE + " is not partitioned (migration V004 missing?)");
+                    conn.rollback();
+                    return;
+                }
+                work.run(conn);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    private boolean isPartitioned(Connection conn) throws SQLException {
+        String sql = "SELECT relkind = 'p' FROM pg_class WHERE oid = to_regclass(?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, TABLE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    // Months of the attached partitions
+    private Set<YearMonth> getPartitions(Connection conn) throws SQLException {
+        String sql = "SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = to_regclass(?)";
+
+        Set<YearMonth> months = new TreeSet<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, TABLE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    YearMonth month = parseMonth(rs.getString("relname"));
+                    if (month != null) {
+                        months.add(month);
+                    }
+                }
+            }
+        }
+        return months;
+    }
+
+    private void createPartition(Connection conn, YearMonth month) throws SQLException {
+        String sql = "CREATE TABLE IF NOT EXISTS " + partitionName(month) + " PARTITION OF " + TABLE +
+                " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')";
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+        created.increment();
+        System.out.println("Created partition " + partitionName(month));
+    }
+
+    static Plan plan(Set<YearMonth> existing, YearMonth current, int monthsAhead, int retentionMonths) {
+        List<YearMonth> create = new ArrayList<>();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            if (!existing.contains(month)) {
+                create.add(month);
+            }
+        }
+
+        List<YearMonth> detach = new ArrayList<>();
+        if (retentionMonths > 0) {
+            YearMonth oldestKept = current.minusMonths(retentionMonths - 1);
+            for (YearMonth month : new TreeSet<>(existing)) {
+                if (month.isBefore(oldestKept)) {
+                    detach.add(month);
+                }
+            }
+        }
+        return new Plan(create, detach);
+    }
+
+    static String partitionName(YearMonth month) {
+        return TABLE + "_p" + month.format(SUFFIX);
+    }
+
+    // Month of a partition name, null for tables that don't follow the naming scheme
+    static YearMonth parseMonth(String name) {
+        Matcher matcher = PARTITION_NAME.matcher(name);
+        if (!matcher.matches()) {
+            return null;
+        }
+        int month = Integer.parseInt(matcher.group(2));
+        if (month < 1 || month > 12) {
+            return null;
+        }
+        return YearMonth.of(Integer.parseInt(matcher.group(1)), month);
+    }
+}
@@ -0,0 +1,130 @@
+package com.seb.db;
+
+import com.seb.config.ServerConfig;
+
+// Connection pool sizing and timeouts (chained setters, defaults fit the default 10 worker threads)
+public class PoolSettings {
+    private int minIdle = 2;
+    private int maxSize = 10;
+    private long borrowTimeoutMillis = 5_000;
+    // Connections used within this window are handed out without a validation round trip
+    private long validationBypassMillis = 500;
+    private int validationTimeoutSeconds = 2;
+    private long idleTimeoutMillis = 10 * 60_000;
+    private long maxLifetimeMillis = 30 * 60_000;
+    // 0 = no leak detection
+    private long leakDetectionMillis = 60_000;
+    // 0 = no background thread (eviction, top-up and leak checks only run via housekeep())
+    private long housekeepingMillis = 30_000;
+
+    public static PoolSettings defaults() {
+        return new PoolSettings();
+    }
+
+    // --db.pool.minIdle=2 --db.pool.maxSize=10 --db.pool.borrowTimeoutMillis=5000
+    // --db.pool.validationBypassMillis=500 --db.pool.validationTimeoutSeconds=2
+    // --db.pool.idleTimeoutMillis=600000 --db.pool.maxLifetimeMillis=1800000
+    // --db.pool.leakDetectionMillis=60000 --db.pool.housekeepingMillis=30000
+    public static PoolSettings fromConfig() {
+        PoolSettings defaults = defaults();
+        return new PoolSettings()
+                .minIdle(ServerConfig.getInt("db.pool.minIdle", defaults.minIdle))
+                .maxSize(ServerConfig.getInt("db.pool.maxSize", defaults.maxSize))
+                .borrowTimeoutMillis(ServerConfig.getLong("db.pool.borrowTimeoutMillis", defaults.borrowTimeoutMillis))
+                .validationBypassMillis(ServerConfig.getLong("db.pool.validationBypassMillis",
+                        defaults.validationBypassMillis))
+                .validationTimeoutSeconds(ServerConfig.getInt("db.pool.validationTimeoutSeconds",
+                        defaults.validationTimeoutSeconds))
+                .idleTimeoutMillis(ServerConfig.getLong("db.pool.idleTimeoutMillis", defaults.idleTimeoutMillis))
+                .maxLifetimeMillis(ServerConfig.getLong("db.pool.maxLifetimeMillis", defaults.maxLifetimeMillis))
+                .leakDetectionMillis(ServerConfig.getLong("db.pool.leakDetectionMillis", defaults.leakDetectionMillis))
+                .housekeepingMillis(ServerConfig.getLong("db.pool.housekeepingMillis", defaults.housekeepingMillis));
+    }
+
+    // Connections kept open even when unused
+    public PoolSettings minIdle(int minIdle) {
+        this.minIdle = Math.max(0, minIdle);
+        return this;
+    }
+
+    // Upper bound of physical connections (borrowed + idle)
+    public PoolSettings maxSize(int maxSize) {
+        this.maxSize = Math.max(1, maxSize);
+        return this;
+    }
+
+    // How long getConnection() waits for a free connection before failing
+    public PoolSettings borrowTimeoutMillis(long borrowTimeoutMillis) {
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        return this;
+    }
+
+    public PoolSettings validationBypassMillis(long validationBypassMillis) {
+        this.validationBypassMillis = validationBypassMillis;
+        return this;
+    }
+
+    public PoolSettings validationTimeoutSeconds(int validationTimeoutSeconds) {
+        this.validationTimeoutSeconds = Math.max(1, validationTimeoutSeconds);
+        return this;
+    }
+
+    // Idle connections above minIdle are closed after this long
+    public PoolSettings idleTimeoutMillis(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        return this;
+    }
+
+    // Connections are replaced after this long (stay below server/firewall connection limits)
+    public PoolSettings maxLifetimeMillis(long maxLifetimeMillis) {
+        this.maxLifetimeMillis = maxLifetimeMillis;
+        return this;
+    }
+
+    // Borrowed longer than this -> report stack trace of the borrower
+    public PoolSettings leakDetectionMillis(long leakDetectionMillis) {
+        this.leakDetectionMillis = leakDetectionMillis;
+        return this;
+    }
+
+    public PoolSettings housekeepingMillis(long housekeepingMillis) {
+        this.housekeepingMillis = housekeepingMillis;
+        return this;
+    }
+
+    public int getMinIdle() {
+        return Math.min(minIdle, maxSize);
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getBorrowTimeoutMillis() {
+        return borrowTimeoutMillis;
+    }
+
+    public long getValidationBypassMillis() {
+        return validationBypassMillis;
+    }
+
+    public int getValidationTimeoutSeconds() {
+        return validationTimeoutSeconds;
+    }
+
+    public long getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    public long getMaxLifetimeMillis() {
+        return maxLifetimeMillis;
+    }
+
+    public long getLeakDetectionMillis() {
+        return leakDetectionMillis;
+    }
+
+    public long getHousekeepingMillis() {
+        return housekeepingMillis;
+    }
+}
@@ -0,0 +1,168 @@
+package com.seb.db;
+
+import com.seb.metrics.Metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.LongAdder;
+
+// One connection and one transaction for all repository calls of a request
+// Opened by the controller, repositories join it through DatabaseConfig.getConnection() on the same thread:
+//
+//   try (UnitOfWork work = DatabaseConfig.getInstance().beginWork()) {
+//       ...repository calls...
+//       work.commit();
+//   }
+//
+// Closing without commit() rolls back. Nested begin() joins the outer unit of work
+public class UnitOfWork implements AutoCloseable {
+    private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+
+    // Connection requests served by an open unit of work (each saves a pool borrow and a commit round trip)
+    private static final LongAdder JOINED = Metrics.counter("db.unitOfWork.joined");
+    private static final LongAdder COMMITTED = Metrics.counter("db.unitOfWork.committed");
+    private static final LongAdder ROLLED_BACK = Metrics.counter("db.unitOfWork.rolledBack");
+
+    private final ConnectionPool pool;
+    // Outer unit of work if this one only joined it
+    private final UnitOfWork outer;
+
+    // Borrowed on first use (requests that fail validation never touch the database)
+    private Connection connection;
+    private Connection shared;
+    private boolean rollbackOnly;
+    private boolean committed;
+    private boolean closed;
+
+    private UnitOfWork(ConnectionPool pool, UnitOfWork outer) {
+        this.pool = pool;
+        this.outer = outer;
+    }
+
+    // Start a unit of work on the current thread (or join the one already open)
+    public static UnitOfWork begin(ConnectionPool pool) {
+        UnitOfWork current = CURRENT.get();
+        if (current != null) {
+            return new UnitOfWork(pool, current);
+        }
+        UnitOfWork work = new UnitOfWork(pool, null);
+        CURRENT.set(work);
+        return work;
+    }
+
+    // Connection of the open unit of work, otherwise a plain pooled connection
+    public static Connection getConnection(ConnectionPool pool) throws SQLException {
+        UnitOfWork current = CURRENT.get();
+        if (current == null) {
+            return pool.getConnection();
+        }
+        JOINED.increment();
+        return current.connection();
+    }
+
+    // Shared handle: close(), commit() and autocommit changes are left to the unit of work
+    private Connection connection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Unit of work is already closed");
+        }
+        if (connection == null) {
+            connection = pool.getConnection();
+            try {
+                connection.setAutoCommit(false);
+            } catch (SQLException e) {
+                connection.close();
+                connection = null;
+                throw e;
+            }
+            shared = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new SharedHandle());
+        }
+        return shared;
+    }
+
+    public void commit() throws SQLException {
+        if (outer != null) {
+            // Outer unit of work commits everything
+            committed = true;
+            return;
+        }
+        if (rollbackOnly) {
+            throw new SQLException("Unit of work was marked for rollback");
+        }
+        if (connection != null) {
+            connection.commit();
+            COMMITTED.increment();
+        }
+        committed = true;
+    }
+
+    // Roll back (unless committed) and give the connection back
+    @Override
+    public void close() throws SQLException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        if (outer != null) {
+            if (!committed) {
+                outer.rollbackOnly = true;
+            }
+            return;
+        }
+
+        CURRENT.remove();
+        if (connection == null) {
+            return;
+        }
+        try {
+            if (!committed) {
+                connection.rollback();
+                ROLLED_BACK.increment();
+            }
+            // Transaction is finished, saves the pool its own rollback round trip
+            connection.setAutoCommit(true);
+        } finally {
+            connection.close();
+        }
+    }
+
+    private class SharedHandle implements InvocationHandler {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                case "commit":
+                case "setAutoCommit":
+                    return null;
+                case "rollback":
+                    if (args == null) {
+                        // Whole request fails (the caller rethrows), rolled back when the unit of work closes
+                        rollbackOnly = true;
+                        return null;
+                    }
+                    break;
+                case "isClosed":
+                    if (closed) {
+                        return true;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.seb.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Response of registration and login
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AuthResponse(boolean success, String message, Integer userId, String token, Integer elo) {
+
+    public static AuthResponse error(String message) {
+        return new AuthResponse(false, message, null, null, null);
+    }
+}
@@ -0,0 +1,7 @@
+package com.seb.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// Body of POST /users and POST /sessions
+public record CredentialsRequest(@JsonProperty("Username") String username, @JsonProperty("Password") String password) {
+}
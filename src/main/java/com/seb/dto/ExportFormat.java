@@ -0,0 +1,30 @@
+package com.seb.dto;
+
+import java.util.Locale;
+
+// File formats of GET /history/export (same columns as the import: username, count, duration, date)
+public enum ExportFormat {
+    CSV("text/csv; charset=utf-8", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    // ?format=csv|ndjson, CSV if missing. Throws IllegalArgumentException for other values
+    public static ExportFormat of(String name) {
+        return name == null || name.isEmpty() ? CSV : valueOf(name.toUpperCase(Locale.ROOT));
+    }
+}
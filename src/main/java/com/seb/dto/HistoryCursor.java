@@ -0,0 +1,36 @@
+package com.seb.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Position in a user's history (newest first): the next page starts after this entry
+// Sent to clients as an opaque URL-safe token
+public record HistoryCursor(LocalDateTime recordDate, int recordId) {
+
+    public static HistoryCursor after(HistoryEntry entry) {
+        return new HistoryCursor(entry.recordDate(), entry.recordId());
+    }
+
+    public String encode() {
+        String value = recordDate + "|" + recordId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Throws IllegalArgumentException for tokens that weren't produced by encode()
+    public static HistoryCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new HistoryCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Integer.parseInt(value.substring(separator + 1)));
+        } catch (DateTimeParseException e) {
+            // NumberFormatException is already an IllegalArgumentException
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.seb.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+
+// One pushup session in a user's history
+public record HistoryEntry(
+        int recordId,
+        @JsonProperty("Name") String name,
+        @JsonProperty("Count") int count,
+        @JsonProperty("DurationInSeconds") int durationInSeconds,
+        LocalDateTime recordDate) {
+}
@@ -0,0 +1,18 @@
+package com.seb.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+// nextCursor is set when a page was requested and more entries follow
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record HistoryResponse(boolean success, String message, List<HistoryEntry> history, String nextCursor) {
+
+    public HistoryResponse(boolean success, String message, List<HistoryEntry> history) {
+        this(success, message, history, null);
+    }
+
+    public static HistoryResponse error(String message) {
+        return new HistoryResponse(false, message, null);
+    }
+}
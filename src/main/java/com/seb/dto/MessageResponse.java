@@ -0,0 +1,12 @@
+package com.seb.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Response with only success flag and message (errors, simple confirmations)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record MessageResponse(boolean success, String message) {
+
+    public static MessageResponse error(String message) {
+        return new MessageResponse(false, message);
+    }
+}
@@ -0,0 +1,21 @@
+package com.seb.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// Response of profile read and update (update only returns Name, Bio and Image)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ProfileResponse(
+        boolean success,
+        String message,
+        @JsonProperty("UserId") Integer userId,
+        @JsonProperty("Username") String username,
+        @JsonProperty("ELO") Integer elo,
+        @JsonProperty("Name") String name,
+        @JsonProperty("Bio") String bio,
+        @JsonProperty("Image") String image) {
+
+    public static ProfileResponse error(String message) {
+        return new ProfileResponse(false, message, null, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,8 @@
+package com.seb.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// Body of PUT /users/{username}
+public record ProfileUpdateRequest(@JsonProperty("Name") String name, @JsonProperty("Bio") String bio,
+                                   @JsonProperty("Image") String image) {
+}
@@ -0,0 +1,8 @@
+package com.seb.dto;
+
+import java.time.LocalDateTime;
+
+// Everything one pushup POST changed (tournament fields are null if no tournament was running)
+public record PushupIngestResult(int recordId, Integer tournamentId, LocalDateTime tournamentStart,
+                                 Integer totalPushups, int currentStreak, int longestStreak) {
+}
@@ -0,0 +1,8 @@
+package com.seb.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// Body of POST /history
+public record PushupRequest(@JsonProperty("Name") String name, @JsonProperty("Count") Integer count,
+                            @JsonProperty("DurationInSeconds") Integer durationInSeconds) {
+}
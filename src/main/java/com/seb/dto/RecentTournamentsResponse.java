@@ -0,0 +1,13 @@
+package com.seb.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RecentTournamentsResponse(boolean success, String message, List<TournamentSummary> tournaments) {
+
+    public static RecentTournamentsResponse error(String message) {
+        return new RecentTournamentsResponse(false, message, null);
+    }
+}
@@ -0,0 +1,13 @@
+package com.seb.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Response of POST /history (remainingTime only while tournament is running)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RecordPushupsResponse(boolean success, String message, Integer recordId, Integer tournamentId,
+                                    Integer yourTotal, Boolean tournamentCompleted, Long remainingTime) {
+
+    public static RecordPushupsResponse error(String message) {
+        return new RecordPushupsResponse(false, message, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,4 @@
+package com.seb.dto;
+
+public record ScoreboardEntry(int userId, String username, int elo, int totalEntries, int totalPushups) {
+}
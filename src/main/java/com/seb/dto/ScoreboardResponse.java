@@ -0,0 +1,13 @@
+package com.seb.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ScoreboardResponse(boolean success, String message, List<ScoreboardEntry> scoreboard) {
+
+    public static ScoreboardResponse error(String message) {
+        return new ScoreboardResponse(false, message, null);
+    }
+}
@@ -0,0 +1,17 @@
+package com.seb.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record StatsResponse(boolean success, String message, Integer entryCount, Integer totalPushups,
+                            Double avgPushups, Integer maxPushups, Integer elo) {
+
+    public static StatsResponse of(UserStats stats) {
+        return new StatsResponse(true, null, stats.entryCount(), stats.totalPushups(),
+                stats.avgPushups(), stats.maxPushups(), stats.elo());
+    }
+
+    public static StatsResponse error(String message) {
+        return new StatsResponse(false, message, null, null, null, null, null);
+    }
+}
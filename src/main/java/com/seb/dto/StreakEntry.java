@@ -0,0 +1,6 @@
+package com.seb.dto;
+
+import java.time.LocalDate;
+
+public record StreakEntry(int userId, String username, int currentStreak, int longestStreak, LocalDate lastActive) {
+}
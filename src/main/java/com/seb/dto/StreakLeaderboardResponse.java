@@ -0,0 +1,14 @@
+package com.seb.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record StreakLeaderboardResponse(boolean success, String message, List<StreakEntry> currentStreaks,
+                                        List<StreakEntry> longestStreaks) {
+
+    public static StreakLeaderboardResponse error(String message) {
+        return new StreakLeaderboardResponse(false, message, null, null);
+    }
+}
@@ -0,0 +1,14 @@
+package com.seb.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDate;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record StreakResponse(boolean success, String message, Integer currentStreak, Integer longestStreak,
+                             LocalDate lastActive) {
+
+    public static StreakResponse error(String message) {
+        return new StreakResponse(false, message, null, null, null);
+    }
+}
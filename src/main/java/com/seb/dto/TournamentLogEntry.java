@@ -0,0 +1,6 @@
+package com.seb.dto;
+
+import java.time.LocalDateTime;
+
+public record TournamentLogEntry(int logId, int tournamentId, String message, LocalDateTime logTime) {
+}
@@ -0,0 +1,13 @@
+package com.seb.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TournamentLogsResponse(boolean success, String message, List<TournamentLogEntry> logs) {
+
+    public static TournamentLogsResponse error(String message) {
+        return new TournamentLogsResponse(false, message, null);
+    }
+}
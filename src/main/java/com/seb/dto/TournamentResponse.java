@@ -0,0 +1,17 @@
+package com.seb.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.seb.model.TournamentParticipant;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Active tournament with participants
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TournamentResponse(boolean success, String message, Integer tournamentId, LocalDateTime startTime,
+                                 String status, List<TournamentParticipant> participants, Long remainingTime) {
+
+    public static TournamentResponse error(String message) {
+        return new TournamentResponse(false, message, null, null, null, null, null);
+    }
+}
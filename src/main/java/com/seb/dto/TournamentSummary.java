@@ -0,0 +1,12 @@
+package com.seb.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Entry in list of recent tournaments (winners only for completed tournaments)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TournamentSummary(int tournamentId, LocalDateTime startTime, String status, int participantCount,
+                                List<TournamentWinner> winners) {
+}
@@ -0,0 +1,4 @@
+package com.seb.dto;
+
+public record TournamentWinner(int userId, String username, int pushups) {
+}
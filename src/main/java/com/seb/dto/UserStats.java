@@ -0,0 +1,5 @@
+package com.seb.dto;
+
+// Aggregated pushup stats of one user
+public record UserStats(int entryCount, int totalPushups, double avgPushups, int maxPushups, Integer elo) {
+}
@@ -0,0 +1,52 @@
+package com.seb.http;
+
+import com.seb.config.ServerConfig;
+
+import java.util.HashSet;
+import java.util.Set;
+
+// Address of the client a request comes from, as used for per-IP rate limits
+// Behind a reverse proxy every socket comes from the proxy: X-Forwarded-For is then used, but only when the
+// peer is a configured trusted proxy (anyone else could send any header)
+public class ClientAddress {
+    private final Set<String> trustedProxies;
+
+    public ClientAddress(Set<String> trustedProxies) {
+        this.trustedProxies = Set.copyOf(trustedProxies);
+    }
+
+    // --server.trustedProxies=10.0.0.5,10.0.0.6 (empty: always the socket address)
+    public static ClientAddress fromConfig() {
+        Set<String> proxies = new HashSet<>();
+        for (String proxy : ServerConfig.getString("server.trustedProxies", "").split(",")) {
+            if (!proxy.isBlank()) {
+                proxies.add(proxy.trim());
+            }
+        }
+        return new ClientAddress(proxies);
+    }
+
+    // Rightmost X-Forwarded-For entry that is not a trusted proxy (entries further left are client-supplied)
+    public String resolve(HttpRequest request) {
+        String address = request.getRemoteAddress();
+        if (address == null || !trustedProxies.contains(address)) {
+            return address;
+        }
+        String forwarded = request.getHeader("X-Forwarded-For");
+        if (forwarded == null) {
+            return address;
+        }
+        String[] hops = forwarded.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (hop.isEmpty()) {
+                break;
+            }
+            address = hop;
+            if (!trustedProxies.contains(hop)) {
+                break;
+            }
+        }
+        return address;
+    }
+}
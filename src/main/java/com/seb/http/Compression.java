@@ -0,0 +1,215 @@
+package com.seb.http;
+
+import com.seb.config.ServerConfig;
+import com.seb.metrics.Metrics;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+// Response compression negotiated via Accept-Encoding (gzip preferred over deflate)
+// Deflaters hold native zlib memory and are expensive to create -> pooled and reused
+public class Compression {
+
+    public enum Encoding {
+        GZIP("gzip"),
+        DEFLATE("deflate");
+
+        private final String token;
+
+        Encoding(String token) {
+            this.token = token;
+        }
+
+        public String getToken() {
+            return token;
+        }
+    }
+
+    // Fixed gzip header: magic, CM=deflate, no flags, no mtime, no extra flags, OS unknown
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final int GZIP_TRAILER_LENGTH = 8;
+
+    private static final LongAdder RESPONSES = Metrics.counter("http.compression.responses");
+    private static final LongAdder BYTES_IN = Metrics.counter("http.compression.bytesIn");
+    private static final LongAdder BYTES_OUT = Metrics.counter("http.compression.bytesOut");
+    private static final LongAdder BYTES_SAVED = Metrics.counter("http.compression.bytesSaved");
+
+    private final boolean enabled;
+    private final int level;
+    private final int minBytes;
+
+    // gzip uses raw deflate (header/trailer written here), "deflate" is the zlib format
+    private final BlockingQueue<Deflater> gzipDeflaters;
+    private final BlockingQueue<Deflater> zlibDeflaters;
+
+    public Compression(boolean enabled, int level, int minBytes, int poolSize) {
+        this.enabled = enabled;
+        this.level = level;
+        this.minBytes = minBytes;
+        this.gzipDeflaters = new ArrayBlockingQueue<>(poolSize);
+        this.zlibDeflaters = new ArrayBlockingQueue<>(poolSize);
+    }
+
+    // --http.compression.enabled=true --http.compression.level=6 --http.compression.minBytes=1024
+    // --http.compression.poolSize=32
+    public static Compression fromConfig() {
+        return new Compression(
+                ServerConfig.getBoolean("http.compression.enabled", true),
+                Math.max(Deflater.BEST_SPEED, Math.min(Deflater.BEST_COMPRESSION,
+                        ServerConfig.getInt("http.compression.level", 6))),
+                ServerConfig.getInt("http.compression.minBytes", 1024),
+                Math.max(1, ServerConfig.getInt("http.compression.poolSize", 32)));
+    }
+
+    // Best encoding the client accepts (null = send uncompressed)
+    public Encoding negotiate(String acceptEncoding) {
+        if (!enabled || acceptEncoding == null) {
+            return null;
+        }
+
+        boolean gzip = false;
+        boolean deflate = false;
+        boolean gzipRefused = false;
+        boolean deflateRefused = false;
+        boolean wildcard = false;
+
+        for (String part : acceptEncoding.split(",")) {
+            int paramPos = part.indexOf(';');
+            String coding = (paramPos >= 0 ? part.substring(0, paramPos) : part).trim();
+            boolean accepted = paramPos < 0 || !isZeroQuality(part.substring(paramPos + 1));
+
+            if (coding.equalsIgnoreCase("gzip") || coding.equalsIgnoreCase("x-gzip")) {
+                gzip |= accepted;
+                gzipRefused |= !accepted;
+            } else if (coding.equalsIgnoreCase("deflate")) {
+                deflate |= accepted;
+                deflateRefused |= !accepted;
+            } else if (coding.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+
+        if (gzip || (wildcard && !gzipRefused)) {
+            return Encoding.GZIP;
+        }
+        if (deflate || (wildcard && !deflateRefused)) {
+            return Encoding.DEFLATE;
+        }
+        return null;
+    }
+
+    // "q=0", "q=0.0", ... means "not acceptable"
+    private static boolean isZeroQuality(String params) {
+        for (String param : params.split(";")) {
+            String trimmed = param.trim();
+            if (trimmed.startsWith("q=") || trimmed.startsWith("Q=")) {
+                try {
+                    return Double.parseDouble(trimmed.substring(2).trim()) <= 0;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Bodies below the threshold are not worth the CPU (and may even grow)
+    public boolean shouldCompress(int length) {
+        return enabled && length >= minBytes;
+    }
+
+    // Compress whole body at once
+    public byte[] compress(Encoding encoding, byte[] data, int offset, int length) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.max(64, length / 4));
+        EncodingStream stream = open(encoding, bytes);
+        try {
+            stream.write(data, offset, length);
+            stream.finish();
+        } finally {
+            stream.release();
+        }
+        return bytes.toByteArray();
+    }
+
+    // Stream that compresses into sink (finish() writes the end, release() must always be called)
+    public EncodingStream open(Encoding encoding, OutputStream sink) throws IOException {
+        boolean gzip = encoding == Encoding.GZIP;
+        BlockingQueue<Deflater> pool = gzip ? gzipDeflaters : zlibDeflaters;
+        Deflater deflater = pool.poll();
+        if (deflater == null) {
+            deflater = new Deflater(level, gzip);
+        }
+        return new EncodingStream(sink, deflater, pool, gzip);
+    }
+
+    public class EncodingStream extends DeflaterOutputStream {
+        private final BlockingQueue<Deflater> pool;
+        private final boolean gzip;
+        private final CRC32 crc;
+        private boolean released;
+
+        private EncodingStream(OutputStream sink, Deflater deflater, BlockingQueue<Deflater> pool, boolean gzip)
+                throws IOException {
+            super(sink, deflater, 8192);
+            this.pool = pool;
+            this.gzip = gzip;
+            this.crc = gzip ? new CRC32() : null;
+            if (gzip) {
+                sink.write(GZIP_HEADER);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (crc != null) {
+                crc.update(b, off, len);
+            }
+            super.write(b, off, len);
+        }
+
+        @Override
+        public void finish() throws IOException {
+            super.finish();
+            long written = def.getBytesWritten();
+            if (gzip) {
+                writeIntLE((int) crc.getValue());
+                writeIntLE((int) def.getBytesRead());
+                written += GZIP_HEADER.length + GZIP_TRAILER_LENGTH;
+            }
+
+            RESPONSES.increment();
+            BYTES_IN.add(def.getBytesRead());
+            BYTES_OUT.add(written);
+            BYTES_SAVED.add(def.getBytesRead() - written);
+        }
+
+        private void writeIntLE(int value) throws IOException {
+            out.write(new byte[]{(byte) value, (byte) (value >> 8), (byte) (value >> 16), (byte) (value >> 24)});
+        }
+
+        // Hand Deflater back to pool (or free native memory if pool is full)
+        public void release() {
+            if (released) {
+                return;
+            }
+            released = true;
+            def.reset();
+            if (!pool.offer(def)) {
+                def.end();
+            }
+        }
+
+        // Sink belongs to the response, only the Deflater is released
+        @Override
+        public void close() {
+            release();
+        }
+    }
+}
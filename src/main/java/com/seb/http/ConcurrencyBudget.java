@@ -0,0 +1,51 @@
+package com.seb.http;
+
+import com.seb.config.ServerConfig;
+import com.seb.metrics.Metrics;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+// Limit of requests running at the same time on a group of routes
+// Requests over the limit are shed right away, so expensive reads can't occupy every worker
+public class ConcurrencyBudget {
+    private final String name;
+    private final int maxConcurrent;
+    private final Semaphore permits;
+    private final LongAdder shed;
+
+    public ConcurrencyBudget(String name, int maxConcurrent) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.permits = new Semaphore(maxConcurrent);
+        this.shed = Metrics.counter("http.shed.budget." + name);
+        Metrics.gauge("http.budget." + name + ".inUse", () -> maxConcurrent - permits.availablePermits());
+    }
+
+    // --budget.<name>.maxConcurrent=n
+    public static ConcurrencyBudget fromConfig(String name, int defaultMaxConcurrent) {
+        return new ConcurrencyBudget(name,
+                Math.max(1, ServerConfig.getInt("budget." + name + ".maxConcurrent", defaultMaxConcurrent)));
+    }
+
+    // Never waits, false (and counted as shed) if budget is used up
+    public boolean tryAcquire() {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        shed.increment();
+        return false;
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+}
@@ -0,0 +1,118 @@
+package com.seb.http;
+
+import java.nio.charset.StandardCharsets;
+
+// Parsed request, header block and body are slices of the connection's read buffer (no copies)
+public class HttpRequest {
+    private final String method;
+    private final String path;
+    private final String version;
+
+    // Headers decoded by the parser (everything else is looked up in the raw header block on demand)
+    private final String authorization;
+    private final String connection;
+
+    private final byte[] data;
+    private final int headersOffset;
+    private final int headersLength;
+    private final int bodyOffset;
+    private final int bodyLength;
+
+    // Client IP (set by the parser of the connection, null in tests)
+    private String remoteAddress;
+
+    public HttpRequest(String method, String path, String version, String authorization, String connection,
+                       byte[] data, int headersOffset, int headersLength, int bodyOffset, int bodyLength) {
+        this.method = method;
+        this.path = path;
+        this.version = version;
+        this.authorization = authorization;
+        this.connection = connection;
+        this.data = data;
+        this.headersOffset = headersOffset;
+        this.headersLength = headersLength;
+        this.bodyOffset = bodyOffset;
+        this.bodyLength = bodyLength;
+    }
+
+    void setRemoteAddress(String remoteAddress) {
+        this.remoteAddress = remoteAddress;
+    }
+
+    // Getters
+    public String getRemoteAddress() {
+        return remoteAddress;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public String getAuthorization() {
+        return authorization;
+    }
+
+    public int getContentLength() {
+        return bodyLength;
+    }
+
+    // Look up any other header in raw header block (decodes only the matching value)
+    public String getHeader(String name) {
+        byte[] lowerName = name.toLowerCase().getBytes(StandardCharsets.US_ASCII);
+        int end = headersOffset + headersLength;
+        int lineStart = headersOffset;
+
+        while (lineStart < end) {
+            int lineEnd = HttpRequestParser.indexOf(data, 0, lineStart, end, (byte) '\n');
+            int colonPos = HttpRequestParser.indexOf(data, 0, lineStart, lineEnd, (byte) ':');
+            if (colonPos < lineEnd) {
+                int nameEnd = HttpRequestParser.trimEnd(data, 0, lineStart, colonPos);
+                if (HttpRequestParser.equalsIgnoreCase(data, 0, lineStart, nameEnd, lowerName)) {
+                    int valueStart = HttpRequestParser.trimStart(data, 0, colonPos + 1, lineEnd);
+                    int valueEnd = HttpRequestParser.trimEnd(data, 0, valueStart, lineEnd);
+                    return new String(data, valueStart, valueEnd - valueStart, StandardCharsets.ISO_8859_1);
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+        return null;
+    }
+
+    // Body bytes (slice of bodyArray starting at bodyOffset), e.g. for Jackson's readValue(byte[], int, int, ...)
+    public byte[] getBodyArray() {
+        return data;
+    }
+
+    public int getBodyOffset() {
+        return bodyOffset;
+    }
+
+    public int getBodyLength() {
+        return bodyLength;
+    }
+
+    public String getBody() {
+        return new String(data, bodyOffset, bodyLength, StandardCharsets.UTF_8);
+    }
+
+    // HTTP/1.1 keeps connection open unless client sends "Connection: close", HTTP/1.0 only on "keep-alive"
+    public boolean isKeepAlive() {
+        if ("HTTP/1.0".equals(version)) {
+            return connection != null && connection.toLowerCase().contains("keep-alive");
+        }
+        return connection == null || !connection.toLowerCase().contains("close");
+    }
+
+    // Transfer-Encoding: chunked exists since HTTP/1.1
+    public boolean supportsChunked() {
+        return "HTTP/1.1".equals(version);
+    }
+}
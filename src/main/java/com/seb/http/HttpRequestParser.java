@@ -0,0 +1,243 @@
+package com.seb.http;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Incremental HTTP request parser working directly on the connection's read buffer
+// One parser per connection, reused for every request on it (no per-header Strings are created)
+public class HttpRequestParser {
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+
+    // Lowercase names of the only headers that are decoded eagerly
+    private static final byte[] AUTHORIZATION = "authorization".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CONTENT_LENGTH = "content-length".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CONNECTION = "connection".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TRANSFER_ENCODING = "transfer-encoding".getBytes(StandardCharsets.US_ASCII);
+
+    private final int maxRequestBytes;
+
+    // Client IP copied into every parsed request
+    private String remoteAddress;
+
+    // Bytes read from client (position = end of data), always heap-backed so body can go to Jackson as byte[]
+    private ByteBuffer buffer;
+
+    // Where header-end search continues after more bytes arrive
+    private int scanned;
+    // Length of parsed request (dropped from buffer on consume)
+    private int requestLength;
+
+    public HttpRequestParser(int maxRequestBytes) {
+        this.maxRequestBytes = maxRequestBytes;
+        this.buffer = ByteBuffer.allocate(Math.min(INITIAL_BUFFER_SIZE, maxRequestBytes));
+    }
+
+    public void setRemoteAddress(String remoteAddress) {
+        this.remoteAddress = remoteAddress;
+    }
+
+    // Buffer to read more bytes into (grown if full)
+    public ByteBuffer writableBuffer() {
+        if (!buffer.hasRemaining()) {
+            if (buffer.capacity() >= maxRequestBytes) {
+                throw new RequestTooLargeException();
+            }
+            // Grow buffer (double size, capped at max request size)
+            ByteBuffer bigger = ByteBuffer.allocate(Math.min(buffer.capacity() * 2, maxRequestBytes));
+            buffer.flip();
+            bigger.put(buffer);
+            buffer = bigger;
+        }
+        return buffer;
+    }
+
+    // Try to parse a complete request from bytes read so far (null if more bytes are needed)
+    // Returned request points into the buffer and is valid until consume() is called
+    public HttpRequest parse() {
+        byte[] data = buffer.array();
+        int base = buffer.arrayOffset();
+        int length = buffer.position();
+
+        // Find end of headers (empty line), continuing where last call stopped
+        int headEnd = -1;
+        int bodyStart = -1;
+        for (int i = Math.max(0, scanned - 2); i < length - 1; i++) {
+            if (data[base + i] == '\n') {
+                if (data[base + i + 1] == '\n') {
+                    headEnd = i;
+                    bodyStart = i + 2;
+                    break;
+                }
+                if (i + 2 < length && data[base + i + 1] == '\r' && data[base + i + 2] == '\n') {
+                    headEnd = i;
+                    bodyStart = i + 3;
+                    break;
+                }
+            }
+        }
+        if (headEnd < 0) {
+            scanned = length;
+            return null;
+        }
+
+        // Request line: METHOD SP PATH SP VERSION
+        int lineEnd = indexOf(data, base, 0, headEnd + 1, (byte) '\n');
+        int requestLineEnd = trimEnd(data, base, 0, lineEnd);
+        int firstSpace = indexOf(data, base, 0, requestLineEnd, (byte) ' ');
+        int secondSpace = firstSpace < 0 ? -1 : indexOf(data, base, firstSpace + 1, requestLineEnd, (byte) ' ');
+        if (firstSpace <= 0 || secondSpace <= firstSpace + 1 || secondSpace + 1 >= requestLineEnd) {
+            throw new IllegalArgumentException("Invalid request format");
+        }
+
+        String method = decodeMethod(data, base, 0, firstSpace);
+        String path = new String(data, base + firstSpace + 1, secondSpace - firstSpace - 1, StandardCharsets.ISO_8859_1);
+        String version = decodeVersion(data, base, secondSpace + 1, requestLineEnd);
+
+        // Headers: only the ones the router needs are decoded, rest stays as bytes in the header block
+        String authorization = null;
+        String connection = null;
+        int contentLength = 0;
+        boolean hasContentLength = false;
+        int headersStart = lineEnd + 1;
+
+        int lineStart = headersStart;
+        while (lineStart < headEnd) {
+            int end = indexOf(data, base, lineStart, headEnd + 1, (byte) '\n');
+            int colonPos = indexOf(data, base, lineStart, end, (byte) ':');
+            if (colonPos > lineStart) {
+                int nameEnd = trimEnd(data, base, lineStart, colonPos);
+                int valueStart = trimStart(data, base, colonPos + 1, end);
+                int valueEnd = trimEnd(data, base, valueStart, end);
+
+                if (equalsIgnoreCase(data, base, lineStart, nameEnd, AUTHORIZATION)) {
+                    authorization = new String(data, base + valueStart, valueEnd - valueStart, StandardCharsets.ISO_8859_1);
+                } else if (equalsIgnoreCase(data, base, lineStart, nameEnd, CONTENT_LENGTH)) {
+                    // A second length could make us and a proxy in front disagree where the body ends (smuggling)
+                    if (hasContentLength) {
+                        throw new IllegalArgumentException("Duplicate Content-Length");
+                    }
+                    contentLength = parseContentLength(data, base, valueStart, valueEnd);
+                    hasContentLength = true;
+                } else if (equalsIgnoreCase(data, base, lineStart, nameEnd, TRANSFER_ENCODING)) {
+                    // Chunked bodies are not decoded: reading them as the next request would desync the connection
+                    throw new IllegalArgumentException("Transfer-Encoding is not supported");
+                } else if (equalsIgnoreCase(data, base, lineStart, nameEnd, CONNECTION)) {
+                    connection = new String(data, base + valueStart, valueEnd - valueStart, StandardCharsets.ISO_8859_1);
+                }
+            }
+            lineStart = end + 1;
+        }
+
+        // Wait until whole body has arrived
+        if (bodyStart + contentLength > maxRequestBytes) {
+            throw new RequestTooLargeException();
+        }
+        if (length - bodyStart < contentLength) {
+            scanned = headEnd;
+            return null;
+        }
+
+        requestLength = bodyStart + contentLength;
+        HttpRequest request = new HttpRequest(method, path, version, authorization, connection,
+                data, base + headersStart, Math.max(0, headEnd - headersStart),
+                base + bodyStart, contentLength);
+        request.setRemoteAddress(remoteAddress);
+        return request;
+    }
+
+    // Drop parsed request from buffer (bytes of pipelined requests are kept)
+    public void consume() {
+        buffer.flip();
+        buffer.position(requestLength);
+        buffer.compact();
+        requestLength = 0;
+        scanned = 0;
+    }
+
+    // Known methods are returned as constants (no allocation)
+    private static String decodeMethod(byte[] data, int base, int start, int end) {
+        int length = end - start;
+        if (length == 3 && data[base + start] == 'G' && data[base + start + 1] == 'E' && data[base + start + 2] == 'T') {
+            return "GET";
+        }
+        if (length == 3 && data[base + start] == 'P' && data[base + start + 1] == 'U' && data[base + start + 2] == 'T') {
+            return "PUT";
+        }
+        if (length == 4 && data[base + start] == 'P' && data[base + start + 1] == 'O'
+                && data[base + start + 2] == 'S' && data[base + start + 3] == 'T') {
+            return "POST";
+        }
+        return new String(data, base + start, length, StandardCharsets.ISO_8859_1);
+    }
+
+    private static String decodeVersion(byte[] data, int base, int start, int end) {
+        if (end - start == 8 && data[base + start + 5] == '1' && data[base + start + 6] == '.') {
+            if (data[base + start + 7] == '1') {
+                return "HTTP/1.1";
+            }
+            if (data[base + start + 7] == '0') {
+                return "HTTP/1.0";
+            }
+        }
+        return new String(data, base + start, end - start, StandardCharsets.ISO_8859_1);
+    }
+
+    private static int parseContentLength(byte[] data, int base, int start, int end) {
+        if (start >= end || end - start > 10) {
+            throw new IllegalArgumentException("Invalid Content-Length");
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            byte b = data[base + i];
+            if (b < '0' || b > '9') {
+                throw new IllegalArgumentException("Invalid Content-Length");
+            }
+            value = value * 10 + (b - '0');
+        }
+        if (value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid Content-Length");
+        }
+        return (int) value;
+    }
+
+    // Compare header name with lowercase ASCII constant
+    static boolean equalsIgnoreCase(byte[] data, int base, int start, int end, byte[] lowerName) {
+        if (end - start != lowerName.length) {
+            return false;
+        }
+        for (int i = 0; i < lowerName.length; i++) {
+            byte b = data[base + start + i];
+            if (b >= 'A' && b <= 'Z') {
+                b = (byte) (b + ('a' - 'A'));
+            }
+            if (b != lowerName[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Index relative to base, "end" if not found
+    static int indexOf(byte[] data, int base, int start, int end, byte value) {
+        for (int i = start; i < end; i++) {
+            if (data[base + i] == value) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    static int trimStart(byte[] data, int base, int start, int end) {
+        while (start < end && (data[base + start] == ' ' || data[base + start] == '\t')) {
+            start++;
+        }
+        return start;
+    }
+
+    static int trimEnd(byte[] data, int base, int start, int end) {
+        while (end > start && (data[base + end - 1] == ' ' || data[base + end - 1] == '\t' || data[base + end - 1] == '\r')) {
+            end--;
+        }
+        return end;
+    }
+}
@@ -0,0 +1,9 @@
+package com.seb.http;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+// Response body written piece by piece (e.g. straight from an open ResultSet)
+@FunctionalInterface
+public interface JsonStreamBody {
+    void writeTo(JsonGenerator json) throws Exception;
+}
@@ -0,0 +1,34 @@
+package com.seb.http;
+
+import com.seb.config.ServerConfig;
+
+// Rules for reusing a client connection for more requests
+public class KeepAlive {
+    private final int idleTimeoutMillis;
+    private final int maxRequests;
+
+    public KeepAlive(int idleTimeoutMillis, int maxRequests) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.maxRequests = maxRequests;
+    }
+
+    // --http.keepAliveTimeoutMillis=5000 --http.maxRequestsPerConnection=100
+    public static KeepAlive fromConfig() {
+        return new KeepAlive(
+                ServerConfig.getInt("http.keepAliveTimeoutMillis", 5000),
+                ServerConfig.getInt("http.maxRequestsPerConnection", 100));
+    }
+
+    // Decide if connection stays open after answering request number "served" (1-based)
+    public boolean keepOpen(HttpRequest request, int served) {
+        return request.isKeepAlive() && served < maxRequests;
+    }
+
+    public int getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    public int getMaxRequests() {
+        return maxRequests;
+    }
+}
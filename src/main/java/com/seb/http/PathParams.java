@@ -0,0 +1,37 @@
+package com.seb.http;
+
+import java.util.List;
+
+// Path parameters as offsets into the request path (a value is only cut out when it is asked for)
+public class PathParams {
+    public static final PathParams EMPTY = new PathParams("", List.of(), new int[0]);
+
+    private final String path;
+    private final List<String> names;
+    private final int[] bounds; // start/end pairs, same order as names
+
+    PathParams(String path, List<String> names, int[] bounds) {
+        this.path = path;
+        this.names = names;
+        this.bounds = bounds;
+    }
+
+    public String get(String name) {
+        int index = names.indexOf(name);
+        if (index < 0) {
+            return null;
+        }
+        return path.substring(bounds[index * 2], bounds[index * 2 + 1]);
+    }
+
+    // Compare parameter with value without creating a String
+    public boolean matches(String name, String value) {
+        int index = names.indexOf(name);
+        if (index < 0 || value == null) {
+            return false;
+        }
+        int start = bounds[index * 2];
+        int length = bounds[index * 2 + 1] - start;
+        return value.length() == length && path.regionMatches(start, value, 0, length);
+    }
+}
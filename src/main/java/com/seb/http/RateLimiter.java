@@ -0,0 +1,133 @@
+package com.seb.http;
+
+import com.seb.config.ServerConfig;
+import com.seb.metrics.Metrics;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Token-bucket rate limit per key (auth token or client IP), checked before any database work
+// Buckets live in lock-striped hash maps: threads only contend when their keys hash to the same stripe
+public final class RateLimiter {
+    private static final int STRIPES = 64;
+
+    private final String name;
+    private final double tokensPerNano;
+    private final int burst;
+    // Buckets unused for this long are full again anyway and get dropped
+    private final long idleNanos;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final LongAdder limited;
+
+    public RateLimiter(String name, double permitsPerSecond, int burst, long idleEvictMillis) {
+        this.name = name;
+        this.tokensPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = burst;
+        // Never evict a bucket that hasn't refilled yet (that would hand out a fresh burst)
+        long refillNanos = (long) (burst / tokensPerNano);
+        this.idleNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(idleEvictMillis), refillNanos);
+
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.limited = Metrics.counter("http.rateLimited." + name);
+        Metrics.gauge("http.rateLimit." + name + ".buckets", this::size);
+    }
+
+    // --rateLimit.<name>.perSecond=5 --rateLimit.<name>.burst=10 (perSecond <= 0 disables the limit -> null)
+    // --rateLimit.idleEvictMillis=60000
+    public static RateLimiter fromConfig(String name, int defaultPerSecond, int defaultBurst) {
+        int perSecond = ServerConfig.getInt("rateLimit." + name + ".perSecond", defaultPerSecond);
+        if (perSecond <= 0) {
+            return null;
+        }
+        return new RateLimiter(name, perSecond,
+                Math.max(1, ServerConfig.getInt("rateLimit." + name + ".burst", defaultBurst)),
+                ServerConfig.getLong("rateLimit.idleEvictMillis", 60_000));
+    }
+
+    // Take one token for key: 0 if allowed, otherwise seconds until a token is available (for Retry-After)
+    public long tryAcquire(String key) {
+        return tryAcquire(key, System.nanoTime());
+    }
+
+    long tryAcquire(String key, long now) {
+        Stripe stripe = stripes[spread(key.hashCode()) & (STRIPES - 1)];
+        long waitNanos;
+
+        synchronized (stripe) {
+            stripe.evictIdle(now);
+
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(burst, now);
+                stripe.buckets.put(key, bucket);
+            } else {
+                bucket.tokens = Math.min(burst, bucket.tokens + (now - bucket.lastRefill) * tokensPerNano);
+                bucket.lastRefill = now;
+            }
+
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            waitNanos = (long) ((1 - bucket.tokens) / tokensPerNano);
+        }
+
+        limited.increment();
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    // Number of buckets currently held
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.buckets.size();
+            }
+        }
+        return size;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // Hash keys spread over all stripes (same idea as HashMap.hash)
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private class Stripe {
+        private final Map<String, Bucket> buckets = new HashMap<>();
+        private long lastSweep = System.nanoTime();
+
+        // Drop idle buckets, at most every idleNanos / 2 per stripe (cost is spread over requests)
+        private void evictIdle(long now) {
+            if (now - lastSweep < idleNanos / 2) {
+                return;
+            }
+            lastSweep = now;
+            Iterator<Bucket> it = buckets.values().iterator();
+            while (it.hasNext()) {
+                if (now - it.next().lastRefill > idleNanos) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    private static class Bucket {
+        private double tokens;
+        private long lastRefill;
+
+        Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.lastRefill = now;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.seb.http;
+
+import com.seb.dto.MessageResponse;
+import com.seb.json.Json;
+
+import java.io.IOException;
+
+// Everything a route handler needs for one request
+public class RequestContext {
+    private final HttpRequest request;
+    private final ResponseWriter out;
+    private final PathParams params;
+
+    // Set for routes that require authentication
+    private int userId;
+    private String username;
+
+    public RequestContext(HttpRequest request, ResponseWriter out, PathParams params) {
+        this.request = request;
+        this.out = out;
+        this.params = params;
+    }
+
+    public HttpRequest getRequest() {
+        return request;
+    }
+
+    public PathParams getParams() {
+        return params;
+    }
+
+    public String getParam(String name) {
+        return params.get(name);
+    }
+
+    // Value of query parameter (e.g. "limit" in /tournaments?limit=5), null if missing
+    public String getQueryParam(String name) {
+        String path = request.getPath();
+        int queryPos = path.indexOf('?');
+        if (queryPos < 0) {
+            return null;
+        }
+        for (String pair : path.substring(queryPos + 1).split("&")) {
+            int eqPos = pair.indexOf('=');
+            String key = eqPos >= 0 ? pair.substring(0, eqPos) : pair;
+            if (key.equals(name)) {
+                return eqPos >= 0 ? pair.substring(eqPos + 1) : "";
+            }
+        }
+        return null;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUser(int userId, String username) {
+        this.userId = userId;
+        this.username = username;
+    }
+
+    // Deserialize JSON body straight from request bytes into request DTO
+    public <T> T readBody(Class<T> type) throws IOException {
+        return Json.read(request.getBodyArray(), request.getBodyOffset(), request.getBodyLength(), type);
+    }
+
+    public void send(int statusCode, String statusText, String contentType, String body) {
+        out.send(statusCode, statusText, contentType, body);
+    }
+
+    public void sendJson(int statusCode, String statusText, Object body) throws IOException {
+        out.sendJson(statusCode, statusText, body);
+    }
+
+    // Additional response header (e.g. Content-Disposition)
+    public void addHeader(String name, String value) {
+        out.addHeader(name, value);
+    }
+
+    public void clearHeaders() {
+        out.clearHeaders();
+    }
+
+    public void stream(int statusCode, String statusText, String contentType, StreamBody body) throws Exception {
+        out.stream(statusCode, statusText, contentType, body);
+    }
+
+    public void streamJson(int statusCode, String statusText, JsonStreamBody body) throws Exception {
+        out.streamJson(statusCode, statusText, body);
+    }
+
+    // Error response with Retry-After (e.g. 503 when a bounded resource is saturated)
+    public void sendRetryLater(int statusCode, String statusText, int retryAfterSeconds, String message) {
+        out.sendRetryLater(statusCode, statusText, retryAfterSeconds, message);
+    }
+
+    // Error response in the usual {"success":false,"message":...} format
+    public void sendError(int statusCode, String statusText, String message) throws IOException {
+        sendJson(statusCode, statusText, MessageResponse.error(message));
+    }
+}
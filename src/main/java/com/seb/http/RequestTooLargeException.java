@@ -0,0 +1,10 @@
+package com.seb.http;
+
+// Thrown when request does not fit into max request size
+public class RequestTooLargeException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public RequestTooLargeException() {
+        super("Request too large");
+    }
+}
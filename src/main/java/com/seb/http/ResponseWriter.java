@@ -0,0 +1,326 @@
+package com.seb.http;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.seb.dto.MessageResponse;
+import com.seb.json.Json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+// Writes HTTP responses with exact byte Content-Length so connection can be reused
+// JSON bodies are serialized straight into the output, large ones are sent with chunked encoding
+// (HTTP/1.0 clients: without a length, ended by closing the connection)
+public class ResponseWriter {
+    // JSON bodies up to this size are buffered and sent with Content-Length
+    static final int BUFFER_SIZE = 8192;
+
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] LAST_CHUNK = "0\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
+
+    private final OutputStream out;
+    private boolean keepAlive;
+    // Client understands Transfer-Encoding: chunked (HTTP/1.1)
+    private final boolean chunkedAllowed;
+    private boolean failed;
+
+    // Additional header lines for the next response (e.g. Retry-After)
+    private StringBuilder extraHeaders;
+
+    // Set by router for compressible routes (encoding null = client accepts none)
+    private Compression compression;
+    private Compression.Encoding encoding;
+
+    public ResponseWriter(OutputStream out, boolean keepAlive, boolean chunkedAllowed) {
+        this.out = out;
+        this.keepAlive = keepAlive;
+        this.chunkedAllowed = chunkedAllowed;
+        this.failed = false;
+    }
+
+    public ResponseWriter(OutputStream out, boolean keepAlive) {
+        this(out, keepAlive, false);
+    }
+
+    // Compress bodies above the threshold with the negotiated encoding
+    public void enableCompression(Compression compression, Compression.Encoding encoding) {
+        this.compression = compression;
+        this.encoding = encoding;
+    }
+
+    public void addHeader(String name, String value) {
+        if (extraHeaders == null) {
+            extraHeaders = new StringBuilder();
+        }
+        extraHeaders.append(name).append(": ").append(value).append("\r\n");
+    }
+
+    // Drop headers added for a response that wasn't sent (e.g. a download that failed before it started)
+    public void clearHeaders() {
+        extraHeaders = null;
+    }
+
+    // 503/429 with Retry-After, client should come back later
+    public void sendRetryLater(int statusCode, String statusText, int retryAfterSeconds, String message) {
+        addHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        try {
+            sendJson(statusCode, statusText, MessageResponse.error(message));
+        } catch (IOException e) {
+            writeFailed(e);
+        }
+    }
+
+    public void send(int statusCode, String statusText, String contentType, String body) {
+        byte[] bodyBytes = body.getBytes(StandardCharsets.UTF_8);
+        sendBody(statusCode, statusText, contentType, bodyBytes, bodyBytes.length);
+    }
+
+    // Serialize body with Jackson directly into the response
+    // Throws only if nothing was sent yet (caller can still answer with an error)
+    public void sendJson(int statusCode, String statusText, Object body) throws IOException {
+        BodyStream stream = new BodyStream(statusCode, statusText, "application/json");
+        try {
+            Json.write(stream, body);
+            stream.finish();
+        } catch (IOException e) {
+            if (!stream.streaming) {
+                throw e;
+            }
+            // Part of response is already on the wire, connection can't be reused
+            failed = true;
+            System.err.println("Error serializing response: " + e.getMessage());
+        } finally {
+            stream.release();
+        }
+    }
+
+    // Body produced while it is sent: memory stays flat however large it gets (chunked beyond BUFFER_SIZE)
+    // Throws the body's exception only if nothing was sent yet (caller can still answer with an error)
+    public void stream(int statusCode, String statusText, String contentType, StreamBody body) throws Exception {
+        BodyStream stream = new BodyStream(statusCode, statusText, contentType);
+        try {
+            body.writeTo(stream);
+            stream.finish();
+        } catch (Exception e) {
+            if (!stream.streaming) {
+                throw e;
+            }
+            // Truncated chunked body without the last chunk tells the client the response is incomplete
+            // (a body ended by close can't say so, it is just cut off)
+            failed = true;
+            System.err.println("Error streaming response: " + e.getMessage());
+        } finally {
+            stream.release();
+        }
+    }
+
+    public void streamJson(int statusCode, String statusText, JsonStreamBody body) throws Exception {
+        stream(statusCode, statusText, "application/json", out -> {
+            JsonGenerator json = Json.generator(out);
+            body.writeTo(json);
+            // Only closed on success: closing would complete the open arrays and objects of a failed body
+            json.close();
+        });
+    }
+
+    // Complete body in memory: compress if worth it, then send with Content-Length
+    private void sendBody(int statusCode, String statusText, String contentType, byte[] body, int length) {
+        if (encoding != null && compression.shouldCompress(length)) {
+            try {
+                byte[] compressed = compression.compress(encoding, body, 0, length);
+                sendBytes(statusCode, statusText, contentType, compressed, compressed.length, encoding);
+                return;
+            } catch (IOException e) {
+                // In-memory compression failed, send uncompressed instead
+                System.err.println("Error compressing response: " + e.getMessage());
+            }
+        }
+        sendBytes(statusCode, statusText, contentType, body, length, null);
+    }
+
+    private void sendBytes(int statusCode, String statusText, String contentType, byte[] body, int length,
+                           Compression.Encoding bodyEncoding) {
+        byte[] headBytes = head(statusCode, statusText, contentType, "Content-Length: " + length, bodyEncoding);
+
+        // Head and body in one write (avoids a small extra TCP segment)
+        byte[] response = new byte[headBytes.length + length];
+        System.arraycopy(headBytes, 0, response, 0, headBytes.length);
+        System.arraycopy(body, 0, response, headBytes.length, length);
+
+        try {
+            out.write(response);
+            out.flush();
+        } catch (IOException e) {
+            writeFailed(e);
+        }
+    }
+
+    private byte[] head(int statusCode, String statusText, String contentType, String lengthHeader,
+                        Compression.Encoding bodyEncoding) {
+        StringBuilder head = new StringBuilder(160)
+                .append("HTTP/1.1 ").append(statusCode).append(' ').append(statusText).append("\r\n")
+                .append("Content-Type: ").append(contentType).append("\r\n");
+        if (lengthHeader != null) {
+            head.append(lengthHeader).append("\r\n");
+        }
+        if (bodyEncoding != null) {
+            head.append("Content-Encoding: ").append(bodyEncoding.getToken()).append("\r\n");
+        }
+        if (compression != null) {
+            // Caches must not hand a compressed body to clients that can't decode it
+            head.append("Vary: Accept-Encoding\r\n");
+        }
+        if (extraHeaders != null) {
+            head.append(extraHeaders);
+        }
+        head.append("Connection: ").append(keepAlive ? "keep-alive" : "close").append("\r\n")
+                .append("\r\n");
+        return head.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private void writeFailed(IOException e) {
+        failed = true;
+        System.err.println("Error writing response: " + e.getMessage());
+    }
+
+    // False also after a body that was ended by closing the connection
+    public boolean isKeepAlive() {
+        return keepAlive;
+    }
+
+    // True if writing to client failed (connection must not be reused)
+    public boolean hasFailed() {
+        return failed;
+    }
+
+    // Body sink: collects up to BUFFER_SIZE bytes, switches to chunked encoding beyond that
+    // (HTTP/1.0: no length and Connection: close, so memory stays bounded there too)
+    // (compressed on the fly if negotiated). A write error sets the failed flag (the connection gets closed),
+    // later writes throw
+    private class BodyStream extends OutputStream {
+        private final int statusCode;
+        private final String statusText;
+        private final String contentType;
+
+        private byte[] buffer = new byte[BUFFER_SIZE];
+        private int count;
+        // Head is sent, body goes out as it is written
+        private boolean streaming;
+        private boolean chunked;
+
+        // Where bytes go once streaming has started (chunk writer, or compressor in front of it)
+        private OutputStream target;
+        private Compression.EncodingStream encoder;
+
+        BodyStream(int statusCode, String statusText, String contentType) {
+            this.statusCode = statusCode;
+            this.statusText = statusText;
+            this.contentType = contentType;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (target == null) {
+                if (count + len <= buffer.length) {
+                    System.arraycopy(b, off, buffer, count, len);
+                    count += len;
+                    return;
+                }
+                startStreaming();
+            }
+            if (failed) {
+                // Stops the producer (e.g. a query still reading rows) once the client is gone
+                throw new IOException("Client connection failed");
+            }
+            try {
+                target.write(b, off, len);
+            } catch (IOException e) {
+                writeFailed(e);
+            }
+        }
+
+        // Jackson flushes after each value, the response is only flushed in finish()
+        @Override
+        public void flush() {
+        }
+
+        // Body too big to buffer: send head and continue with chunks (HTTP/1.0: raw bytes until close)
+        private void startStreaming() throws IOException {
+            streaming = true;
+            chunked = chunkedAllowed;
+            if (!chunked) {
+                keepAlive = false;
+            }
+            // Anything this big is above the compression threshold
+            Compression.Encoding bodyEncoding = encoding;
+            OutputStream body = chunked ? new ChunkWriter() : out;
+            try {
+                out.write(head(statusCode, statusText, contentType, chunked ? "Transfer-Encoding: chunked" : null,
+                        bodyEncoding));
+                if (bodyEncoding != null) {
+                    encoder = compression.open(bodyEncoding, body);
+                    target = encoder;
+                } else {
+                    target = body;
+                }
+                target.write(buffer, 0, count);
+            } catch (IOException e) {
+                writeFailed(e);
+                target = OutputStream.nullOutputStream();
+            }
+            count = 0;
+        }
+
+        void finish() throws IOException {
+            if (target == null) {
+                sendBody(statusCode, statusText, contentType, buffer, count);
+                return;
+            }
+            if (failed) {
+                return;
+            }
+            try {
+                if (encoder != null) {
+                    encoder.finish();
+                }
+                if (chunked) {
+                    out.write(LAST_CHUNK);
+                }
+                out.flush();
+            } catch (IOException e) {
+                writeFailed(e);
+            }
+        }
+
+        // Return pooled Deflater (also after errors)
+        void release() {
+            if (encoder != null) {
+                encoder.release();
+            }
+        }
+    }
+
+    // Writes every block it gets as one chunk
+    private class ChunkWriter extends OutputStream {
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return;
+            }
+            out.write(Integer.toHexString(len).getBytes(StandardCharsets.ISO_8859_1));
+            out.write(CRLF);
+            out.write(b, off, len);
+            out.write(CRLF);
+        }
+    }
+}
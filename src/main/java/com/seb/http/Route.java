@@ -0,0 +1,47 @@
+package com.seb.http;
+
+import java.util.List;
+
+public class Route {
+    private final String method;
+    private final String pattern;
+    private final boolean authRequired;
+    private final RouteHandler handler;
+    private final List<String> paramNames; // In order of appearance in pattern
+    private final RouteOptions options;
+
+    public Route(String method, String pattern, boolean authRequired, RouteHandler handler, List<String> paramNames,
+                 RouteOptions options) {
+        this.method = method;
+        this.pattern = pattern;
+        this.authRequired = authRequired;
+        this.handler = handler;
+        this.paramNames = paramNames;
+        this.options = options;
+    }
+
+    // Getters
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public boolean isAuthRequired() {
+        return authRequired;
+    }
+
+    public RouteHandler getHandler() {
+        return handler;
+    }
+
+    public List<String> getParamNames() {
+        return paramNames;
+    }
+
+    public RouteOptions getOptions() {
+        return options;
+    }
+}
@@ -0,0 +1,7 @@
+package com.seb.http;
+
+// Handles one matched route
+@FunctionalInterface
+public interface RouteHandler {
+    void handle(RequestContext context) throws Exception;
+}
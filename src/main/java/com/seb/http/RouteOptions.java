@@ -0,0 +1,42 @@
+package com.seb.http;
+
+// Optional per-route settings (defaults fit most endpoints)
+public class RouteOptions {
+    private boolean compressible = true;
+    private ConcurrencyBudget budget;
+    private RateLimiter rateLimiter;
+
+    public static RouteOptions defaults() {
+        return new RouteOptions();
+    }
+
+    // Never compress responses of this route (tiny bodies, health probes)
+    public RouteOptions noCompression() {
+        this.compressible = false;
+        return this;
+    }
+
+    // Share a concurrency limit with other routes (null = unlimited)
+    public RouteOptions budget(ConcurrencyBudget budget) {
+        this.budget = budget;
+        return this;
+    }
+
+    // Limit requests per auth token (per IP for anonymous requests), null = no limit
+    public RouteOptions rateLimit(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+        return this;
+    }
+
+    public boolean isCompressible() {
+        return compressible;
+    }
+
+    public ConcurrencyBudget getBudget() {
+        return budget;
+    }
+
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+}
@@ -0,0 +1,149 @@
+package com.seb.http;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Route table built once at startup
+// Literal paths are found with one hash lookup, paths with {parameters} by walking a segment trie
+public class Router {
+
+    // path -> (method -> route)
+    private final Map<String, Map<String, Route>> literalRoutes = new HashMap<>();
+    private final Node root = new Node();
+    private int maxParams;
+
+    public Router add(String method, String pattern, boolean authRequired, RouteHandler handler) {
+        return add(method, pattern, authRequired, RouteOptions.defaults(), handler);
+    }
+
+    public Router add(String method, String pattern, boolean authRequired, RouteOptions options, RouteHandler handler) {
+        if (!pattern.startsWith("/")) {
+            throw new IllegalArgumentException("Route pattern must start with '/': " + pattern);
+        }
+
+        List<String> paramNames = new ArrayList<>();
+        Node node = root;
+        for (String segment : pattern.substring(1).split("/", -1)) {
+            if (segment.startsWith("{") && segment.endsWith("}")) {
+                paramNames.add(segment.substring(1, segment.length() - 1));
+                if (node.paramChild == null) {
+                    node.paramChild = new Node();
+                }
+                node = node.paramChild;
+            } else {
+                node = node.literalChild(segment);
+            }
+        }
+
+        maxParams = Math.max(maxParams, paramNames.size());
+        Route route = new Route(method, pattern, authRequired, handler, Collections.unmodifiableList(paramNames), options);
+        Map<String, Route> methods = paramNames.isEmpty()
+                ? literalRoutes.computeIfAbsent(pattern, p -> new HashMap<>())
+                : node.routes;
+        if (methods.putIfAbsent(method, route) != null) {
+            throw new IllegalArgumentException("Duplicate route: " + method + " " + pattern);
+        }
+        return this;
+    }
+
+    // Find route for request (null if no route matches)
+    public Match match(String method, String path) {
+        // Query string is not part of the route
+        int queryPos = path.indexOf('?');
+        int pathEnd = queryPos >= 0 ? queryPos : path.length();
+
+        Map<String, Route> methods = literalRoutes.get(queryPos >= 0 ? path.substring(0, pathEnd) : path);
+        if (methods != null) {
+            Route route = methods.get(method);
+            if (route != null) {
+                return new Match(route, PathParams.EMPTY);
+            }
+        }
+
+        if (pathEnd == 0 || path.charAt(0) != '/') {
+            return null;
+        }
+
+        int[] bounds = new int[maxParams * 2];
+        Route route = walk(root, path, 1, pathEnd, method, bounds, 0);
+        if (route == null) {
+            return null;
+        }
+        return new Match(route, new PathParams(path, route.getParamNames(), bounds));
+    }
+
+    // Match segment starting at "start", literal children are preferred over parameters
+    private Route walk(Node node, String path, int start, int pathEnd, String method, int[] bounds, int paramCount) {
+        int segmentEnd = path.indexOf('/', start);
+        if (segmentEnd < 0 || segmentEnd > pathEnd) {
+            segmentEnd = pathEnd;
+        }
+        boolean last = segmentEnd == pathEnd;
+
+        for (int i = 0; i < node.literalCount; i++) {
+            String segment = node.literalSegments[i];
+            if (segment.length() == segmentEnd - start && path.regionMatches(start, segment, 0, segment.length())) {
+                Node child = node.literalNodes[i];
+                Route route = last ? child.routes.get(method) : walk(child, path, segmentEnd + 1, pathEnd, method, bounds, paramCount);
+                if (route != null) {
+                    return route;
+                }
+            }
+        }
+
+        // Parameters must not be empty
+        if (node.paramChild != null && segmentEnd > start && paramCount * 2 + 1 < bounds.length) {
+            bounds[paramCount * 2] = start;
+            bounds[paramCount * 2 + 1] = segmentEnd;
+            Node child = node.paramChild;
+            return last ? child.routes.get(method) : walk(child, path, segmentEnd + 1, pathEnd, method, bounds, paramCount + 1);
+        }
+        return null;
+    }
+
+    public static class Match {
+        private final Route route;
+        private final PathParams params;
+
+        Match(Route route, PathParams params) {
+            this.route = route;
+            this.params = params;
+        }
+
+        public Route getRoute() {
+            return route;
+        }
+
+        public PathParams getParams() {
+            return params;
+        }
+    }
+
+    // Trie node for one path segment
+    private static class Node {
+        // Few children per node -> arrays scanned with regionMatches (no substring per lookup)
+        private String[] literalSegments = new String[0];
+        private Node[] literalNodes = new Node[0];
+        private int literalCount;
+
+        private Node paramChild;
+        private final Map<String, Route> routes = new HashMap<>();
+
+        private Node literalChild(String segment) {
+            for (int i = 0; i < literalCount; i++) {
+                if (literalSegments[i].equals(segment)) {
+                    return literalNodes[i];
+                }
+            }
+            literalSegments = Arrays.copyOf(literalSegments, literalCount + 1);
+            literalNodes = Arrays.copyOf(literalNodes, literalCount + 1);
+            literalSegments[literalCount] = segment;
+            literalNodes[literalCount] = new Node();
+            return literalNodes[literalCount++];
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.seb.http;
+
+import java.io.OutputStream;
+
+// Response body written straight into the response stream (e.g. rows of a COPY ... TO STDOUT)
+@FunctionalInterface
+public interface StreamBody {
+    void writeTo(OutputStream out) throws Exception;
+}
@@ -0,0 +1,155 @@
+package com.seb.jobs;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.seb.json.Json;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Reads import rows one line at a time (files of any size)
+//   CSV:    username,count,duration,date      (header line optional, duration may be empty)
+//   NDJSON: {"username":"a","count":20,"duration":60,"date":"2024-01-31T18:00:00"}
+// Dates are ISO date-times ("T" or space) or plain dates (start of the day)
+public class ImportReader implements Closeable {
+    // Same as POST /history without DurationInSeconds
+    static final int DEFAULT_DURATION = 120;
+
+    public enum Format {
+        CSV, NDJSON;
+
+        // From --import.format, otherwise from the file extension (.ndjson/.jsonl/.json, else CSV)
+        public static Format of(String name, String fileName) {
+            if (name != null) {
+                return valueOf(name.toUpperCase(Locale.ROOT));
+            }
+            String lower = fileName.toLowerCase(Locale.ROOT);
+            return lower.endsWith(".ndjson") || lower.endsWith(".jsonl") || lower.endsWith(".json") ? NDJSON : CSV;
+        }
+    }
+
+    private record JsonLine(String username, Integer count,
+                            @JsonAlias({"durationSeconds", "DurationInSeconds"}) Integer duration,
+                            @JsonAlias("recordDate") String date) {
+    }
+
+    private final BufferedReader in;
+    private final Format format;
+    private int lineNumber;
+
+    public ImportReader(BufferedReader in, Format format) {
+        this.in = in;
+        this.format = format;
+    }
+
+    // Next row, null at end of file. Throws IllegalArgumentException for an invalid line
+    // (the reader stays usable, the caller decides whether to skip it)
+    public ImportRow next() throws IOException {
+        String line;
+        do {
+            line = in.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+        } while (line.isBlank() || (lineNumber == 1 && format == Format.CSV && isHeader(line)));
+
+        try {
+            return format == Format.CSV ? parseCsv(line) : parseJson(line);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Line " + lineNumber + ": " + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Line " + lineNumber + ": invalid JSON", e);
+        }
+    }
+
+    // Line of the row last returned (or rejected)
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private static boolean isHeader(String line) {
+        return line.trim().toLowerCase(Locale.ROOT).startsWith("username");
+    }
+
+    private static ImportRow parseCsv(String line) {
+        List<String> fields = splitCsv(line);
+        if (fields.size() != 4) {
+            throw new IllegalArgumentException("expected 4 fields, got " + fields.size());
+        }
+        String duration = fields.get(2).trim();
+        return row(fields.get(0).trim(), Integer.parseInt(fields.get(1).trim()),
+                duration.isEmpty() ? null : Integer.parseInt(duration), fields.get(3).trim());
+    }
+
+    private static ImportRow parseJson(String line) throws IOException {
+        JsonLine json = Json.reader(JsonLine.class).readValue(line);
+        if (json.count() == null) {
+            throw new IllegalArgumentException("count is required");
+        }
+        return row(json.username(), json.count(), json.duration(), json.date());
+    }
+
+    private static ImportRow row(String username, int count, Integer duration, String date) {
+        if (username == null || username.isEmpty()) {
+            throw new IllegalArgumentException("username is required");
+        }
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative");
+        }
+        if (date == null || date.isEmpty()) {
+            throw new IllegalArgumentException("date is required");
+        }
+        return new ImportRow(username, count, duration != null ? duration : DEFAULT_DURATION, parseDate(date));
+    }
+
+    static LocalDateTime parseDate(String value) {
+        if (value.length() == 10) {
+            return LocalDate.parse(value).atStartOfDay();
+        }
+        return LocalDateTime.parse(value.replace(' ', 'T'));
+    }
+
+    // Comma separated, fields may be quoted ("a,b" and "" for a quote inside)
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(4);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quote");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
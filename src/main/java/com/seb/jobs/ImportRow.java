@@ -0,0 +1,7 @@
+package com.seb.jobs;
+
+import java.time.LocalDateTime;
+
+// One historical pushup session of an import file
+public record ImportRow(String username, int count, int durationSeconds, LocalDateTime recordDate) {
+}
@@ -0,0 +1,199 @@
+package com.seb.jobs;
+
+import com.seb.config.DatabaseConfig;
+import com.seb.config.ServerConfig;
+import com.seb.db.PartitionManager;
+import com.seb.db.UnitOfWork;
+import com.seb.repository.StreakRepository;
+import com.seb.repository.UserRepository;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Bulk import of historical pushup records from CSV or NDJSON files (see ImportReader for the formats)
+// Two passes over the file. The first collects usernames and the date range: users are resolved in bulk and
+// missing monthly partitions are created up front (DDL inside the import transaction would lock pushup_records
+// until the import ends). The second streams the rows through COPY ... FROM STDIN.
+// Records, user_stats and streaks commit in one transaction, so a failed import leaves nothing behind.
+// Rows of unknown users and invalid lines are skipped and reported. Imported records don't count for tournaments
+//
+//   java com.seb.jobs.PushupImport gym-logs.csv [--import.format=ndjson]
+public class PushupImport {
+    private static final String COPY_SQL =
+            "COPY pushup_records (user_id, count, duration_seconds, record_date) FROM STDIN";
+    // Rows are handed to the driver in blocks of about this size
+    private static final int COPY_BUFFER_CHARS = 64 * 1024;
+    // Invalid lines and unknown users printed in detail
+    private static final int MAX_REPORTED = 20;
+
+    public record Result(long imported, long rejected, int users, long copyMillis, long totalMillis) {
+        public long rowsPerSecond() {
+            return totalMillis > 0 ? imported * 1000 / totalMillis : imported;
+        }
+    }
+
+    private final DatabaseConfig dbConfig;
+    private final PartitionManager partitionManager;
+    private final UserStatsBackfill statsBackfill;
+    private final StreakRepository streakRepository;
+    private final UserRepository userRepository;
+
+    public PushupImport(DatabaseConfig dbConfig) {
+        this.dbConfig = dbConfig;
+        this.partitionManager = new PartitionManager(dbConfig.getPool(), 0, 0, 0);
+        this.statsBackfill = new UserStatsBackfill(dbConfig, 1);
+        this.streakRepository = new StreakRepository();
+        this.userRepository = new UserRepository();
+    }
+
+    public Result run(Path file, ImportReader.Format format) throws IOException, SQLException {
+        long start = System.currentTimeMillis();
+
+        // Pass 1: who and when (invalid lines are reported in pass 2)
+        Set<String> usernames = new HashSet<>();
+        YearMonth first = null;
+        YearMonth last = null;
+        try (ImportReader reader = open(file, format)) {
+            while (true) {
+                ImportRow row;
+                try {
+                    row = reader.next();
+                } catch (IllegalArgumentException e) {
+                    continue;
+                }
+                if (row == null) {
+                    break;
+                }
+                usernames.add(row.username());
+                YearMonth month = YearMonth.from(row.recordDate());
+                first = first == null || month.isBefore(first) ? month : first;
+                last = last == null || month.isAfter(last) ? month : last;
+            }
+        }
+
+        Map<String, Integer> userIds = userRepository.findUserIds(usernames);
+        if (first != null) {
+            partitionManager.ensurePartitions(first, last);
+        }
+
+        // Pass 2: stream into COPY, then rebuild what is derived from the records
+        long rejected = 0;
+        long imported;
+        long copyMillis;
+        Set<Integer> importedUsers = new HashSet<>();
+        Set<String> unknownUsers = new TreeSet<>();
+
+        try (UnitOfWork work = dbConfig.beginWork();
+             ImportReader reader = open(file, format)) {
+            long copyStart = System.currentTimeMillis();
+            Connection conn = dbConfig.getConnection();
+            CopyIn copy = conn.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+            try {
+                StringBuilder buffer = new StringBuilder(COPY_BUFFER_CHARS + 128);
+                while (true) {
+                    ImportRow row;
+                    try {
+                        row = reader.next();
+                    } catch (IllegalArgumentException e) {
+                        if (rejected++ < MAX_REPORTED) {
+                            System.err.println("Skipped " + e.getMessage());
+                        }
+                        continue;
+                    }
+                    if (row == null) {
+                        break;
+                    }
+
+                    Integer userId = userIds.get(row.username());
+                    if (userId == null) {
+                        rejected++;
+                        unknownUsers.add(row.username());
+                        continue;
+                    }
+                    importedUsers.add(userId);
+
+                    // COPY text format: tab separated, timestamps in ISO form
+                    buffer.append(userId).append('\t')
+                            .append(row.count()).append('\t')
+                            .append(row.durationSeconds()).append('\t')
+                            .append(row.recordDate()).append('\n');
+                    if (buffer.length() >= COPY_BUFFER_CHARS) {
+                        write(copy, buffer);
+                    }
+                }
+                write(copy, buffer);
+                imported = copy.endCopy();
+            } finally {
+                if (copy.isActive()) {
+                    copy.cancelCopy();
+                }
+                dbConfig.closeConnection(conn);
+            }
+            copyMillis = System.currentTimeMillis() - copyStart;
+
+            if (!importedUsers.isEmpty()) {
+                Integer[] ids = importedUsers.toArray(new Integer[0]);
+                statsBackfill.rebuild(ids);
+                streakRepository.rebuildStreaks(ids);
+            }
+            work.commit();
+        }
+
+        if (!unknownUsers.isEmpty()) {
+            System.err.println(unknownUsers.size() + " unknown users skipped, e.g. "
+                    + unknownUsers.stream().limit(MAX_REPORTED).toList());
+        }
+        return new Result(imported, rejected, importedUsers.size(), copyMillis, System.currentTimeMillis() - start);
+    }
+
+    private static ImportReader open(Path file, ImportReader.Format format) throws IOException {
+        return new ImportReader(Files.newBufferedReader(file, StandardCharsets.UTF_8), format);
+    }
+
+    private static void write(CopyIn copy, StringBuilder buffer) throws SQLException {
+        if (buffer.length() == 0) {
+            return;
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copy.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    public static void main(String[] args) {
+        ServerConfig.applyArgs(args);
+        String file = null;
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                file = arg;
+            }
+        }
+        if (file == null) {
+            System.err.println("Usage: PushupImport <file.csv|file.ndjson> [--import.format=csv|ndjson]");
+            return;
+        }
+
+        DatabaseConfig dbConfig = DatabaseConfig.getInstance();
+        try {
+            ImportReader.Format format = ImportReader.Format.of(ServerConfig.getString("import.format", null), file);
+            Result result = new PushupImport(dbConfig).run(Path.of(file), format);
+            System.out.printf("Imported %d records of %d users in %d ms (%d rows/s, COPY %d ms), %d rows skipped%n",
+                    result.imported(), result.users(), result.totalMillis(), result.rowsPerSecond(),
+                    result.copyMillis(), result.rejected());
+        } catch (IOException | SQLException | IllegalArgumentException e) {
+            System.err.println("Import failed, nothing was imported: " + e.getMessage());
+        } finally {
+            dbConfig.shutdown();
+        }
+    }
+}
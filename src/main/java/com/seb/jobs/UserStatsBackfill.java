@@ -0,0 +1,131 @@
+package com.seb.jobs;
+
+import com.seb.config.DatabaseConfig;
+import com.seb.config.ServerConfig;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Rebuilds user_stats from pushup_records, a batch of user ids per transaction
+// (migration V003 fills the table once; run this after bulk loads that bypass the repositories or to repair drift)
+// Safe while the server runs: a batch first locks the users' stats rows, so a concurrent insert is either
+// already committed and counted by the recompute, or waits and then adds itself on top
+//
+//   java com.seb.jobs.UserStatsBackfill --stats.backfill.batchSize=1000
+public class UserStatsBackfill {
+    private final DatabaseConfig dbConfig;
+    private final int batchSize;
+
+    public UserStatsBackfill(DatabaseConfig dbConfig, int batchSize) {
+        this.dbConfig = dbConfig;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    // Rebuild stats of all users, returns number of users written
+    public int run() throws SQLException {
+        int maxUserId;
+        try (Connection conn = dbConfig.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(user_id), 0) FROM users")) {
+            rs.next();
+            maxUserId = rs.getInt(1);
+        }
+
+        int users = 0;
+        for (int fromId = 0; fromId < maxUserId; fromId += batchSize) {
+            users += rebuild(fromId, fromId + batchSize);
+        }
+        return users;
+    }
+
+    // Recompute stats of users with fromId < user_id <= toId
+    public int rebuild(int fromId, int toId) throws SQLException {
+        return rebuild("user_id > ? AND user_id <= ?", stmt -> {
+            stmt.setInt(1, fromId);
+            stmt.setInt(2, toId);
+        });
+    }
+
+    // Recompute stats of the given users (e.g. after an import added records for them)
+    // Joins the caller's unit of work if one is open
+    public int rebuild(Integer[] userIds) throws SQLException {
+        return rebuild("user_id = ANY(?)",
+                stmt -> stmt.setArray(1, stmt.getConnection().createArrayOf("integer", userIds)));
+    }
+
+    private interface Binder {
+        void bind(PreparedStatement stmt) throws SQLException;
+    }
+
+    // Lock the users' stats rows, then overwrite them with aggregates of their records
+    private int rebuild(String userCondition, Binder binder) throws SQLException {
+        String lockSql = "SELECT user_id FROM user_stats WHERE " + userCondition + " FOR UPDATE";
+        String rebuildSql = "INSERT INTO user_stats (user_id, entry_count, total_pushups, max_pushups, last_record_at) " +
+                "SELECT u.user_id, COUNT(pr.record_id), COALESCE(SUM(pr.count), 0), COALESCE(MAX(pr.count), 0), " +
+                "MAX(pr.record_date) " +
+                "FROM users u LEFT JOIN pushup_records pr ON pr.user_id = u.user_id " +
+                "WHERE u." + userCondition + " " +
+                "GROUP BY u.user_id " +
+                "ON CONFLICT (user_id) DO UPDATE SET entry_count = EXCLUDED.entry_count, " +
+                "total_pushups = EXCLUDED.total_pushups, max_pushups = EXCLUDED.max_pushups, " +
+                "last_record_at = EXCLUDED.last_record_at";
+
+        Connection conn = null;
+        try {
+            conn = dbConfig.getConnection();
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmt = conn.prepareStatement(lockSql)) {
+                binder.bind(stmt);
+                stmt.executeQuery().close();
+            }
+
+            int rows;
+            try (PreparedStatement stmt = conn.prepareStatement(rebuildSql)) {
+                binder.bind(stmt);
+                rows = stmt.executeUpdate();
+            }
+
+            conn.commit();
+            return rows;
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackEx) {
+                    System.err.println("Error rolling back transaction: " + rollbackEx.getMessage());
+                }
+            }
+            throw e;
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                } catch (SQLException e) {
+                    System.err.println("Error resetting connection: " + e.getMessage());
+                }
+                dbConfig.closeConnection(conn);
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        ServerConfig.applyArgs(args);
+        DatabaseConfig dbConfig = DatabaseConfig.getInstance();
+        UserStatsBackfill backfill = new UserStatsBackfill(dbConfig,
+                ServerConfig.getInt("stats.backfill.batchSize", 1000));
+
+        long start = System.currentTimeMillis();
+        try {
+            int users = backfill.run();
+            System.out.println("Rebuilt stats of " + users + " users in " + (System.currentTimeMillis() - start) + " ms");
+        } catch (SQLException e) {
+            System.err.println("User stats backfill failed: " + e.getMessage());
+        } finally {
+            dbConfig.shutdown();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.seb.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Process-wide JSON serialization (mapper is configured once, readers/writers are cached per type)
+// ObjectMapper, ObjectReader and ObjectWriter are thread-safe once configured
+public final class Json {
+
+    private static final ObjectMapper MAPPER = createMapper();
+
+    private static final ConcurrentMap<Class<?>, ObjectReader> READERS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Class<?>, ObjectWriter> WRITERS = new ConcurrentHashMap<>();
+
+    private Json() {
+    }
+
+    private static ObjectMapper createMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+        // Clients may send more fields than the request DTOs know
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        // Response stream is finished by the caller (chunk terminator), not closed by Jackson
+        mapper.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+        return mapper;
+    }
+
+    public static ObjectReader reader(Class<?> type) {
+        return READERS.computeIfAbsent(type, MAPPER::readerFor);
+    }
+
+    public static ObjectWriter writer(Class<?> type) {
+        return WRITERS.computeIfAbsent(type, MAPPER::writerFor);
+    }
+
+    public static <T> T read(byte[] data, int offset, int length, Class<T> type) throws IOException {
+        return reader(type).readValue(data, offset, length);
+    }
+
+    // Serialize straight into stream (no intermediate String)
+    public static void write(OutputStream out, Object value) throws IOException {
+        writer(value.getClass()).writeValue(out, value);
+    }
+
+    // Generator for bodies written incrementally (writeObject uses the same mapper configuration)
+    public static JsonGenerator generator(OutputStream out) throws IOException {
+        return MAPPER.createGenerator(out);
+    }
+
+    public static byte[] toBytes(Object value) throws IOException {
+        return writer(value.getClass()).writeValueAsBytes(value);
+    }
+}
@@ -1,10 +1,14 @@
 package com.seb.model;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 public class Tournament {
+    // Tournaments run for 2 minutes
+    public static final Duration DURATION = Duration.ofMinutes(2);
+
     private int tournamentId;
     private LocalDateTime startTime;
     private String status; // ACTIVE or COMPLETED
@@ -59,7 +63,6 @@ public class Tournament {
     }
 
     public boolean isExpired() {
-        // Tournament expires after 2 minutes
-        return LocalDateTime.now().isAfter(startTime.plusMinutes(2));
+        return LocalDateTime.now().isAfter(startTime.plus(DURATION));
     }
 }
\ No newline at end of file
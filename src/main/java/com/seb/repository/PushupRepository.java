@@ -1,13 +1,23 @@
 package com.seb.repository;
 
 import com.seb.config.DatabaseConfig;
+import com.seb.dto.ExportFormat;
+import com.seb.dto.HistoryCursor;
+import com.seb.dto.HistoryEntry;
+import com.seb.dto.PushupIngestResult;
+import com.seb.dto.UserStats;
 import com.seb.model.PushupRecord;
+import com.seb.model.Tournament;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyOut;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.sql.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.StringJoiner;
 
 public class PushupRepository {
     private final DatabaseConfig dbConfig;
@@ -18,7 +28,15 @@ public class PushupRepository {
 
     // Add new pushup record (with duration)
     public PushupRecord addRecord(PushupRecord record) throws SQLException {
-        String sql = "INSERT INTO pushup_records (user_id, count, duration_seconds, record_date) VALUES (?, ?, ?, ?) RETURNING record_id";
+        // user_stats is updated by the same statement
+        String sql = "WITH rec AS (" +
+                "INSERT INTO pushup_records (user_id, count, duration_seconds, record_date) VALUES (?, ?, ?, ?) " +
+                "RETURNING record_id, user_id, count, record_date" +
+                "), stats AS (" +
+                "INSERT INTO user_stats AS us (user_id, entry_count, total_pushups, max_pushups, last_record_at) " +
+                "SELECT user_id, 1, count, count, record_date FROM rec " +
+                "ON CONFLICT (user_id) DO UPDATE SET " + ADD_TO_STATS +
+                ") SELECT record_id FROM rec";
 
         Connection conn = null;
         PreparedStatement stmt = null;
@@ -47,12 +65,116 @@ public class PushupRepository {
         }
     }
 
+    // Streak after activity on day EXCLUDED.last_active (same day: unchanged, next day: +1, otherwise restart)
+    private static final String NEXT_STREAK = "CASE " +
+            "WHEN s.last_active = EXCLUDED.last_active THEN s.current_streak " +
+            "WHEN s.last_active = EXCLUDED.last_active - 1 THEN s.current_streak + 1 " +
+            "ELSE 1 END";
+
+    // Add one record to the user's aggregate row (EXCLUDED holds the new record)
+    private static final String ADD_TO_STATS = "entry_count = us.entry_count + 1, " +
+            "total_pushups = us.total_pushups + EXCLUDED.total_pushups, " +
+            "max_pushups = GREATEST(us.max_pushups, EXCLUDED.max_pushups), " +
+            "last_record_at = GREATEST(us.last_record_at, EXCLUDED.last_record_at)";
+
+    // Record insert, tournament participant upsert, streak and stats update as one statement (one round trip)
+    // The upserts add atomically, so concurrent posts of the same user can't lose pushups
+    // FOR SHARE: completeTournament's status update waits for running ingests and ranks after them; an ingest
+    // arriving after the update waits for its commit, re-checks status = 'ACTIVE' and skips the tournament
+    private static final String INGEST_SQL = "WITH active AS (" +
+            "SELECT tournament_id, start_time FROM tournaments " +
+            "WHERE status = 'ACTIVE' AND start_time >= ? AND start_time <= ? ORDER BY start_time DESC LIMIT 1 " +
+            "FOR SHARE" +
+            "), rec AS (" +
+            "INSERT INTO pushup_records (user_id, count, duration_seconds, record_date) VALUES (?, ?, ?, ?) " +
+            "RETURNING record_id" +
+            "), part AS (" +
+            "INSERT INTO tournament_participants (tournament_id, user_id, total_pushups) " +
+            "SELECT tournament_id, ?, ? FROM active " +
+            "ON CONFLICT (tournament_id, user_id) " +
+            "DO UPDATE SET total_pushups = tournament_participants.total_pushups + EXCLUDED.total_pushups " +
+            "RETURNING tournament_id, total_pushups" +
+            "), streak AS (" +
+            "INSERT INTO user_streaks AS s (user_id, current_streak, longest_streak, last_active) VALUES (?, 1, 1, ?) " +
+            "ON CONFLICT (user_id) DO UPDATE SET current_streak = " + NEXT_STREAK + ", " +
+            "longest_streak = GREATEST(s.longest_streak, " + NEXT_STREAK + "), " +
+            "last_active = EXCLUDED.last_active " +
+            "RETURNING current_streak, longest_streak" +
+            "), stats AS (" +
+            "INSERT INTO user_stats AS us (user_id, entry_count, total_pushups, max_pushups, last_record_at) " +
+            "VALUES (?, 1, ?, ?, ?) " +
+            "ON CONFLICT (user_id) DO UPDATE SET " + ADD_TO_STATS +
+            ") " +
+            "SELECT rec.record_id, active.tournament_id, active.start_time, part.total_pushups, " +
+            "streak.current_streak, streak.longest_streak " +
+            "FROM rec CROSS JOIN streak " +
+            "LEFT JOIN part ON true " +
+            "LEFT JOIN active ON active.tournament_id = part.tournament_id";
+
+    // Store pushups, add them to the running tournament and update the streak
+    // Tournament fields of the result are null if no tournament is running (caller starts one)
+    public PushupIngestResult ingest(PushupRecord record) throws SQLException {
+        LocalDateTime recordDate = record.getRecordDate();
+
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+
+        try {
+            conn = dbConfig.getConnection();
+            stmt = conn.prepareStatement(INGEST_SQL);
+            // Only the tournament running right now (not expired, not the next one created ahead)
+            stmt.setTimestamp(1, Timestamp.valueOf(recordDate.minus(Tournament.DURATION)));
+            stmt.setTimestamp(2, Timestamp.valueOf(recordDate));
+            stmt.setInt(3, record.getUserId());
+            stmt.setInt(4, record.getCount());
+            stmt.setInt(5, record.getDurationInSeconds());
+            stmt.setTimestamp(6, Timestamp.valueOf(recordDate));
+            stmt.setInt(7, record.getUserId());
+            stmt.setInt(8, record.getCount());
+            stmt.setInt(9, record.getUserId());
+            stmt.setDate(10, Date.valueOf(recordDate.toLocalDate()));
+            stmt.setInt(11, record.getUserId());
+            stmt.setInt(12, record.getCount());
+            stmt.setInt(13, record.getCount());
+            stmt.setTimestamp(14, Timestamp.valueOf(recordDate));
+
+            rs = stmt.executeQuery();
+
+            if (!rs.next()) {
+                throw new SQLException("Failed to record pushups, no result returned");
+            }
+            record.setRecordId(rs.getInt("record_id"));
+
+            Timestamp tournamentStart = rs.getTimestamp("start_time");
+            return new PushupIngestResult(
+                    record.getRecordId(),
+                    tournamentStart != null ? rs.getInt("tournament_id") : null,
+                    tournamentStart != null ? tournamentStart.toLocalDateTime() : null,
+                    tournamentStart != null ? rs.getInt("total_pushups") : null,
+                    rs.getInt("current_streak"),
+                    rs.getInt("longest_streak"));
+        } finally {
+            if (rs != null) rs.close();
+            if (stmt != null) stmt.close();
+            if (conn != null) dbConfig.closeConnection(conn);
+        }
+    }
+
+    // Rows fetched per round trip when streaming a history
+    private static final int HISTORY_FETCH_SIZE = 500;
+
+    // Receives streamed history entries one at a time
+    public interface HistoryConsumer {
+        void accept(HistoryEntry entry) throws IOException;
+    }
+
     // Get pushup history of user (with duration)
-    public List<Map<String, Object>> getUserHistory(int userId) throws SQLException {
+    public List<HistoryEntry> getUserHistory(int userId) throws SQLException {
         String sql = "SELECT record_id, user_id, count, duration_seconds, record_date FROM pushup_records " +
-                "WHERE user_id = ? ORDER BY record_date DESC";
+                "WHERE user_id = ? ORDER BY record_date DESC, record_id DESC";
 
-        List<Map<String, Object>> records = new ArrayList<>();
+        List<HistoryEntry> records = new ArrayList<>();
 
         Connection conn = null;
         PreparedStatement stmt = null;
@@ -66,14 +188,7 @@ public class PushupRepository {
             rs = stmt.executeQuery();
 
             while (rs.next()) {
-                Map<String, Object> record = new HashMap<>();
-                record.put("recordId", rs.getInt("record_id"));
-                record.put("Name", "PushUps");
-                record.put("Count", rs.getInt("count"));
-                record.put("DurationInSeconds", rs.getInt("duration_seconds"));
-                record.put("recordDate", rs.getTimestamp("record_date").toLocalDateTime());
-
-                records.add(record);
+                records.add(mapHistoryEntry(rs));
             }
 
             return records;
@@ -84,15 +199,17 @@ public class PushupRepository {
         }
     }
 
-    // Get user stats (total pushups, average, best record)
-    public Map<String, Object> getUserStats(int userId) throws SQLException {
-        String sql = "SELECT COUNT(*) as entry_count, " +
-                "COALESCE(SUM(count), 0) as total_pushups, " +
-                "COALESCE(AVG(count), 0) as avg_pushups, " +
-                "COALESCE(MAX(count), 0) as max_pushups " +
-                "FROM pushup_records WHERE user_id = ?";
+    // One page of history, newest first, starting after the cursor (null = first page)
+    // Keyset pagination: the (user_id, record_date DESC, record_id DESC) index seeks straight to the cursor,
+    // so a deep page costs the same as the first one. The plain record_date bound (implied by the row
+    // comparison) lets Postgres skip the monthly partitions newer than the cursor
+    public List<HistoryEntry> getUserHistoryPage(int userId, HistoryCursor after, int limit) throws SQLException {
+        String sql = "SELECT record_id, user_id, count, duration_seconds, record_date FROM pushup_records " +
+                "WHERE user_id = ? " +
+                (after != null ? "AND record_date <= ? AND (record_date, record_id) < (?, ?) " : "") +
+                "ORDER BY record_date DESC, record_id DESC LIMIT ?";
 
-        Map<String, Object> stats = new HashMap<>();
+        List<HistoryEntry> records = new ArrayList<>(limit);
 
         Connection conn = null;
         PreparedStatement stmt = null;
@@ -101,29 +218,145 @@ public class PushupRepository {
         try {
             conn = dbConfig.getConnection();
             stmt = conn.prepareStatement(sql);
+            int param = 1;
+            stmt.setInt(param++, userId);
+            if (after != null) {
+                Timestamp cursorDate = Timestamp.valueOf(after.recordDate());
+                stmt.setTimestamp(param++, cursorDate);
+                stmt.setTimestamp(param++, cursorDate);
+                stmt.setInt(param++, after.recordId());
+            }
+            stmt.setInt(param, limit);
+
+            rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                records.add(mapHistoryEntry(rs));
+            }
+
+            return records;
+        } finally {
+            if (rs != null) rs.close();
+            if (stmt != null) stmt.close();
+            if (conn != null) dbConfig.closeConnection(conn);
+        }
+    }
+
+    // Whole history, newest first, handed to the consumer row by row (returns number of entries)
+    // Forward-only cursor with a fetch size: the driver holds one batch at a time instead of the full result.
+    // The Postgres driver only uses a cursor inside a transaction, so call this within a unit of work
+    public int streamUserHistory(int userId, HistoryConsumer consumer) throws SQLException, IOException {
+        String sql = "SELECT record_id, user_id, count, duration_seconds, record_date FROM pushup_records " +
+                "WHERE user_id = ? ORDER BY record_date DESC, record_id DESC";
+
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+
+        try {
+            conn = dbConfig.getConnection();
+            stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(HISTORY_FETCH_SIZE);
             stmt.setInt(1, userId);
 
             rs = stmt.executeQuery();
 
-            if (rs.next()) {
-                stats.put("entryCount", rs.getInt("entry_count"));
-                stats.put("totalPushups", rs.getInt("total_pushups"));
-                stats.put("avgPushups", rs.getDouble("avg_pushups"));
-                stats.put("maxPushups", rs.getInt("max_pushups"));
-
-                // Get user ELO from users table
-                String eloSql = "SELECT elo FROM users WHERE user_id = ?";
-                try (PreparedStatement eloStmt = conn.prepareStatement(eloSql)) {
-                    eloStmt.setInt(1, userId);
-                    try (ResultSet eloRs = eloStmt.executeQuery()) {
-                        if (eloRs.next()) {
-                            stats.put("elo", eloRs.getInt("elo"));
-                        }
-                    }
-                }
+            int count = 0;
+            while (rs.next()) {
+                consumer.accept(mapHistoryEntry(rs));
+                count++;
+            }
+            return count;
+        } finally {
+            if (rs != null) rs.close();
+            if (stmt != null) stmt.close();
+            if (conn != null) dbConfig.closeConnection(conn);
+        }
+    }
+
+    // Write the records of the given users (oldest first) to out via COPY ... TO STDOUT, returns rows written
+    // Rows pass from the server to out one at a time, nothing is collected. A failing out cancels the COPY
+    public long exportHistory(Integer[] userIds, ExportFormat format, OutputStream out)
+            throws SQLException, IOException {
+        // COPY takes no bind parameters: the ids are integers, so the literal can't carry anything else
+        StringJoiner ids = new StringJoiner(",", "'{", "}'");
+        for (Integer userId : userIds) {
+            ids.add(String.valueOf(userId.intValue()));
+        }
+        String select = "SELECT u.username, pr.count, pr.duration_seconds AS duration, pr.record_date AS date " +
+                "FROM pushup_records pr JOIN users u ON u.user_id = pr.user_id " +
+                "WHERE pr.user_id = ANY(" + ids + "::int[]) " +
+                "ORDER BY pr.user_id, pr.record_date, pr.record_id";
+        // NDJSON: text format would double the backslashes of JSON escapes. CSV with quote and delimiter
+        // characters that JSON never contains raw writes every line exactly as row_to_json produced it
+        String sql = format == ExportFormat.NDJSON
+                ? "COPY (SELECT row_to_json(r) FROM (" + select + ") r) TO STDOUT " +
+                "WITH (FORMAT csv, QUOTE E'\\x01', DELIMITER E'\\x02')"
+                : "COPY (" + select + ") TO STDOUT WITH (FORMAT csv, HEADER)";
+
+        Connection conn = null;
+        CopyOut copy = null;
+
+        try {
+            conn = dbConfig.getConnection();
+            copy = conn.unwrap(PGConnection.class).getCopyAPI().copyOut(sql);
+
+            byte[] row;
+            while ((row = copy.readFromCopy()) != null) {
+                out.write(row);
+            }
+            return copy.getHandledRowCount();
+        } finally {
+            if (copy != null && copy.isActive()) {
+                copy.cancelCopy();
+            }
+            if (conn != null) dbConfig.closeConnection(conn);
+        }
+    }
+
+    private HistoryEntry mapHistoryEntry(ResultSet rs) throws SQLException {
+        return new HistoryEntry(
+                rs.getInt("record_id"),
+                "PushUps",
+                rs.getInt("count"),
+                rs.getInt("duration_seconds"),
+                rs.getTimestamp("record_date").toLocalDateTime());
+    }
+
+    // Get user stats (total pushups, average, best record)
+    // Reads the maintained aggregate row: cost doesn't grow with the user's history
+    public UserStats getUserStats(int userId) throws SQLException {
+        String sql = "SELECT u.elo, " +
+                "COALESCE(s.entry_count, 0) as entry_count, " +
+                "COALESCE(s.total_pushups, 0) as total_pushups, " +
+                "COALESCE(s.max_pushups, 0) as max_pushups " +
+                "FROM users u LEFT JOIN user_stats s ON s.user_id = u.user_id " +
+                "WHERE u.user_id = ?";
+
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+
+        try {
+            conn = dbConfig.getConnection();
+            stmt = conn.prepareStatement(sql);
+            stmt.setInt(1, userId);
+
+            rs = stmt.executeQuery();
+
+            // Unknown user: no stats and no ELO
+            if (!rs.next()) {
+                return new UserStats(0, 0, 0, 0, null);
             }
 
-            return stats;
+            int entryCount = rs.getInt("entry_count");
+            long totalPushups = rs.getLong("total_pushups");
+            return new UserStats(
+                    entryCount,
+                    (int) totalPushups,
+                    entryCount == 0 ? 0 : (double) totalPushups / entryCount,
+                    rs.getInt("max_pushups"),
+                    rs.getInt("elo"));
         } finally {
             if (rs != null) rs.close();
             if (stmt != null) stmt.close();
@@ -1,6 +1,7 @@
 package com.seb.repository;
 
 import com.seb.config.DatabaseConfig;
+import com.seb.dto.StreakEntry;
 import com.seb.model.UserStreak;
 
 import java.sql.*;
@@ -145,16 +146,14 @@ public class StreakRepository {
         }
     }
 
-    // Get streaks of all users (for scoreboard)
-    public Map<String, Object> getStreakLeaderboard() throws SQLException {
+    // Get streaks of all users (for scoreboard), ordered by current streak
+    public List<StreakEntry> getStreakLeaderboard() throws SQLException {
         String sql = "SELECT us.user_id, u.username, us.current_streak, us.longest_streak, us.last_active " +
                 "FROM user_streaks us " +
                 "JOIN users u ON us.user_id = u.user_id " +
                 "ORDER BY us.current_streak DESC, us.longest_streak DESC";
 
-        Map<String, Object> result = new HashMap<>();
-        List<Map<String, Object>> currentStreaks = new ArrayList<>();
-        List<Map<String, Object>> longestStreaks = new ArrayList<>();
+        List<StreakEntry> streaks = new ArrayList<>();
 
         Connection conn = null;
         Statement stmt = null;
@@ -167,34 +166,52 @@ public class StreakRepository {
             rs = stmt.executeQuery(sql);
 
             while (rs.next()) {
-                Map<String, Object> streakInfo = new HashMap<>();
-                streakInfo.put("userId", rs.getInt("user_id"));
-                streakInfo.put("username", rs.getString("username"));
-                streakInfo.put("currentStreak", rs.getInt("current_streak"));
-                streakInfo.put("longestStreak", rs.getInt("longest_streak"));
-                streakInfo.put("lastActive", rs.getDate("last_active") != null ?
-                        rs.getDate("last_active").toLocalDate() : null);
-
-                currentStreaks.add(streakInfo);
+                streaks.add(new StreakEntry(
+                        rs.getInt("user_id"),
+                        rs.getString("username"),
+                        rs.getInt("current_streak"),
+                        rs.getInt("longest_streak"),
+                        rs.getDate("last_active") != null ? rs.getDate("last_active").toLocalDate() : null));
             }
 
-            // Sort for longest streaks
-            currentStreaks.sort((a, b) ->
-                    Integer.compare((Integer)b.get("longestStreak"), (Integer)a.get("longestStreak")));
+            return streaks;
+        } finally {
+            if (rs != null) rs.close();
+            if (stmt != null) stmt.close();
+            if (conn != null) dbConfig.closeConnection(conn);
+        }
+    }
 
-            // Create copy for longest streaks leaderboard
-            for (Map<String, Object> streak : currentStreaks) {
-                longestStreaks.add(new HashMap<>(streak));
-            }
+    // Recompute streaks of the given users from their records (e.g. after importing older records, which the
+    // incremental update on every post can't place). Consecutive days form a run: day minus its row number is
+    // constant within a run. Current streak is the latest run, as the incremental update would leave it.
+    // Longest never shrinks (records of detached partitions are no longer visible)
+    public int rebuildStreaks(Integer[] userIds) throws SQLException {
+        String sql = "WITH days AS (" +
+                "SELECT DISTINCT user_id, record_date::date AS day FROM pushup_records WHERE user_id = ANY(?)" +
+                "), runs AS (" +
+                "SELECT user_id, COUNT(*) AS length, MAX(day) AS last_day FROM (" +
+                "SELECT user_id, day, day - ROW_NUMBER() OVER (PARTITION BY user_id ORDER BY day)::int AS run " +
+                "FROM days) d GROUP BY user_id, run" +
+                ") " +
+                "INSERT INTO user_streaks AS s (user_id, current_streak, longest_streak, last_active) " +
+                "SELECT user_id, (ARRAY_AGG(length ORDER BY last_day DESC))[1], MAX(length), MAX(last_day) " +
+                "FROM runs GROUP BY user_id " +
+                "ON CONFLICT (user_id) DO UPDATE SET current_streak = EXCLUDED.current_streak, " +
+                "longest_streak = GREATEST(s.longest_streak, EXCLUDED.longest_streak), " +
+                "last_active = EXCLUDED.last_active";
 
-            result.put("currentStreaks", currentStreaks);
-            result.put("longestStreaks", longestStreaks);
+        Connection conn = null;
+        PreparedStatement stmt = null;
 
-            return result;
+        try {
+            conn = dbConfig.getConnection();
+            stmt = conn.prepareStatement(sql);
+            stmt.setArray(1, conn.createArrayOf("integer", userIds));
+            return stmt.executeUpdate();
         } finally {
-            if (rs != null) rs.close();
             if (stmt != null) stmt.close();
             if (conn != null) dbConfig.closeConnection(conn);
         }
     }
-}
\ No newline at end of file
+}
@@ -1,16 +1,27 @@
 package com.seb.repository;
 
 import com.seb.config.DatabaseConfig;
+import com.seb.db.UnitOfWork;
+import com.seb.dto.TournamentLogEntry;
+import com.seb.dto.TournamentSummary;
+import com.seb.dto.TournamentWinner;
 import com.seb.model.Tournament;
 import com.seb.model.TournamentParticipant;
 
 import java.sql.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 public class TournamentRepository {
+    // Same constant on every server (MigrationRunner uses 0x5EB_0001, PartitionManager 0x5EB_0002)
+    private static final long SCHEDULING_LOCK_KEY = 0x5EB_0003L;
+
+    // Work done while holding the scheduling lock
+    public interface LockedWork<T> {
+        T run() throws SQLException;
+    }
+
     private final DatabaseConfig dbConfig;
 
     public TournamentRepository() {
@@ -19,9 +30,15 @@ public class TournamentRepository {
 
     // Create new tournament
     public Tournament createTournament() throws SQLException {
+        return createTournament(LocalDateTime.now());
+    }
+
+    // Create tournament starting at given time (the scheduler creates the next one ahead of time)
+    public Tournament createTournament(LocalDateTime startTime) throws SQLException {
         String sql = "INSERT INTO tournaments (start_time, status) VALUES (?, ?) RETURNING tournament_id";
 
         Tournament tournament = new Tournament();
+        tournament.setStartTime(startTime);
 
         Connection conn = null;
         PreparedStatement stmt = null;
@@ -48,11 +65,61 @@ public class TournamentRepository {
         }
     }
 
+    // All ACTIVE tournaments (running, expired but not settled yet, or created ahead), oldest first
+    public List<Tournament> getActiveTournaments() throws SQLException {
+        String sql = "SELECT tournament_id, start_time, status FROM tournaments " +
+                "WHERE status = 'ACTIVE' ORDER BY start_time";
+
+        List<Tournament> tournaments = new ArrayList<>();
+
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+
+        try {
+            conn = dbConfig.getConnection();
+            stmt = conn.prepareStatement(sql);
+
+            rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                tournaments.add(new Tournament(
+                        rs.getInt("tournament_id"),
+                        rs.getTimestamp("start_time").toLocalDateTime(),
+                        rs.getString("status")));
+            }
+            return tournaments;
+        } finally {
+            if (rs != null) rs.close();
+            if (stmt != null) stmt.close();
+            if (conn != null) dbConfig.closeConnection(conn);
+        }
+    }
+
+    // Run work in one transaction holding the tournament scheduling lock, so settling and creating
+    // tournaments never runs twice at once (other servers' schedulers, request-path fallback)
+    public <T> T withSchedulingLock(LockedWork<T> work) throws SQLException {
+        try (UnitOfWork unitOfWork = dbConfig.beginWork()) {
+            Connection conn = dbConfig.getConnection();
+            try (Statement stmt = conn.createStatement()) {
+                // Released at commit/rollback
+                stmt.execute("SELECT pg_advisory_xact_lock(" + SCHEDULING_LOCK_KEY + ")");
+            } finally {
+                dbConfig.closeConnection(conn);
+            }
+            T result = work.run();
+            unitOfWork.commit();
+            return result;
+        }
+    }
+
     // Get active tournament/create new one
     public Tournament getOrCreateActiveTournament() throws SQLException {
-        // Try to find active tournament
+        // Try to find active tournament (that has started, the next one may already exist)
+        // Normally TournamentScheduler has settled expired tournaments and created the next one,
+        // completing and creating here is only the fallback
         String sql = "SELECT tournament_id, start_time, status FROM tournaments " +
-                "WHERE status = 'ACTIVE' ORDER BY start_time DESC LIMIT 1";
+                "WHERE status = 'ACTIVE' AND start_time <= ? ORDER BY start_time DESC LIMIT 1";
 
         Connection conn = null;
         PreparedStatement stmt = null;
@@ -61,6 +128,7 @@ public class TournamentRepository {
         try {
             conn = dbConfig.getConnection();
             stmt = conn.prepareStatement(sql);
+            stmt.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
 
             rs = stmt.executeQuery();
 
@@ -71,20 +139,58 @@ public class TournamentRepository {
                         rs.getString("status")
                 );
 
-                // Check if tournament is expired
-                if (tournament.isExpired()) {
-                    // Complete tournament and create a new one
-                    completeTournament(tournament.getTournamentId());
-                    return createTournament();
+                if (!tournament.isExpired()) {
+                    // Load participants (same connection)
+                    loadTournamentParticipants(conn, tournament);
+                    return tournament;
                 }
+            }
+        } finally {
+            if (rs != null) rs.close();
+            if (stmt != null) stmt.close();
+            if (conn != null) dbConfig.closeConnection(conn);
+        }
 
-                // Load participants
-                loadTournamentParticipants(tournament);
-                return tournament;
+        // Expired or none: settle and create under the lock (the scheduler may be doing it right now)
+        Tournament running = withSchedulingLock(() -> settleAndGetRunning(LocalDateTime.now()));
+        loadParticipants(running);
+        return running;
+    }
+
+    // Settle expired tournaments (empty ones are dropped), return the running one (created if there is none),
+    // caller holds the lock
+    private Tournament settleAndGetRunning(LocalDateTime now) throws SQLException {
+        Tournament running = null;
+        for (Tournament tournament : getActiveTournaments()) {
+            if (tournament.getStartTime().isAfter(now)) {
+                break;
+            }
+            if (now.isAfter(tournament.getStartTime().plus(Tournament.DURATION))) {
+                if (!dropEmptyTournament(tournament.getTournamentId())) {
+                    completeTournament(tournament.getTournamentId());
+                }
             } else {
-                // No active tournament -> create new one
-                return createTournament();
+                running = tournament;
             }
+        }
+        return running != null ? running : createTournament(now);
+    }
+
+    // True if anybody joined the tournament
+    public boolean hasParticipants(int tournamentId) throws SQLException {
+        String sql = "SELECT EXISTS (SELECT 1 FROM tournament_participants WHERE tournament_id = ?)";
+
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+
+        try {
+            conn = dbConfig.getConnection();
+            stmt = conn.prepareStatement(sql);
+            stmt.setInt(1, tournamentId);
+
+            rs = stmt.executeQuery();
+            return rs.next() && rs.getBoolean(1);
         } finally {
             if (rs != null) rs.close();
             if (stmt != null) stmt.close();
@@ -92,102 +198,141 @@ public class TournamentRepository {
         }
     }
 
-    // Add participant to tournament
-    public TournamentParticipant addParticipant(int tournamentId, int userId, int pushupCount) throws SQLException {
-        // Check if user is already a participant
-        String checkSql = "SELECT total_pushups FROM tournament_participants WHERE tournament_id = ? AND user_id = ?";
+    // Delete an expired ACTIVE tournament nobody joined instead of completing it (no ranking, no log lines)
+    // Returns false if it has participants or is settled already
+    // Caller holds the scheduling lock (one transaction): the row lock waits for ingests still adding to the
+    // tournament and is kept until commit, so the participant check that follows sees what they added
+    public boolean dropEmptyTournament(int tournamentId) throws SQLException {
+        String lockSql = "SELECT tournament_id FROM tournaments " +
+                "WHERE tournament_id = ? AND status = 'ACTIVE' FOR UPDATE";
+        String deleteSql = "DELETE FROM tournaments t WHERE t.tournament_id = ? " +
+                "AND NOT EXISTS (SELECT 1 FROM tournament_participants tp WHERE tp.tournament_id = t.tournament_id)";
 
         Connection conn = null;
-        PreparedStatement checkStmt = null;
-        ResultSet checkRs = null;
 
         try {
             conn = dbConfig.getConnection();
-            checkStmt = conn.prepareStatement(checkSql);
-            checkStmt.setInt(1, tournamentId);
-            checkStmt.setInt(2, userId);
-
-            checkRs = checkStmt.executeQuery();
+            try (PreparedStatement stmt = conn.prepareStatement(lockSql)) {
+                stmt.setInt(1, tournamentId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (!rs.next()) {
+                        return false;
+                    }
+                }
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(deleteSql)) {
+                stmt.setInt(1, tournamentId);
+                return stmt.executeUpdate() > 0;
+            }
+        } finally {
+            if (conn != null) dbConfig.closeConnection(conn);
+        }
+    }
 
-            if (checkRs.next()) {
-                // User already exists -> update pushup count
-                int currentTotal = checkRs.getInt("total_pushups");
-                int newTotal = currentTotal + pushupCount;
+    private void loadParticipants(Tournament tournament) throws SQLException {
+        Connection conn = null;
+        try {
+            conn = dbConfig.getConnection();
+            loadTournamentParticipants(conn, tournament);
+        } finally {
+            if (conn != null) dbConfig.closeConnection(conn);
+        }
+    }
 
-                String updateSql = "UPDATE tournament_participants SET total_pushups = ? " +
-                        "WHERE tournament_id = ? AND user_id = ?";
+    // Add participant to tournament (or add pushups to existing participant)
+    // Single upsert: concurrent posts of the same user add up instead of overwriting each other
+    public TournamentParticipant addParticipant(int tournamentId, int userId, int pushupCount) throws SQLException {
+        String sql = "WITH part AS (" +
+                "INSERT INTO tournament_participants (tournament_id, user_id, total_pushups) VALUES (?, ?, ?) " +
+                "ON CONFLICT (tournament_id, user_id) " +
+                "DO UPDATE SET total_pushups = tournament_participants.total_pushups + EXCLUDED.total_pushups " +
+                "RETURNING total_pushups" +
+                ") SELECT part.total_pushups, u.username FROM part LEFT JOIN users u ON u.user_id = ?";
 
-                try (PreparedStatement updateStmt = conn.prepareStatement(updateSql)) {
-                    updateStmt.setInt(1, newTotal);
-                    updateStmt.setInt(2, tournamentId);
-                    updateStmt.setInt(3, userId);
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
 
-                    int rows = updateStmt.executeUpdate();
-                    if (rows != 1) {
-                        throw new SQLException("Failed to update tournament participant");
-                    }
+        try {
+            conn = dbConfig.getConnection();
+            stmt = conn.prepareStatement(sql);
+            stmt.setInt(1, tournamentId);
+            stmt.setInt(2, userId);
+            stmt.setInt(3, pushupCount);
+            stmt.setInt(4, userId);
 
-                    // Get username for display
-                    String username = getUsernameById(conn, userId);
-                    return new TournamentParticipant(tournamentId, userId, newTotal, username);
-                }
-            } else {
-                // New participant -> insert record
-                String insertSql = "INSERT INTO tournament_participants (tournament_id, user_id, total_pushups) " +
-                        "VALUES (?, ?, ?)";
-
-                try (PreparedStatement insertStmt = conn.prepareStatement(insertSql)) {
-                    insertStmt.setInt(1, tournamentId);
-                    insertStmt.setInt(2, userId);
-                    insertStmt.setInt(3, pushupCount);
-
-                    int rows = insertStmt.executeUpdate();
-                    if (rows != 1) {
-                        throw new SQLException("Failed to add tournament participant");
-                    }
+            rs = stmt.executeQuery();
 
-                    // Get username for display
-                    String username = getUsernameById(conn, userId);
-                    return new TournamentParticipant(tournamentId, userId, pushupCount, username);
-                }
+            if (!rs.next()) {
+                throw new SQLException("Failed to add tournament participant");
             }
+            String username = rs.getString("username");
+            return new TournamentParticipant(tournamentId, userId, rs.getInt("total_pushups"),
+                    username != null ? username : "Unknown");
         } finally {
-            if (checkRs != null) checkRs.close();
-            if (checkStmt != null) checkStmt.close();
+            if (rs != null) rs.close();
+            if (stmt != null) stmt.close();
             if (conn != null) dbConfig.closeConnection(conn);
         }
     }
 
+    // Participants ranked (rank 1 = winner, ties share it): +2 for one winner, +1 each for a tie, losers -1
+    // ELO update and log lines (in ranking order, log_id follows insert order) are written by the statement,
+    // the result is only the winners
+    private static final String SETTLE_PARTICIPANTS_SQL = "WITH ranked AS (" +
+            "SELECT tp.user_id, u.username, tp.total_pushups, " +
+            "RANK() OVER (ORDER BY tp.total_pushups DESC) AS place, " +
+            "ROW_NUMBER() OVER (ORDER BY tp.total_pushups DESC, tp.user_id) AS position " +
+            "FROM tournament_participants tp " +
+            "JOIN users u ON tp.user_id = u.user_id " +
+            "WHERE tp.tournament_id = ?" +
+            "), deltas AS (" +
+            "SELECT r.user_id, r.username, r.total_pushups, r.place, r.position, " +
+            "CASE WHEN r.place > 1 THEN -1 WHEN w.winners = 1 THEN 2 ELSE 1 END AS change " +
+            "FROM ranked r CROSS JOIN (SELECT COUNT(*) AS winners FROM ranked WHERE place = 1) w" +
+            "), elo AS (" +
+            "UPDATE users u SET elo = u.elo + d.change FROM deltas d WHERE u.user_id = d.user_id" +
+            "), logged AS (" +
+            "INSERT INTO logs (tournament_id, message) " +
+            "SELECT ?, 'User ' || d.username || ' scored ' || d.total_pushups || ' pushups and ' || " +
+            "CASE WHEN d.change >= 0 THEN 'gained ' ELSE 'lost ' END || abs(d.change) || ' ELO points.' " +
+            "FROM deltas d ORDER BY d.position" +
+            ") " +
+            "SELECT user_id, username, total_pushups FROM deltas WHERE place = 1 ORDER BY position";
+
     // Complete tournament (and update elo)
+    // Set-based: a fixed number of statements however many participants (no per-user SELECT/UPDATE/INSERT,
+    // no participant rows sent to Java), so the transaction holds its row locks only for a few milliseconds
     public void completeTournament(int tournamentId) throws SQLException {
         Connection conn = null;
 
         try {
             conn = dbConfig.getConnection();
             // Set autocommit to false for transaction
+            // (inside a unit of work commit and rollback are left to the unit of work)
             conn.setAutoCommit(false);
 
-            // Mark tournament as completed
-            String updateTournamentSql = "UPDATE tournaments SET status = 'COMPLETED' WHERE tournament_id = ?";
+            // Mark tournament as completed (only once: a concurrent completion must not apply ELO twice)
+            String updateTournamentSql = "UPDATE tournaments SET status = 'COMPLETED' " +
+                    "WHERE tournament_id = ? AND status = 'ACTIVE'";
             try (PreparedStatement stmt = conn.prepareStatement(updateTournamentSql)) {
                 stmt.setInt(1, tournamentId);
-                stmt.executeUpdate();
+                if (stmt.executeUpdate() == 0) {
+                    conn.commit();
+                    return;
+                }
             }
 
-            // Get all participants
-            List<TournamentParticipant> participants = new ArrayList<>();
-            String getParticipantsSql = "SELECT tp.tournament_id, tp.user_id, tp.total_pushups, u.username " +
-                    "FROM tournament_participants tp " +
-                    "JOIN users u ON tp.user_id = u.user_id " +
-                    "WHERE tournament_id = ? " +
-                    "ORDER BY total_pushups DESC";
-
-            try (PreparedStatement stmt = conn.prepareStatement(getParticipantsSql)) {
+            // Ranking, ELO changes and one log line per participant in a single statement: participant rows
+            // never leave the database, only the winners come back for the summary line
+            List<TournamentParticipant> winners = new ArrayList<>();
+            try (PreparedStatement stmt = conn.prepareStatement(SETTLE_PARTICIPANTS_SQL)) {
                 stmt.setInt(1, tournamentId);
+                stmt.setInt(2, tournamentId);
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
-                        participants.add(new TournamentParticipant(
-                                rs.getInt("tournament_id"),
+                        winners.add(new TournamentParticipant(
+                                tournamentId,
                                 rs.getInt("user_id"),
                                 rs.getInt("total_pushups"),
                                 rs.getString("username")
@@ -196,68 +341,24 @@ public class TournamentRepository {
                 }
             }
 
-            // If there are participants -> update ELO scores
-            if (!participants.isEmpty()) {
-                // Determine winners (highest pushup count)
-                int highestCount = participants.get(0).getTotalPushups();
-                List<Integer> winnerIds = new ArrayList<>();
-
-                for (TournamentParticipant p : participants) {
-                    if (p.getTotalPushups() == highestCount) {
-                        winnerIds.add(p.getUserId());
-                    }
-                }
-
-                // Update ELO scores
-                for (TournamentParticipant p : participants) {
-                    int userId = p.getUserId();
-                    int currentElo = getCurrentElo(conn, userId);
-                    int eloChange;
-
-                    if (winnerIds.contains(userId)) {
-                        // Winners
-                        eloChange = winnerIds.size() == 1 ? 2 : 1; // +2 for one winner and +1 for tie
-                    } else {
-                        // Losers
-                        eloChange = -1;
-                    }
-
-                    updateElo(conn, userId, currentElo + eloChange);
-
-                    // Add log entry
-                    addLogEntry(conn, tournamentId,
-                            "User " + p.getUsername() + " scored " + p.getTotalPushups() +
-                                    " pushups and " + (eloChange >= 0 ? "gained " : "lost ") +
-                                    Math.abs(eloChange) + " ELO points.");
-                }
-
-                // Add tournament summary log
-                if (winnerIds.size() == 1) {
-                    String winnerName = participants.get(0).getUsername();
-                    addLogEntry(conn, tournamentId,
-                            "Tournament completed. Winner: " + winnerName +
-                                    " with " + highestCount + " pushups.");
-                } else {
-                    StringBuilder winnerNames = new StringBuilder();
-                    for (int i = 0; i < winnerIds.size(); i++) {
-                        int winnerId = winnerIds.get(i);
-                        for (TournamentParticipant p : participants) {
-                            if (p.getUserId() == winnerId) {
-                                winnerNames.append(p.getUsername());
-                                if (i < winnerIds.size() - 1) {
-                                    winnerNames.append(", ");
-                                }
-                                break;
-                            }
-                        }
+            String summary;
+            if (winners.isEmpty()) {
+                summary = "Tournament completed with no participants.";
+            } else if (winners.size() == 1) {
+                summary = "Tournament completed. Winner: " + winners.get(0).getUsername() +
+                        " with " + winners.get(0).getTotalPushups() + " pushups.";
+            } else {
+                StringBuilder winnerNames = new StringBuilder();
+                for (int i = 0; i < winners.size(); i++) {
+                    if (i > 0) {
+                        winnerNames.append(", ");
                     }
-                    addLogEntry(conn, tournamentId,
-                            "Tournament completed. It's a tie between: " + winnerNames.toString() +
-                                    " with " + highestCount + " pushups each.");
+                    winnerNames.append(winners.get(i).getUsername());
                 }
-            } else {
-                addLogEntry(conn, tournamentId, "Tournament completed with no participants.");
+                summary = "Tournament completed. It's a tie between: " + winnerNames +
+                        " with " + winners.get(0).getTotalPushups() + " pushups each.";
             }
+            addLogEntry(conn, tournamentId, summary);
 
             // Commit transaction
             conn.commit();
@@ -285,86 +386,31 @@ public class TournamentRepository {
     }
 
     // Load tournament participants
-    private void loadTournamentParticipants(Tournament tournament) throws SQLException {
+    private void loadTournamentParticipants(Connection conn, Tournament tournament) throws SQLException {
         String sql = "SELECT tp.tournament_id, tp.user_id, tp.total_pushups, u.username " +
                 "FROM tournament_participants tp " +
                 "JOIN users u ON tp.user_id = u.user_id " +
                 "WHERE tp.tournament_id = ? " +
                 "ORDER BY tp.total_pushups DESC";
 
-        Connection conn = null;
-        PreparedStatement stmt = null;
-        ResultSet rs = null;
-
-        try {
-            conn = dbConfig.getConnection();
-            stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, tournament.getTournamentId());
-
-            rs = stmt.executeQuery();
-
-            while (rs.next()) {
-                TournamentParticipant participant = new TournamentParticipant(
-                        rs.getInt("tournament_id"),
-                        rs.getInt("user_id"),
-                        rs.getInt("total_pushups"),
-                        rs.getString("username")
-                );
-                tournament.addParticipant(participant);
-            }
-        } finally {
-            if (rs != null) rs.close();
-            if (stmt != null) stmt.close();
-            if (conn != null) dbConfig.closeConnection(conn);
-        }
-    }
-
-    // Get username by user ID
-    private String getUsernameById(Connection conn, int userId) throws SQLException {
-        String sql = "SELECT username FROM users WHERE user_id = ?";
-
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, userId);
-
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getString("username");
-                } else {
-                    return "Unknown";
-                }
-            }
-        }
-    }
-
-    // Get current elo of user
-    private int getCurrentElo(Connection conn, int userId) throws SQLException {
-        String sql = "SELECT elo FROM users WHERE user_id = ?";
-
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, userId);
+            stmt.setInt(1, tournament.getTournamentId());
 
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt("elo");
-                } else {
-                    throw new SQLException("User not found");
+                while (rs.next()) {
+                    TournamentParticipant participant = new TournamentParticipant(
+                            rs.getInt("tournament_id"),
+                            rs.getInt("user_id"),
+                            rs.getInt("total_pushups"),
+                            rs.getString("username")
+                    );
+                    tournament.addParticipant(participant);
                 }
             }
         }
     }
 
-    // Update elo of user
-    private void updateElo(Connection conn, int userId, int newElo) throws SQLException {
-        String sql = "UPDATE users SET elo = ? WHERE user_id = ?";
-
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, newElo);
-            stmt.setInt(2, userId);
-            stmt.executeUpdate();
-        }
-    }
-
-    // Add log entry
+    // Insert one log entry (written after the participant lines, so it comes last)
     private void addLogEntry(Connection conn, int tournamentId, String message) throws SQLException {
         String sql = "INSERT INTO logs (tournament_id, message) VALUES (?, ?)";
 
@@ -376,11 +422,11 @@ public class TournamentRepository {
     }
 
     // Get tournament logs
-    public List<Map<String, Object>> getTournamentLogs(int tournamentId) throws SQLException {
+    public List<TournamentLogEntry> getTournamentLogs(int tournamentId) throws SQLException {
         String sql = "SELECT log_id, tournament_id, message, log_time FROM logs " +
-                "WHERE tournament_id = ? ORDER BY log_time";
+                "WHERE tournament_id = ? ORDER BY log_time, log_id";
 
-        List<Map<String, Object>> logs = new ArrayList<>();
+        List<TournamentLogEntry> logs = new ArrayList<>();
 
         Connection conn = null;
         PreparedStatement stmt = null;
@@ -394,13 +440,11 @@ public class TournamentRepository {
             rs = stmt.executeQuery();
 
             while (rs.next()) {
-                Map<String, Object> log = new HashMap<>();
-                log.put("logId", rs.getInt("log_id"));
-                log.put("tournamentId", rs.getInt("tournament_id"));
-                log.put("message", rs.getString("message"));
-                log.put("logTime", rs.getTimestamp("log_time").toLocalDateTime());
-
-                logs.add(log);
+                logs.add(new TournamentLogEntry(
+                        rs.getInt("log_id"),
+                        rs.getInt("tournament_id"),
+                        rs.getString("message"),
+                        rs.getTimestamp("log_time").toLocalDateTime()));
             }
 
             return logs;
@@ -412,12 +456,12 @@ public class TournamentRepository {
     }
 
     // Get recent tournaments
-    public List<Map<String, Object>> getRecentTournaments(int limit) throws SQLException {
+    public List<TournamentSummary> getRecentTournaments(int limit) throws SQLException {
         String sql = "SELECT t.tournament_id, t.start_time, t.status, " +
                 "(SELECT COUNT(*) FROM tournament_participants tp WHERE tp.tournament_id = t.tournament_id) as participant_count " +
-                "FROM tournaments t ORDER BY t.start_time DESC LIMIT ?";
+                "FROM tournaments t WHERE t.start_time <= ? ORDER BY t.start_time DESC LIMIT ?";
 
-        List<Map<String, Object>> tournaments = new ArrayList<>();
+        List<TournamentSummary> tournaments = new ArrayList<>();
 
         Connection conn = null;
         PreparedStatement stmt = null;
@@ -426,25 +470,28 @@ public class TournamentRepository {
         try {
             conn = dbConfig.getConnection();
             stmt = conn.prepareStatement(sql);
-            stmt.setInt(1, limit);
+            // Tournaments created ahead of time are not listed before they start
+            stmt.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
+            stmt.setInt(2, limit);
 
             rs = stmt.executeQuery();
 
             while (rs.next()) {
-                Map<String, Object> tournament = new HashMap<>();
                 int tournamentId = rs.getInt("tournament_id");
-
-                tournament.put("tournamentId", tournamentId);
-                tournament.put("startTime", rs.getTimestamp("start_time").toLocalDateTime());
-                tournament.put("status", rs.getString("status"));
-                tournament.put("participantCount", rs.getInt("participant_count"));
+                String status = rs.getString("status");
 
                 // Get tournament winners
-                if ("COMPLETED".equals(rs.getString("status"))) {
-                    tournament.put("winners", getTournamentWinners(conn, tournamentId));
+                List<TournamentWinner> winners = null;
+                if ("COMPLETED".equals(status)) {
+                    winners = getTournamentWinners(conn, tournamentId);
                 }
 
-                tournaments.add(tournament);
+                tournaments.add(new TournamentSummary(
+                        tournamentId,
+                        rs.getTimestamp("start_time").toLocalDateTime(),
+                        status,
+                        rs.getInt("participant_count"),
+                        winners));
             }
 
             return tournaments;
@@ -456,14 +503,14 @@ public class TournamentRepository {
     }
 
     // Get tournament winners
-    private List<Map<String, Object>> getTournamentWinners(Connection conn, int tournamentId) throws SQLException {
+    private List<TournamentWinner> getTournamentWinners(Connection conn, int tournamentId) throws SQLException {
         String sql = "SELECT tp.user_id, u.username, tp.total_pushups " +
                 "FROM tournament_participants tp " +
                 "JOIN users u ON tp.user_id = u.user_id " +
                 "WHERE tp.tournament_id = ? " +
                 "ORDER BY tp.total_pushups DESC";
 
-        List<Map<String, Object>> winners = new ArrayList<>();
+        List<TournamentWinner> winners = new ArrayList<>();
 
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, tournamentId);
@@ -473,21 +520,13 @@ public class TournamentRepository {
                     int highestCount = rs.getInt("total_pushups");
 
                     // Add first winner
-                    Map<String, Object> winner = new HashMap<>();
-                    winner.put("userId", rs.getInt("user_id"));
-                    winner.put("username", rs.getString("username"));
-                    winner.put("pushups", highestCount);
-                    winners.add(winner);
+                    winners.add(new TournamentWinner(rs.getInt("user_id"), rs.getString("username"), highestCount));
 
                     // Check for ties
                     while (rs.next()) {
                         int count = rs.getInt("total_pushups");
                         if (count == highestCount) {
-                            winner = new HashMap<>();
-                            winner.put("userId", rs.getInt("user_id"));
-                            winner.put("username", rs.getString("username"));
-                            winner.put("pushups", count);
-                            winners.add(winner);
+                            winners.add(new TournamentWinner(rs.getInt("user_id"), rs.getString("username"), count));
                         } else {
                             break;
                         }
@@ -1,14 +1,24 @@
 package com.seb.repository;
 
 import com.seb.config.DatabaseConfig;
+import com.seb.config.ServerConfig;
+import com.seb.dto.ScoreboardEntry;
 import com.seb.model.User;
 import com.seb.model.UserProfile;
+import com.seb.security.TokenCache;
 
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.*;
 
 public class UserRepository {
+    // Usernames per findUserIds query
+    private static final int LOOKUP_BATCH = 10_000;
+    // Shared by all repository instances (null if disabled)
+    private static final TokenCache TOKEN_CACHE = TokenCache.fromConfig();
+    // Lifetime of a login session row (same setting as signed tokens)
+    private static final long SESSION_TTL_SECONDS = ServerConfig.getLong("auth.tokenTtlSeconds", 86_400);
+
     private final DatabaseConfig dbConfig;
 
     public UserRepository() {
@@ -80,60 +90,110 @@ public class UserRepository {
         }
     }
 
-    // Create auth token
-    public String createAuthToken(int userId, String username) throws SQLException {
-
-        String token = username + "-sebToken";
+    // user_id of every known username (unknown ones are left out), one query per LOOKUP_BATCH names
+    public Map<String, Integer> findUserIds(Collection<String> usernames) throws SQLException {
+        String sql = "SELECT user_id, username FROM users WHERE username = ANY(?)";
+        Map<String, Integer> userIds = new HashMap<>();
+        List<String> names = new ArrayList<>(usernames);
 
         Connection conn = null;
-        PreparedStatement checkStmt = null;
-        PreparedStatement deleteStmt = null;
-        PreparedStatement insertStmt = null;
-        ResultSet rs = null;
+        PreparedStatement stmt = null;
 
         try {
             conn = dbConfig.getConnection();
+            stmt = conn.prepareStatement(sql);
+            for (int from = 0; from < names.size(); from += LOOKUP_BATCH) {
+                List<String> batch = names.subList(from, Math.min(names.size(), from + LOOKUP_BATCH));
+                stmt.setArray(1, conn.createArrayOf("text", batch.toArray()));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        userIds.put(rs.getString("username"), rs.getInt("user_id"));
+                    }
+                }
+            }
+            return userIds;
+        } finally {
+            if (stmt != null) stmt.close();
+            if (conn != null) dbConfig.closeConnection(conn);
+        }
+    }
 
-            // Check if token already exists
-            String checkSQL = "SELECT token FROM auth_tokens WHERE user_id = ? OR token = ?";
-            checkStmt = conn.prepareStatement(checkSQL);
-            checkStmt.setInt(1, userId);
-            checkStmt.setString(2, token);
-            rs = checkStmt.executeQuery();
+    // Create (or renew) the legacy auth token of a user, other sessions of the user stay valid
+    public String createAuthToken(int userId, String username) throws SQLException {
+        String token = username + "-sebToken";
+        createSession(userId, token);
+        return token;
+    }
 
-            // If token exists, delete it
-            if (rs.next()) {
-                String deleteSql = "DELETE FROM auth_tokens WHERE user_id = ? OR token = ?";
-                deleteStmt = conn.prepareStatement(deleteSql);
-                deleteStmt.setInt(1, userId);
-                deleteStmt.setString(2, token);
-                deleteStmt.executeUpdate();
-            }
+    // Store a login session in one round trip: a new row per token, the same token is renewed in place
+    public void createSession(int userId, String token) throws SQLException {
+        String sql = "INSERT INTO auth_tokens (user_id, token, created_at, expires_at) " +
+                "VALUES (?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP + make_interval(secs => ?)) " +
+                "ON CONFLICT (token) DO UPDATE SET user_id = EXCLUDED.user_id, " +
+                "created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at";
 
-            // Insert new token
-            String insertSql = "INSERT INTO auth_tokens (user_id, token) VALUES (?, ?)";
-            insertStmt = conn.prepareStatement(insertSql);
-            insertStmt.setInt(1, userId);
-            insertStmt.setString(2, token);
+        Connection conn = null;
+        PreparedStatement stmt = null;
 
-            int rowsAffected = insertStmt.executeUpdate();
-            if (rowsAffected == 1) {
-                return token;
-            } else {
+        try {
+            conn = dbConfig.getConnection();
+            stmt = conn.prepareStatement(sql);
+            stmt.setInt(1, userId);
+            stmt.setString(2, token);
+            stmt.setLong(3, SESSION_TTL_SECONDS);
+
+            if (stmt.executeUpdate() != 1) {
                 throw new SQLException("Failed to create auth token");
             }
         } finally {
-            if (rs != null) rs.close();
-            if (checkStmt != null) checkStmt.close();
-            if (deleteStmt != null) deleteStmt.close();
-            if (insertStmt != null) insertStmt.close();
+            if (stmt != null) stmt.close();
             if (conn != null) dbConfig.closeConnection(conn);
         }
+
+        // Token may be remembered as invalid (or for a deleted user of the same name)
+        if (TOKEN_CACHE != null) {
+            TOKEN_CACHE.invalidate(token);
+        }
     }
 
-    // Validate token
+    // Delete up to batchSize expired sessions (oldest first), returns how many were deleted
+    // Rows locked by a concurrent sweep are skipped, not waited for
+    public int deleteExpiredSessions(int batchSize) throws SQLException {
+        String sql = "DELETE FROM auth_tokens WHERE token IN (" +
+                "SELECT token FROM auth_tokens WHERE expires_at <= CURRENT_TIMESTAMP " +
+                "ORDER BY expires_at LIMIT ? FOR UPDATE SKIP LOCKED)";
+
+        Connection conn = null;
+        PreparedStatement stmt = null;
+
+        try {
+            conn = dbConfig.getConnection();
+            stmt = conn.prepareStatement(sql);
+            stmt.setInt(1, batchSize);
+            return stmt.executeUpdate();
+        } finally {
+            if (stmt != null) stmt.close();
+            if (conn != null) dbConfig.closeConnection(conn);
+        }
+    }
+
+    // Validate token (answered from TOKEN_CACHE when possible)
     public Optional<Integer> validateToken(String token) throws SQLException {
-        String sql = "SELECT user_id FROM auth_tokens WHERE token = ?";
+        if (TOKEN_CACHE == null) {
+            return loadToken(token);
+        }
+        Optional<Integer> cached = TOKEN_CACHE.get(token);
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = TOKEN_CACHE.stamp(token);
+        Optional<Integer> userId = loadToken(token);
+        TOKEN_CACHE.put(token, userId, stamp);
+        return userId;
+    }
+
+    private Optional<Integer> loadToken(String token) throws SQLException {
+        String sql = "SELECT user_id FROM auth_tokens WHERE token = ? AND expires_at > CURRENT_TIMESTAMP";
 
         Connection conn = null;
         PreparedStatement stmt = null;
@@ -274,6 +334,27 @@ public class UserRepository {
         }
     }
 
+    // Replace the password hash, only if it is still the one that was verified (false if it changed meanwhile)
+    public boolean updatePasswordHash(int userId, String oldHash, String newHash) throws SQLException {
+        String sql = "UPDATE users SET password_hash = ? WHERE user_id = ? AND password_hash = ?";
+
+        Connection conn = null;
+        PreparedStatement stmt = null;
+
+        try {
+            conn = dbConfig.getConnection();
+            stmt = conn.prepareStatement(sql);
+            stmt.setString(1, newHash);
+            stmt.setInt(2, userId);
+            stmt.setString(3, oldHash);
+
+            return stmt.executeUpdate() == 1;
+        } finally {
+            if (stmt != null) stmt.close();
+            if (conn != null) dbConfig.closeConnection(conn);
+        }
+    }
+
     public void updateElo(int userId, int newElo) throws SQLException {
         String sql = "UPDATE users SET elo = ? WHERE user_id = ?";
 
@@ -297,13 +378,15 @@ public class UserRepository {
     }
 
     // Get all users for scoreboard
-    public List<Map<String, Object>> getScoreboard() throws SQLException {
+    public List<ScoreboardEntry> getScoreboard() throws SQLException {
+        // Totals come from the maintained user_stats rows (no aggregation over pushup_records)
         String sql = "SELECT u.user_id, u.username, u.elo, " +
-                "(SELECT COUNT(*) FROM pushup_records pr WHERE pr.user_id = u.user_id) as total_entries, " +
-                "(SELECT COALESCE(SUM(count), 0) FROM pushup_records pr WHERE pr.user_id = u.user_id) as total_pushups " +
-                "FROM users u ORDER BY u.elo DESC";
+                "COALESCE(s.entry_count, 0) as total_entries, " +
+                "COALESCE(s.total_pushups, 0) as total_pushups " +
+                "FROM users u LEFT JOIN user_stats s ON s.user_id = u.user_id " +
+                "ORDER BY u.elo DESC";
 
-        List<Map<String, Object>> scoreboard = new ArrayList<>();
+        List<ScoreboardEntry> scoreboard = new ArrayList<>();
 
         Connection conn = null;
         Statement stmt = null;
@@ -316,14 +399,12 @@ public class UserRepository {
             rs = stmt.executeQuery(sql);
 
             while (rs.next()) {
-                Map<String, Object> entry = new HashMap<>();
-                entry.put("userId", rs.getInt("user_id"));
-                entry.put("username", rs.getString("username"));
-                entry.put("elo", rs.getInt("elo"));
-                entry.put("totalEntries", rs.getInt("total_entries"));
-                entry.put("totalPushups", rs.getInt("total_pushups"));
-
-                scoreboard.add(entry);
+                scoreboard.add(new ScoreboardEntry(
+                        rs.getInt("user_id"),
+                        rs.getString("username"),
+                        rs.getInt("elo"),
+                        rs.getInt("total_entries"),
+                        rs.getInt("total_pushups")));
             }
 
             return scoreboard;
@@ -0,0 +1,76 @@
+package com.seb.scheduler;
+
+import com.seb.config.ServerConfig;
+import com.seb.metrics.Metrics;
+import com.seb.repository.UserRepository;
+
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Deletes expired login sessions (auth_tokens rows) in the background, so login never has to
+// Each batch is its own short statement: row locks are held briefly and logins are not blocked behind a big delete
+public class SessionSweeper {
+    private final UserRepository repository;
+    private final int batchSize;
+    private final long intervalMillis;
+    private final ScheduledExecutorService executor;
+
+    private final LongAdder swept = Metrics.counter("auth.sessions.swept");
+    private final LongAdder failures = Metrics.counter("auth.sessions.sweepFailures");
+
+    public SessionSweeper(UserRepository repository, int batchSize, long intervalMillis) {
+        this.repository = repository;
+        this.batchSize = batchSize;
+        this.intervalMillis = intervalMillis;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "seb-session-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // --auth.sessionSweeper.intervalMillis=60000 --auth.sessionSweeper.batchSize=1000 (interval <= 0 disables -> null)
+    public static SessionSweeper fromConfig() {
+        long intervalMillis = ServerConfig.getLong("auth.sessionSweeper.intervalMillis", 60_000);
+        if (intervalMillis <= 0) {
+            return null;
+        }
+        return new SessionSweeper(new UserRepository(),
+                Math.max(1, ServerConfig.getInt("auth.sessionSweeper.batchSize", 1_000)), intervalMillis);
+    }
+
+    public void start() {
+        executor.scheduleWithFixedDelay(this::tick, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    private void tick() {
+        try {
+            runOnce();
+        } catch (SQLException | RuntimeException e) {
+            failures.increment();
+            System.err.println("Session sweeper failed: " + e.getMessage());
+        }
+    }
+
+    // Delete batches until a batch comes back short, returns how many sessions were deleted
+    int runOnce() throws SQLException {
+        int total = 0;
+        int deleted;
+        do {
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+            deleted = repository.deleteExpiredSessions(batchSize);
+            swept.add(deleted);
+            total += deleted;
+        } while (deleted == batchSize);
+        return total;
+    }
+}
@@ -0,0 +1,137 @@
+package com.seb.scheduler;
+
+import com.seb.config.ServerConfig;
+import com.seb.metrics.Metrics;
+import com.seb.model.Tournament;
+import com.seb.repository.TournamentRepository;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Settles tournaments the moment they expire and keeps the next one ready while people are playing,
+// off the request path (getOrCreateActiveTournament's completion is the fallback)
+// Without traffic nothing is created: as before the scheduler, the first post starts a tournament
+public class TournamentScheduler {
+    private final TournamentRepository repository;
+    // Wait after a database error before trying again
+    private final long retryMillis;
+    // Check interval while no tournament is running or nobody has joined the running one yet
+    private final long idleMillis;
+    private final ScheduledExecutorService executor;
+
+    private final LongAdder completed = Metrics.counter("tournament.scheduler.completed");
+    private final LongAdder dropped = Metrics.counter("tournament.scheduler.dropped");
+    private final LongAdder created = Metrics.counter("tournament.scheduler.created");
+    private final LongAdder failures = Metrics.counter("tournament.scheduler.failures");
+    // Time from expiry to the end of the last settlement
+    private final AtomicLong lastSettleLagMillis = new AtomicLong();
+
+    public TournamentScheduler(TournamentRepository repository, long retryMillis, long idleMillis) {
+        this.repository = repository;
+        this.retryMillis = retryMillis;
+        this.idleMillis = Math.max(1, idleMillis);
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "seb-tournament-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Metrics.gauge("tournament.scheduler.lastSettleLagMillis", lastSettleLagMillis::get);
+    }
+
+    // --tournament.scheduler.enabled=true --tournament.scheduler.retryMillis=5000 (null if disabled)
+    // --tournament.scheduler.idleMillis=5000
+    public static TournamentScheduler fromConfig() {
+        if (!ServerConfig.getBoolean("tournament.scheduler.enabled", true)) {
+            return null;
+        }
+        return new TournamentScheduler(new TournamentRepository(),
+                ServerConfig.getLong("tournament.scheduler.retryMillis", 5_000),
+                ServerConfig.getLong("tournament.scheduler.idleMillis", 5_000));
+    }
+
+    public void start() {
+        executor.execute(this::tick);
+    }
+
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    private void tick() {
+        long delayMillis;
+        try {
+            delayMillis = runOnce(LocalDateTime.now());
+        } catch (SQLException | RuntimeException e) {
+            failures.increment();
+            System.err.println("Tournament scheduler failed: " + e.getMessage());
+            delayMillis = retryMillis;
+        }
+        if (!executor.isShutdown()) {
+            executor.schedule(this::tick, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Settle expired tournaments (empty ones are dropped), create the next tournament once the running one has
+    // participants. Returns milliseconds until the next run is due
+    // Runs under the scheduling lock: with several servers only one settles and creates at a time,
+    // the others then find the work done
+    long runOnce(LocalDateTime now) throws SQLException {
+        return repository.withSchedulingLock(() -> settle(now));
+    }
+
+    private long settle(LocalDateTime now) throws SQLException {
+        Tournament current = null;
+        Tournament next = null;
+
+        for (Tournament tournament : repository.getActiveTournaments()) {
+            LocalDateTime end = tournament.getStartTime().plus(Tournament.DURATION);
+            if (now.isAfter(end)) {
+                // Nobody joined: nothing to rank, no log lines, not listed as a past tournament
+                if (repository.dropEmptyTournament(tournament.getTournamentId())) {
+                    dropped.increment();
+                    continue;
+                }
+                repository.completeTournament(tournament.getTournamentId());
+                completed.increment();
+                lastSettleLagMillis.set(Duration.between(end, LocalDateTime.now()).toMillis());
+            } else if (!tournament.getStartTime().isAfter(now)) {
+                current = tournament;
+            } else if (next == null) {
+                next = tournament;
+            }
+        }
+
+        if (current == null) {
+            // Idle: the next post starts a tournament (request path), a pre-created one starts by itself
+            if (next != null) {
+                return Math.min(idleMillis, millisUntil(next.getStartTime()));
+            }
+            return idleMillis;
+        }
+
+        LocalDateTime currentEnd = current.getStartTime().plus(Tournament.DURATION);
+        // isExpired() flips once the end has passed
+        long untilEnd = millisUntil(currentEnd);
+        if (next != null) {
+            return untilEnd;
+        }
+        if (!repository.hasParticipants(current.getTournamentId())) {
+            // Look again before it ends: once somebody joins, the next one gets created in time
+            return Math.min(idleMillis, untilEnd);
+        }
+        // Starts the moment the current one expires, so there is no gap while people are playing
+        repository.createTournament(currentEnd);
+        created.increment();
+        return untilEnd;
+    }
+
+    private static long millisUntil(LocalDateTime time) {
+        return Math.max(1, Duration.between(LocalDateTime.now(), time).toMillis() + 1);
+    }
+}
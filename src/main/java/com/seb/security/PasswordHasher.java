@@ -0,0 +1,104 @@
+package com.seb.security;
+
+import com.seb.config.ServerConfig;
+import com.seb.metrics.Metrics;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Runs the deliberately slow password hashing on a few dedicated threads with a bounded queue
+// A login burst then uses at most `threads` cores, request threads stay free for everything else.
+// Hashing beyond threads + queue is rejected right away (RejectedExecutionException -> 503)
+public class PasswordHasher {
+    private final ThreadPoolExecutor executor;
+    private final int queueLimit;
+    private final long timeoutMillis;
+
+    private final LongAdder rejected = Metrics.counter("auth.hashing.rejected");
+    private final LongAdder timeouts = Metrics.counter("auth.hashing.timeouts");
+
+    public PasswordHasher(int threads, int queueLimit, long timeoutMillis) {
+        this.queueLimit = Math.max(1, queueLimit);
+        this.timeoutMillis = timeoutMillis;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(this.queueLimit), task -> {
+            Thread thread = new Thread(task, "seb-password-" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+
+        Metrics.gauge("auth.hashing.active", executor::getActiveCount);
+        Metrics.gauge("auth.hashing.queue", () -> executor.getQueue().size());
+    }
+
+    // --auth.hashing.threads=<cores / 2> --auth.hashing.queue=32 --auth.hashing.timeoutMillis=5000
+    public static PasswordHasher fromConfig() {
+        int defaultThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new PasswordHasher(Math.max(1, ServerConfig.getInt("auth.hashing.threads", defaultThreads)),
+                ServerConfig.getInt("auth.hashing.queue", 32),
+                ServerConfig.getLong("auth.hashing.timeoutMillis", 5_000));
+    }
+
+    public String hash(String password) {
+        return await(() -> PasswordUtil.hashPassword(password));
+    }
+
+    public boolean verify(String password, String storedHash) {
+        return await(() -> PasswordUtil.verifyPassword(password, storedHash));
+    }
+
+    // Background work (rehash after login): only taken while the queue is at most half full, false if dropped
+    // Login and registration always keep the other half
+    public boolean runLater(Runnable task) {
+        if (executor.getQueue().size() >= queueLimit / 2) {
+            return false;
+        }
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T await(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timeouts.increment();
+            throw new RejectedExecutionException("Password hashing timed out");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
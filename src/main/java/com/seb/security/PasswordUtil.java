@@ -1,56 +1,100 @@
 package com.seb.security;
 
+import com.seb.config.ServerConfig;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.util.Base64;
 
+// Password hashes: "pbkdf2-sha256:<iterations>:<salt>:<hash>" (PBKDF2-HMAC-SHA256)
+// Hashes of the old "<salt>:<hash>" format (one salted SHA-256) still verify, needsRehash() reports them
+// Deliberately slow (tens of milliseconds): call through PasswordHasher on request paths
 public class PasswordUtil {
+    private static final String PREFIX = "pbkdf2-sha256";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+
+    // --auth.pbkdf2.iterations=310000 (changing it rehashes every password on its next login)
+    public static final int ITERATIONS = Math.max(1, ServerConfig.getInt("auth.pbkdf2.iterations", 310_000));
+
+    // Thread-safe, seeding once is the expensive part
+    private static final SecureRandom RANDOM = new SecureRandom();
 
     // Hash password with salt
     public static String hashPassword(String password) {
-        try {
-            // Generate random salt
-            SecureRandom random = new SecureRandom();
-            byte[] salt = new byte[16];
-            random.nextBytes(salt);
-
-            // Hash password with salt
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            md.update(salt);
-            byte[] hashedPassword = md.digest(password.getBytes());
+        return hashPassword(password, ITERATIONS);
+    }
 
-            // Store salt and hashed password
-            String saltBase64 = Base64.getEncoder().encodeToString(salt);
-            String hashBase64 = Base64.getEncoder().encodeToString(hashedPassword);
+    public static String hashPassword(String password, int iterations) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        byte[] hash = pbkdf2(password, salt, iterations);
 
-            return saltBase64 + ":" + hashBase64;
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("Failed to hash password", e);
-        }
+        Base64.Encoder encoder = Base64.getEncoder();
+        return PREFIX + ":" + iterations + ":" + encoder.encodeToString(salt) + ":" + encoder.encodeToString(hash);
     }
 
     // Verify password against stored hash
     public static boolean verifyPassword(String password, String storedHash) {
         try {
-            // Split into salt and hash
             String[] parts = storedHash.split(":");
-            if (parts.length != 2) {
+            if (parts.length == 2) {
+                return verifyLegacy(password, parts);
+            }
+            if (parts.length != 4 || !PREFIX.equals(parts[0])) {
                 return false;
             }
 
+            int iterations = Integer.parseInt(parts[1]);
+            byte[] salt = Base64.getDecoder().decode(parts[2]);
+            byte[] hash = Base64.getDecoder().decode(parts[3]);
+            if (iterations < 1) {
+                return false;
+            }
+
+            // Compare hashes
+            return MessageDigest.isEqual(hash, pbkdf2(password, salt, iterations));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    // Stored hash was made with other parameters than configured (or the old format): hash again after login
+    public static boolean needsRehash(String storedHash) {
+        String[] parts = storedHash.split(":");
+        return parts.length != 4 || !PREFIX.equals(parts[0]) || !parts[1].equals(String.valueOf(ITERATIONS));
+    }
+
+    private static byte[] pbkdf2(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    // Old format: salt and SHA-256(salt + password)
+    private static boolean verifyLegacy(String password, String[] parts) {
+        try {
             byte[] salt = Base64.getDecoder().decode(parts[0]);
             byte[] hash = Base64.getDecoder().decode(parts[1]);
 
-            // Hash provided password with same salt
             MessageDigest md = MessageDigest.getInstance("SHA-256");
             md.update(salt);
-            byte[] passwordHash = md.digest(password.getBytes());
+            byte[] passwordHash = md.digest(password.getBytes(StandardCharsets.UTF_8));
 
-            // Compare hashes
             return MessageDigest.isEqual(hash, passwordHash);
-        } catch (NoSuchAlgorithmException | IllegalArgumentException e) {
-            return false;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,165 @@
+package com.seb.security;
+
+import com.seb.config.ServerConfig;
+import com.seb.metrics.Metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// In-process token -> user id cache in front of auth_tokens (every authenticated request looks its token up)
+// Lock-striped LRU maps with a TTL. Unknown tokens are remembered in a separate, shorter-lived region,
+// so a flood of invalid tokens is answered from memory and only ever evicts other invalid tokens
+public final class TokenCache {
+    private static final int STRIPES = 16;
+
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    private final LongAdder hits = Metrics.counter("auth.tokenCache.hits");
+    private final LongAdder negativeHits = Metrics.counter("auth.tokenCache.negativeHits");
+    private final LongAdder misses = Metrics.counter("auth.tokenCache.misses");
+    private final LongAdder evictions = Metrics.counter("auth.tokenCache.evictions");
+    private final LongAdder invalidations = Metrics.counter("auth.tokenCache.invalidations");
+
+    public TokenCache(int maxSize, long ttlMillis, int maxNegative, long negativeTtlMillis) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.negativeTtlNanos = TimeUnit.MILLISECONDS.toNanos(negativeTtlMillis);
+        int perStripe = Math.max(1, (maxSize + STRIPES - 1) / STRIPES);
+        int negativePerStripe = Math.max(1, (maxNegative + STRIPES - 1) / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(perStripe, negativePerStripe);
+        }
+        Metrics.gauge("auth.tokenCache.size", this::size);
+    }
+
+    // --auth.tokenCache.maxSize=10000 --auth.tokenCache.ttlMillis=60000 (maxSize <= 0 disables the cache -> null)
+    // --auth.tokenCache.negativeMaxSize=10000 --auth.tokenCache.negativeTtlMillis=5000
+    public static TokenCache fromConfig() {
+        int maxSize = ServerConfig.getInt("auth.tokenCache.maxSize", 10_000);
+        if (maxSize <= 0) {
+            return null;
+        }
+        return new TokenCache(maxSize,
+                ServerConfig.getLong("auth.tokenCache.ttlMillis", 60_000),
+                Math.max(1, ServerConfig.getInt("auth.tokenCache.negativeMaxSize", 10_000)),
+                ServerConfig.getLong("auth.tokenCache.negativeTtlMillis", 5_000));
+    }
+
+    // Cached result: user id, Optional.empty() for a known invalid token, null if not cached (look it up)
+    public Optional<Integer> get(String token) {
+        return get(token, System.nanoTime());
+    }
+
+    Optional<Integer> get(String token, long now) {
+        Stripe stripe = stripe(token);
+        synchronized (stripe) {
+            Entry entry = stripe.valid.get(token);
+            if (entry != null && now - entry.expiresAt < 0) {
+                hits.increment();
+                return Optional.of(entry.userId);
+            }
+            if (entry != null) {
+                stripe.valid.remove(token);
+            }
+
+            Entry negative = stripe.invalid.get(token);
+            if (negative != null && now - negative.expiresAt < 0) {
+                negativeHits.increment();
+                return Optional.empty();
+            }
+            if (negative != null) {
+                stripe.invalid.remove(token);
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    // Take before reading the database, hand to put(): a result read before an invalidation is not cached
+    public long stamp(String token) {
+        Stripe stripe = stripe(token);
+        synchronized (stripe) {
+            return stripe.invalidations;
+        }
+    }
+
+    // Remember a database result (empty = token does not exist)
+    public void put(String token, Optional<Integer> userId, long stamp) {
+        put(token, userId, stamp, System.nanoTime());
+    }
+
+    void put(String token, Optional<Integer> userId, long stamp, long now) {
+        Stripe stripe = stripe(token);
+        synchronized (stripe) {
+            if (stripe.invalidations != stamp) {
+                return;
+            }
+            if (userId.isPresent()) {
+                stripe.invalid.remove(token);
+                stripe.valid.put(token, new Entry(userId.get(), now + ttlNanos));
+            } else {
+                stripe.valid.remove(token);
+                stripe.invalid.put(token, new Entry(0, now + negativeTtlNanos));
+            }
+        }
+    }
+
+    // Token was created, replaced or deleted: the next lookup goes to the database
+    public void invalidate(String token) {
+        Stripe stripe = stripe(token);
+        synchronized (stripe) {
+            stripe.invalidations++;
+            stripe.valid.remove(token);
+            stripe.invalid.remove(token);
+        }
+        invalidations.increment();
+    }
+
+    // Number of cached tokens (valid and invalid)
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.valid.size() + stripe.invalid.size();
+            }
+        }
+        return size;
+    }
+
+    private Stripe stripe(String token) {
+        int hash = token.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    private class Stripe {
+        private final Map<String, Entry> valid;
+        private final Map<String, Entry> invalid;
+        private long invalidations;
+
+        Stripe(int maxValid, int maxInvalid) {
+            this.valid = lru(maxValid);
+            this.invalid = lru(maxInvalid);
+        }
+    }
+
+    // Access-ordered map that drops the least recently used entry once it is full
+    private Map<String, Entry> lru(int maxSize) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= maxSize) {
+                    return false;
+                }
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    private record Entry(int userId, long expiresAt) {
+    }
+}
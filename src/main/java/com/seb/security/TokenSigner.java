@@ -0,0 +1,171 @@
+package com.seb.security;
+
+import com.seb.config.ServerConfig;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.regex.Pattern;
+
+// Stateless session tokens: "<keyId>.<payload>.<signature>", checked without a database round trip
+// payload = base64url("userId|expiresAt|username"), signature = base64url(HMAC-SHA256("<keyId>.<payload>"))
+// Several keys can be configured: the first one signs, the others are still accepted (key rotation)
+public class TokenSigner {
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Pattern KEY_ID = Pattern.compile("[A-Za-z0-9_-]{1,32}");
+    private static final int MIN_KEY_BYTES = 32;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public record Claims(int userId, String username, long expiresAt) {
+    }
+
+    private final String signingKeyId;
+    private final Map<String, Key> keys = new LinkedHashMap<>();
+    private final long ttlSeconds;
+
+    // keys: key id -> secret, the first entry signs new tokens
+    public TokenSigner(Map<String, byte[]> secrets, long ttlSeconds) {
+        if (secrets.isEmpty()) {
+            throw new IllegalArgumentException("At least one signing key is required");
+        }
+        secrets.forEach((id, secret) -> {
+            if (!KEY_ID.matcher(id).matches()) {
+                throw new IllegalArgumentException("Invalid signing key id: " + id);
+            }
+            if (secret.length < MIN_KEY_BYTES) {
+                throw new IllegalArgumentException("Signing key " + id + " must have at least " + MIN_KEY_BYTES + " bytes");
+            }
+            keys.put(id, new Key(secret));
+        });
+        this.signingKeyId = secrets.keySet().iterator().next();
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    // --auth.signingKeys=<id>:<base64 secret>,<id>:<base64 secret> (first one signs, the others only verify)
+    // --auth.tokenTtlSeconds=86400 --auth.signedTokens=true (false keeps issuing legacy tokens -> null)
+    // Without keys startup fails: a random key would log everybody out on restart and not work on other servers
+    // (--auth.allowRandomKey=true accepts that for development and tests)
+    public static TokenSigner fromConfig() {
+        if (!ServerConfig.getBoolean("auth.signedTokens", true)) {
+            return null;
+        }
+        long ttlSeconds = ServerConfig.getLong("auth.tokenTtlSeconds", 86_400);
+        String config = ServerConfig.getString("auth.signingKeys", "");
+
+        Map<String, byte[]> secrets = new LinkedHashMap<>();
+        for (String entry : config.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int colon = entry.indexOf(':');
+            if (colon < 0) {
+                throw new IllegalArgumentException("auth.signingKeys entry must be <id>:<base64 secret>");
+            }
+            secrets.put(entry.substring(0, colon).trim(), Base64.getDecoder().decode(entry.substring(colon + 1).trim()));
+        }
+        if (secrets.isEmpty()) {
+            if (!ServerConfig.getBoolean("auth.allowRandomKey", false)) {
+                throw new IllegalStateException("No --auth.signingKeys configured "
+                        + "(--auth.allowRandomKey=true for development, --auth.signedTokens=false for legacy tokens)");
+            }
+            System.err.println("No --auth.signingKeys configured, signing tokens with a random development key");
+            byte[] secret = new byte[MIN_KEY_BYTES];
+            new SecureRandom().nextBytes(secret);
+            secrets.put("local", secret);
+        }
+        return new TokenSigner(secrets, ttlSeconds);
+    }
+
+    public String issue(int userId, String username) {
+        return issue(userId, username, System.currentTimeMillis() / 1000);
+    }
+
+    String issue(int userId, String username, long nowSeconds) {
+        String payload = userId + "|" + (nowSeconds + ttlSeconds) + "|" + username;
+        String signed = signingKeyId + "." + ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return signed + "." + ENCODER.encodeToString(keys.get(signingKeyId).sign(signed));
+    }
+
+    // Claims of a well-formed, correctly signed and unexpired token, otherwise empty
+    public Optional<Claims> verify(String token) {
+        return verify(token, System.currentTimeMillis() / 1000);
+    }
+
+    Optional<Claims> verify(String token, long nowSeconds) {
+        int first = token.indexOf('.');
+        int second = token.indexOf('.', first + 1);
+        if (first <= 0 || second < 0 || token.indexOf('.', second + 1) >= 0) {
+            return Optional.empty();
+        }
+        Key key = keys.get(token.substring(0, first));
+        if (key == null) {
+            return Optional.empty();
+        }
+
+        try {
+            byte[] signature = DECODER.decode(token.substring(second + 1));
+            byte[] expected = key.sign(token.substring(0, second));
+            if (!MessageDigest.isEqual(signature, expected)) {
+                return Optional.empty();
+            }
+
+            // Signature is valid, so the payload is ours
+            String payload = new String(DECODER.decode(token.substring(first + 1, second)), StandardCharsets.UTF_8);
+            int bar = payload.indexOf('|');
+            int secondBar = payload.indexOf('|', bar + 1);
+            long expiresAt = Long.parseLong(payload, bar + 1, secondBar, 10);
+            if (nowSeconds >= expiresAt) {
+                return Optional.empty();
+            }
+            return Optional.of(new Claims(Integer.parseInt(payload, 0, bar, 10),
+                    payload.substring(secondBar + 1), expiresAt));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            return Optional.empty();
+        }
+    }
+
+    // Mac instances are not thread-safe and slow to create: initialized ones are pooled per key
+    private static class Key {
+        private final SecretKeySpec spec;
+        private final Queue<Mac> macs = new ConcurrentLinkedQueue<>();
+
+        Key(byte[] secret) {
+            this.spec = new SecretKeySpec(secret, ALGORITHM);
+        }
+
+        byte[] sign(String data) {
+            Mac mac = macs.poll();
+            try {
+                if (mac == null) {
+                    mac = newMac();
+                }
+                return mac.doFinal(data.getBytes(StandardCharsets.US_ASCII));
+            } finally {
+                if (mac != null) {
+                    macs.offer(mac);
+                }
+            }
+        }
+
+        private Mac newMac() {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(spec);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(ALGORITHM + " not available", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.seb.server;
+
+import com.seb.RequestHandler;
+import com.seb.http.HttpRequest;
+import com.seb.http.KeepAlive;
+import com.seb.http.RequestTooLargeException;
+import com.seb.http.ResponseWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channel;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+// Selector thread doing all socket I/O for its connections, routing runs on the worker pool
+public class EventLoop implements Runnable {
+    // How often idle connections are checked
+    private static final long IDLE_CHECK_MILLIS = 1000;
+
+    private final Selector selector;
+    private final ExecutorService workers;
+    private final int maxRequestBytes;
+    private final KeepAlive keepAlive;
+
+    // Work handed over from other threads (new connections, finished responses)
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean running;
+    private long lastIdleCheck;
+
+    public EventLoop(ExecutorService workers, int maxRequestBytes, KeepAlive keepAlive) throws IOException {
+        this.selector = Selector.open();
+        this.workers = workers;
+        this.maxRequestBytes = maxRequestBytes;
+        this.keepAlive = keepAlive;
+        this.running = true;
+    }
+
+    // Hand over accepted connection (called by acceptor thread)
+    public void register(SocketChannel channel) {
+        execute(() -> {
+            try {
+                channel.configureBlocking(false);
+                SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                key.attach(new NioConnection(channel, key, maxRequestBytes));
+            } catch (IOException e) {
+                System.err.println("Error registering client channel: " + e.getMessage());
+                closeQuietly(channel);
+            }
+        });
+    }
+
+    // Run task on event loop thread
+    private void execute(Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                selector.select(IDLE_CHECK_MILLIS);
+
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    task.run();
+                }
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+
+                    NioConnection connection = (NioConnection) key.attachment();
+                    if (connection == null || !key.isValid()) {
+                        continue;
+                    }
+
+                    try {
+                        if (key.isReadable()) {
+                            onReadable(connection);
+                        } else if (key.isWritable()) {
+                            onWritable(connection);
+                        }
+                    } catch (IOException e) {
+                        // Client went away
+                        connection.close();
+                    }
+                }
+
+                closeIdleConnections();
+            } catch (ClosedSelectorException e) {
+                break;
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println("Error in event loop: " + e.getMessage());
+                }
+            }
+        }
+        shutdown();
+    }
+
+    private void onReadable(NioConnection connection) throws IOException {
+        try {
+            if (connection.read() < 0) {
+                connection.close();
+                return;
+            }
+        } catch (RequestTooLargeException e) {
+            respondError(connection, 413, "Payload Too Large", e.getMessage());
+            return;
+        }
+        dispatch(connection);
+    }
+
+    // Submit next complete request in read buffer to worker pool (if there is one)
+    private void dispatch(NioConnection connection) {
+        HttpRequest request;
+        try {
+            request = connection.parseRequest();
+        } catch (RequestTooLargeException e) {
+            respondError(connection, 413, "Payload Too Large", e.getMessage());
+            return;
+        } catch (IllegalArgumentException e) {
+            respondError(connection, 400, "Bad Request", e.getMessage());
+            return;
+        }
+
+        if (request == null) {
+            // Wait for more bytes
+            connection.getKey().interestOps(SelectionKey.OP_READ);
+            return;
+        }
+
+        boolean keepOpen = keepAlive.keepOpen(request, connection.incrementServed());
+
+        // Stop reading while worker handles request (pipelined requests wait in buffer -> answered in order)
+        connection.getKey().interestOps(0);
+        connection.setProcessing(true);
+
+        // Worker streams the response to this loop, which writes it as the socket accepts it
+        NioResponseStream out = connection.openStream(new NioResponseStream(
+                segment -> execute(() -> sendSegment(connection, segment)), keepAlive.getIdleTimeoutMillis()));
+        try {
+            workers.submit(() -> {
+                boolean reuse = false;
+                try {
+                    ResponseWriter writer = new ResponseWriter(out, keepOpen, request.supportsChunked());
+                    new RequestHandler().handle(request, writer);
+                    boolean complete = !writer.hasFailed();
+                    try {
+                        out.flush();
+                    } catch (IOException e) {
+                        complete = false;
+                    }
+                    // Broken response (e.g. chunked body cut off by an error) ends the connection,
+                    // so does a body the client reads until close (HTTP/1.0)
+                    reuse = writer.isKeepAlive() && complete;
+                } finally {
+                    // Also after an Error or a failing 500 fallback: otherwise the connection stays
+                    // in processing with no interest ops and is never read, written or idle-closed
+                    boolean reuseConnection = reuse;
+                    execute(() -> finishResponse(connection, reuseConnection));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            if (workers.isShutdown()) {
+                connection.close();
+                return;
+            }
+            // Queue full: answer right away instead of letting client wait
+            WorkerPool.SHED_QUEUE_FULL.increment();
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            new ResponseWriter(bytes, false).sendRetryLater(503, "Service Unavailable",
+                    WorkerPool.RETRY_AFTER_SECONDS, "Server busy, please retry later");
+            respond(connection, bytes.toByteArray(), false);
+        }
+    }
+
+    private void onWritable(NioConnection connection) {
+        writeResponse(connection);
+    }
+
+    // Next segment of the worker's response (on event loop thread)
+    private void sendSegment(NioConnection connection, ByteBuffer segment) {
+        if (!connection.getKey().isValid()) {
+            return;
+        }
+        connection.queue(segment);
+        writeResponse(connection);
+    }
+
+    // Worker is done with the response (on event loop thread)
+    private void finishResponse(NioConnection connection, boolean keepOpen) {
+        connection.setProcessing(false);
+        if (!connection.getKey().isValid()) {
+            return;
+        }
+        connection.completeResponse(keepOpen);
+        writeResponse(connection);
+    }
+
+    // Complete response built on the event loop thread (errors, shedding)
+    private void respond(NioConnection connection, byte[] response, boolean keepOpen) {
+        connection.setProcessing(false);
+        if (!connection.getKey().isValid()) {
+            return;
+        }
+        connection.setResponse(response, keepOpen);
+        writeResponse(connection);
+    }
+
+    private void writeResponse(NioConnection connection) {
+        try {
+            if (connection.write()) {
+                responseWritten(connection);
+            } else if (connection.hasPending()) {
+                // Socket buffer full, continue when writable
+                connection.getKey().interestOps(SelectionKey.OP_WRITE);
+            } else {
+                // Everything written so far, wait for the worker's next segment
+                connection.getKey().interestOps(0);
+            }
+        } catch (IOException e) {
+            connection.close();
+        }
+    }
+
+    private void respondError(NioConnection connection, int statusCode, String statusText, String message) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new ResponseWriter(bytes, false).send(statusCode, statusText, "text/plain", message);
+        respond(connection, bytes.toByteArray(), false);
+    }
+
+    // Response fully written: close or continue with next request on connection
+    private void responseWritten(NioConnection connection) {
+        if (!connection.isKeepAliveAfterWrite()) {
+            connection.close();
+            return;
+        }
+        connection.resetResponse();
+        connection.consumeRequest();
+        dispatch(connection);
+    }
+
+    // Close connections without traffic for longer than keep-alive timeout
+    private void closeIdleConnections() {
+        long now = System.currentTimeMillis();
+        if (now - lastIdleCheck < IDLE_CHECK_MILLIS) {
+            return;
+        }
+        lastIdleCheck = now;
+
+        for (SelectionKey key : selector.keys()) {
+            NioConnection connection = (NioConnection) key.attachment();
+            if (connection != null && key.isValid() && !connection.isProcessing()
+                    && now - connection.getLastActivity() > keepAlive.getIdleTimeoutMillis()) {
+                connection.close();
+            }
+        }
+    }
+
+    public void stop() {
+        running = false;
+        selector.wakeup();
+    }
+
+    // Close all connections and selector (on event loop thread)
+    private void shutdown() {
+        for (SelectionKey key : selector.keys()) {
+            closeQuietly(key.channel());
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            System.err.println("Error closing selector: " + e.getMessage());
+        }
+    }
+
+    private static void closeQuietly(Channel channel) {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.seb.server;
+
+import com.seb.config.ServerConfig;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+// Listening socket setup: number of acceptor threads, SO_REUSEPORT, backlog and per-connection options
+public class ListenerSettings {
+    private final int acceptors;
+    private final boolean reusePort;
+    private final int backlog;
+    private final boolean tcpNoDelay;
+    // 0 = operating system default
+    private final int receiveBufferSize;
+    private final int sendBufferSize;
+
+    public ListenerSettings(int acceptors, boolean reusePort, int backlog, boolean tcpNoDelay,
+                            int receiveBufferSize, int sendBufferSize) {
+        this.acceptors = Math.max(1, acceptors);
+        this.reusePort = reusePort;
+        this.backlog = backlog;
+        this.tcpNoDelay = tcpNoDelay;
+        this.receiveBufferSize = receiveBufferSize;
+        this.sendBufferSize = sendBufferSize;
+    }
+
+    // One acceptor, OS defaults except TCP_NODELAY (responses are written in one piece anyway)
+    public static ListenerSettings defaults() {
+        return new ListenerSettings(1, true, 0, true, 0, 0);
+    }
+
+    // --server.acceptors=1 --server.reusePort=true --server.backlog=1024 --server.tcpNoDelay=true
+    // --server.receiveBufferSize=0 --server.sendBufferSize=0
+    public static ListenerSettings fromConfig() {
+        return new ListenerSettings(
+                ServerConfig.getInt("server.acceptors", 1),
+                ServerConfig.getBoolean("server.reusePort", true),
+                ServerConfig.getInt("server.backlog", 1024),
+                ServerConfig.getBoolean("server.tcpNoDelay", true),
+                ServerConfig.getInt("server.receiveBufferSize", 0),
+                ServerConfig.getInt("server.sendBufferSize", 0));
+    }
+
+    // One listening channel per acceptor if SO_REUSEPORT is available (kernel balances new connections),
+    // otherwise a single channel all acceptors share
+    public List<ServerSocketChannel> openChannels(int port) throws IOException {
+        List<ServerSocketChannel> channels = new ArrayList<>();
+        try {
+            ServerSocketChannel first = ServerSocketChannel.open();
+            channels.add(first);
+            boolean separate = useReusePort(first.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT));
+            bind(first, port, separate);
+
+            // Port 0: the others must join the port the first one got
+            int boundPort = first.socket().getLocalPort();
+            for (int i = 1; separate && i < acceptors; i++) {
+                ServerSocketChannel channel = ServerSocketChannel.open();
+                channels.add(channel);
+                bind(channel, boundPort, true);
+            }
+            return channels;
+        } catch (IOException e) {
+            for (ServerSocketChannel channel : channels) {
+                channel.close();
+            }
+            throw e;
+        }
+    }
+
+    // Same for blocking server sockets
+    public List<ServerSocket> openSockets(int port) throws IOException {
+        List<ServerSocket> sockets = new ArrayList<>();
+        try {
+            ServerSocket first = new ServerSocket();
+            sockets.add(first);
+            boolean separate = useReusePort(first.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT));
+            bind(first, port, separate);
+
+            int boundPort = first.getLocalPort();
+            for (int i = 1; separate && i < acceptors; i++) {
+                ServerSocket socket = new ServerSocket();
+                sockets.add(socket);
+                bind(socket, boundPort, true);
+            }
+            return sockets;
+        } catch (IOException e) {
+            for (ServerSocket socket : sockets) {
+                socket.close();
+            }
+            throw e;
+        }
+    }
+
+    private boolean useReusePort(boolean supported) {
+        if (acceptors > 1 && reusePort && !supported) {
+            System.out.println("SO_REUSEPORT not supported, " + acceptors + " acceptors share one listening socket");
+        }
+        return acceptors > 1 && reusePort && supported;
+    }
+
+    private void bind(ServerSocketChannel channel, int port, boolean reuse) throws IOException {
+        if (reuse) {
+            channel.setOption(StandardSocketOptions.SO_REUSEPORT, true);
+        }
+        if (receiveBufferSize > 0) {
+            // Set before bind so accepted sockets can use a large TCP window
+            channel.setOption(StandardSocketOptions.SO_RCVBUF, receiveBufferSize);
+        }
+        channel.bind(new InetSocketAddress(port), backlog);
+    }
+
+    private void bind(ServerSocket socket, int port, boolean reuse) throws IOException {
+        if (reuse) {
+            socket.setOption(StandardSocketOptions.SO_REUSEPORT, true);
+        }
+        if (receiveBufferSize > 0) {
+            socket.setReceiveBufferSize(receiveBufferSize);
+        }
+        socket.bind(new InetSocketAddress(port), backlog);
+    }
+
+    // Options of each accepted connection
+    public void configure(SocketChannel channel) throws IOException {
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, tcpNoDelay);
+        if (sendBufferSize > 0) {
+            channel.setOption(StandardSocketOptions.SO_SNDBUF, sendBufferSize);
+        }
+    }
+
+    public void configure(Socket socket) throws IOException {
+        socket.setTcpNoDelay(tcpNoDelay);
+        if (sendBufferSize > 0) {
+            socket.setSendBufferSize(sendBufferSize);
+        }
+    }
+
+    public int getAcceptors() {
+        return acceptors;
+    }
+}
@@ -0,0 +1,146 @@
+package com.seb.server;
+
+import com.seb.http.HttpRequest;
+import com.seb.http.HttpRequestParser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+
+// State of one client connection in the NIO server (only touched by its event loop thread)
+class NioConnection {
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final HttpRequestParser parser;
+
+    // Response bytes waiting for the socket (segments of the worker's stream, or one complete response)
+    private final ArrayDeque<ByteBuffer> pending = new ArrayDeque<>();
+    // Worker's stream of the response in progress (null for responses of the event loop itself)
+    private NioResponseStream stream;
+    // Worker is done, nothing follows the pending bytes
+    private boolean responseComplete;
+
+    private boolean keepAliveAfterWrite;
+    private boolean processing;
+    private int served;
+    private long lastActivity;
+
+    NioConnection(SocketChannel channel, SelectionKey key, int maxRequestBytes) {
+        this.channel = channel;
+        this.key = key;
+        this.parser = new HttpRequestParser(maxRequestBytes);
+        parser.setRemoteAddress(channel.socket().getInetAddress().getHostAddress());
+        this.lastActivity = System.currentTimeMillis();
+    }
+
+    SocketChannel getChannel() {
+        return channel;
+    }
+
+    SelectionKey getKey() {
+        return key;
+    }
+
+    // Read available bytes, returns -1 if client closed connection
+    int read() throws IOException {
+        lastActivity = System.currentTimeMillis();
+        return channel.read(parser.writableBuffer());
+    }
+
+    // Try to parse a complete request from bytes read so far (null if more bytes are needed)
+    HttpRequest parseRequest() {
+        return parser.parse();
+    }
+
+    // Remove answered request from read buffer (keeps bytes of pipelined requests)
+    void consumeRequest() {
+        parser.consume();
+    }
+
+    // Stream the worker writes the next response into
+    NioResponseStream openStream(NioResponseStream stream) {
+        this.stream = stream;
+        return stream;
+    }
+
+    void queue(ByteBuffer segment) {
+        pending.add(segment);
+    }
+
+    // Last bytes of the response are queued
+    void completeResponse(boolean keepAlive) {
+        this.responseComplete = true;
+        this.keepAliveAfterWrite = keepAlive;
+    }
+
+    void setResponse(byte[] response, boolean keepAlive) {
+        queue(ByteBuffer.wrap(response));
+        completeResponse(keepAlive);
+    }
+
+    // Ready for the next request
+    void resetResponse() {
+        pending.clear();
+        stream = null;
+        responseComplete = false;
+    }
+
+    boolean hasPending() {
+        return !pending.isEmpty();
+    }
+
+    boolean isKeepAliveAfterWrite() {
+        return keepAliveAfterWrite;
+    }
+
+    // Request handed to worker pool (connection must not be closed for being idle)
+    boolean isProcessing() {
+        return processing;
+    }
+
+    void setProcessing(boolean processing) {
+        this.processing = processing;
+        this.lastActivity = System.currentTimeMillis();
+    }
+
+    // Number of requests started on this connection
+    int incrementServed() {
+        return ++served;
+    }
+
+    long getLastActivity() {
+        return lastActivity;
+    }
+
+    // Write as much of the pending response as the socket accepts, returns true when the whole response is out
+    boolean write() throws IOException {
+        lastActivity = System.currentTimeMillis();
+        while (!pending.isEmpty()) {
+            ByteBuffer segment = pending.peek();
+            channel.write(segment);
+            if (segment.hasRemaining()) {
+                return false;
+            }
+            pending.poll();
+            if (stream != null) {
+                // Worker may hand over the next segment
+                stream.written(segment.limit());
+            }
+        }
+        return responseComplete;
+    }
+
+    void close() {
+        if (stream != null) {
+            stream.abort();
+        }
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Error closing client channel: " + e.getMessage());
+        }
+    }
+}
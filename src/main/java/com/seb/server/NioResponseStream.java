@@ -0,0 +1,99 @@
+package com.seb.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Response of one request on its way from the worker to the event loop
+// Bytes are handed over in segments as they fill up. At most maxInFlight bytes wait for the socket, beyond that
+// the worker blocks until the client has read some: a streamed response (export, full history) needs bounded
+// memory however large it is. Small responses are one segment, handed over on flush
+class NioResponseStream extends OutputStream {
+    static final int SEGMENT_BYTES = 16 * 1024;
+    static final int MAX_IN_FLIGHT_BYTES = 256 * 1024;
+
+    // Receives segments on the worker thread (event loop queues them for the socket)
+    interface Sink {
+        void send(ByteBuffer segment);
+    }
+
+    private final Sink sink;
+    // Client that reads nothing for this long counts as gone
+    private final long writeTimeoutMillis;
+    // One permit per byte that may still wait for the socket
+    private final Semaphore credits = new Semaphore(MAX_IN_FLIGHT_BYTES);
+
+    private byte[] buffer = new byte[1024];
+    private int count;
+    private volatile boolean aborted;
+
+    NioResponseStream(Sink sink, long writeTimeoutMillis) {
+        this.sink = sink;
+        this.writeTimeoutMillis = writeTimeoutMillis;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            if (count == buffer.length) {
+                if (buffer.length < SEGMENT_BYTES) {
+                    buffer = Arrays.copyOf(buffer, Math.min(SEGMENT_BYTES, buffer.length * 4));
+                } else {
+                    handOver();
+                }
+            }
+            int n = Math.min(len, buffer.length - count);
+            System.arraycopy(b, off, buffer, count, n);
+            count += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (count > 0) {
+            handOver();
+        }
+    }
+
+    private void handOver() throws IOException {
+        if (aborted) {
+            throw new IOException("Client connection closed");
+        }
+        try {
+            if (!credits.tryAcquire(count, writeTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new IOException("Client stopped reading the response");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the client");
+        }
+        if (aborted) {
+            throw new IOException("Client connection closed");
+        }
+        sink.send(ByteBuffer.wrap(buffer, 0, count));
+        // Segment now belongs to the event loop
+        buffer = new byte[SEGMENT_BYTES];
+        count = 0;
+    }
+
+    // Event loop wrote a segment to the socket
+    void written(int bytes) {
+        credits.release(bytes);
+    }
+
+    // Connection closed: a waiting or later write fails instead of blocking
+    void abort() {
+        aborted = true;
+        credits.release(MAX_IN_FLIGHT_BYTES);
+    }
+}
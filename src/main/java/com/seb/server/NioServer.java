@@ -0,0 +1,121 @@
+package com.seb.server;
+
+import com.seb.http.KeepAlive;
+
+import java.io.IOException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Non-blocking server: acceptors hand connections to a few event loops, routing runs on worker pool
+public class NioServer {
+    private final int port;
+    private final ListenerSettings listener;
+    private final EventLoop[] eventLoops;
+    private final Thread[] eventLoopThreads;
+
+    // Shared by all acceptors for round-robin over event loops
+    private final AtomicInteger nextEventLoop = new AtomicInteger();
+
+    private List<ServerSocketChannel> serverChannels = new ArrayList<>();
+    private volatile boolean running;
+
+    public NioServer(int port, int eventLoopCount, ExecutorService workers, int maxRequestBytes,
+                     KeepAlive keepAlive) throws IOException {
+        this(port, eventLoopCount, workers, maxRequestBytes, keepAlive, ListenerSettings.defaults());
+    }
+
+    public NioServer(int port, int eventLoopCount, ExecutorService workers, int maxRequestBytes,
+                     KeepAlive keepAlive, ListenerSettings listener) throws IOException {
+        this.port = port;
+        this.listener = listener;
+        this.eventLoops = new EventLoop[eventLoopCount];
+        this.eventLoopThreads = new Thread[eventLoopCount];
+
+        for (int i = 0; i < eventLoopCount; i++) {
+            eventLoops[i] = new EventLoop(workers, maxRequestBytes, keepAlive);
+            eventLoopThreads[i] = new Thread(eventLoops[i], "seb-event-loop-" + i);
+        }
+    }
+
+    // Bind server socket(s) and start event loops
+    public void bind() throws IOException {
+        serverChannels = listener.openChannels(port);
+        running = true;
+
+        for (Thread thread : eventLoopThreads) {
+            thread.start();
+        }
+    }
+
+    // Accept loops (blocks calling thread until server is stopped)
+    // With one channel per acceptor each thread accepts on its own; without SO_REUSEPORT they share one
+    public void acceptLoop() {
+        int acceptors = listener.getAcceptors();
+        List<Thread> extraAcceptors = new ArrayList<>();
+        for (int i = 1; i < acceptors; i++) {
+            ServerSocketChannel channel = serverChannels.get(i % serverChannels.size());
+            Thread thread = new Thread(() -> acceptLoop(channel), "seb-acceptor-" + i);
+            thread.start();
+            extraAcceptors.add(thread);
+        }
+
+        acceptLoop(serverChannels.get(0));
+
+        for (Thread thread : extraAcceptors) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void acceptLoop(ServerSocketChannel serverChannel) {
+        while (running) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                try {
+                    listener.configure(channel);
+                } catch (IOException e) {
+                    System.err.println("Error configuring client connection: " + e.getMessage());
+                }
+                // Distribute connections round-robin
+                eventLoops[Math.floorMod(nextEventLoop.getAndIncrement(), eventLoops.length)].register(channel);
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println("Error accepting client connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    public int getLocalPort() {
+        return serverChannels.get(0).socket().getLocalPort();
+    }
+
+    // Number of listening sockets (one per acceptor with SO_REUSEPORT)
+    public int getListenerCount() {
+        return serverChannels.size();
+    }
+
+    public void stop() {
+        running = false;
+
+        for (ServerSocketChannel serverChannel : serverChannels) {
+            try {
+                serverChannel.close();
+            } catch (IOException e) {
+                System.err.println("Error closing server channel: " + e.getMessage());
+            }
+        }
+
+        for (EventLoop eventLoop : eventLoops) {
+            eventLoop.stop();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.seb.server;
+
+import com.seb.config.ServerConfig;
+import com.seb.metrics.Metrics;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bounded worker pool: work beyond workers + queue depth is rejected right away (-> 503) instead of
+// waiting in an unbounded queue until the client has long given up
+public class WorkerPool {
+
+    // Seconds clients are asked to wait before retrying after a 503 (--server.retryAfterSeconds=1)
+    public static final int RETRY_AFTER_SECONDS = ServerConfig.getInt("server.retryAfterSeconds", 1);
+
+    // Requests/connections turned away because the queue was full
+    public static final LongAdder SHED_QUEUE_FULL = Metrics.counter("http.shed.queueFull");
+
+    private WorkerPool() {
+    }
+
+    // Submitting to a full pool throws RejectedExecutionException
+    public static ThreadPoolExecutor create(int workers, int queueDepth) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = task -> new Thread(task, "seb-worker-" + threadCount.getAndIncrement());
+
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueDepth)), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+
+        Metrics.gauge("server.workers.active", pool::getActiveCount);
+        Metrics.gauge("server.queue.size", () -> pool.getQueue().size());
+        return pool;
+    }
+}
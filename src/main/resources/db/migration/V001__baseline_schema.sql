@@ -0,0 +1,62 @@
+-- Baseline: tables of sql/schema.sql
+-- IF NOT EXISTS so databases set up by hand with schema.sql are adopted as they are
+
+CREATE TABLE IF NOT EXISTS users (
+    user_id SERIAL PRIMARY KEY,
+    username VARCHAR(50) UNIQUE NOT NULL,
+    password_hash VARCHAR(255) NOT NULL,
+    elo INTEGER DEFAULT 1000,
+    creation_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS user_profiles (
+    user_id INTEGER PRIMARY KEY REFERENCES users(user_id) ON DELETE CASCADE,
+    display_name VARCHAR(100)
+);
+
+CREATE TABLE IF NOT EXISTS pushup_records (
+    record_id SERIAL PRIMARY KEY,
+    user_id INTEGER REFERENCES users(user_id) ON DELETE CASCADE,
+    count INTEGER NOT NULL CHECK (count >= 0),
+    record_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS tournaments (
+    tournament_id SERIAL PRIMARY KEY,
+    start_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    status VARCHAR(10) DEFAULT 'ACTIVE' CHECK (status IN ('ACTIVE', 'COMPLETED'))
+);
+
+CREATE TABLE IF NOT EXISTS tournament_participants (
+    tournament_id INTEGER REFERENCES tournaments(tournament_id) ON DELETE CASCADE,
+    user_id INTEGER REFERENCES users(user_id) ON DELETE CASCADE,
+    total_pushups INTEGER DEFAULT 0,
+    PRIMARY KEY (tournament_id, user_id)
+);
+
+CREATE TABLE IF NOT EXISTS auth_tokens (
+    user_id INTEGER REFERENCES users(user_id) ON DELETE CASCADE,
+    token VARCHAR(255) PRIMARY KEY,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS logs (
+    log_id SERIAL PRIMARY KEY,
+    tournament_id INTEGER REFERENCES tournaments(tournament_id) ON DELETE SET NULL,
+    message TEXT NOT NULL,
+    log_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS user_streaks (
+    user_id INTEGER PRIMARY KEY REFERENCES users(user_id) ON DELETE CASCADE,
+    current_streak INTEGER DEFAULT 0,
+    longest_streak INTEGER DEFAULT 0,
+    last_active DATE
+);
+
+ALTER TABLE user_profiles
+    ADD COLUMN IF NOT EXISTS bio VARCHAR(500),
+    ADD COLUMN IF NOT EXISTS image VARCHAR(500);
+
+ALTER TABLE pushup_records
+    ADD COLUMN IF NOT EXISTS duration_seconds INTEGER DEFAULT 120;
@@ -0,0 +1,33 @@
+-- Secondary indexes for the hot access paths
+
+-- History (WHERE user_id ORDER BY record_date DESC) and the per-user COUNT/SUM of stats and scoreboard:
+-- count and duration are included, so these are index-only scans
+CREATE INDEX IF NOT EXISTS idx_pushup_records_user_date
+    ON pushup_records (user_id, record_date DESC, record_id DESC) INCLUDE (count, duration_seconds);
+
+-- Running tournament lookup (WHERE status = 'ACTIVE' ORDER BY start_time): only the few ACTIVE rows are indexed
+CREATE INDEX IF NOT EXISTS idx_tournaments_active_start
+    ON tournaments (start_time) WHERE status = 'ACTIVE';
+
+-- Recent tournaments (ORDER BY start_time DESC LIMIT n)
+CREATE INDEX IF NOT EXISTS idx_tournaments_start
+    ON tournaments (start_time DESC);
+
+-- Tournament logs (WHERE tournament_id ORDER BY log_time, log_id)
+CREATE INDEX IF NOT EXISTS idx_logs_tournament_time
+    ON logs (tournament_id, log_time, log_id);
+
+-- Scoreboard (ORDER BY elo DESC)
+CREATE INDEX IF NOT EXISTS idx_users_elo
+    ON users (elo DESC);
+
+-- Streak leaderboard (ORDER BY current_streak DESC, longest_streak DESC)
+CREATE INDEX IF NOT EXISTS idx_user_streaks_leaderboard
+    ON user_streaks (current_streak DESC, longest_streak DESC);
+
+-- Foreign keys to users (per-user lookups and ON DELETE CASCADE without a full scan)
+CREATE INDEX IF NOT EXISTS idx_tournament_participants_user
+    ON tournament_participants (user_id);
+
+CREATE INDEX IF NOT EXISTS idx_auth_tokens_user
+    ON auth_tokens (user_id);
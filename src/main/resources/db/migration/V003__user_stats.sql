@@ -0,0 +1,18 @@
+-- Per-user pushup aggregates, maintained together with every insert into pushup_records
+-- (stats and scoreboard read one row per user instead of aggregating the whole history)
+CREATE TABLE IF NOT EXISTS user_stats (
+    user_id INTEGER PRIMARY KEY REFERENCES users(user_id) ON DELETE CASCADE,
+    entry_count INTEGER NOT NULL DEFAULT 0,
+    -- Sum of counts (average = total_pushups / entry_count)
+    total_pushups BIGINT NOT NULL DEFAULT 0,
+    max_pushups INTEGER NOT NULL DEFAULT 0,
+    last_record_at TIMESTAMP
+);
+
+-- Backfill existing history (runs before the server accepts requests, so nothing is missed)
+INSERT INTO user_stats (user_id, entry_count, total_pushups, max_pushups, last_record_at)
+SELECT user_id, COUNT(*), SUM(count), MAX(count), MAX(record_date)
+FROM pushup_records
+WHERE user_id IS NOT NULL
+GROUP BY user_id
+ON CONFLICT (user_id) DO NOTHING;
@@ -0,0 +1,47 @@
+-- pushup_records becomes range partitioned by record_date, one partition per month
+-- (queries with a date bound only visit the months they need, old months can be detached as a whole,
+-- vacuum works on small tables). PartitionManager creates the upcoming months at runtime.
+-- Partitions are named pushup_records_pYYYY_MM, the manager relies on that
+
+ALTER TABLE pushup_records RENAME TO pushup_records_old;
+ALTER INDEX IF EXISTS idx_pushup_records_user_date RENAME TO idx_pushup_records_old_user_date;
+
+-- Partition key has to be part of the primary key. record_id keeps its sequence, so ids continue
+CREATE TABLE pushup_records (
+    record_id INTEGER NOT NULL DEFAULT nextval('pushup_records_record_id_seq'),
+    user_id INTEGER REFERENCES users(user_id) ON DELETE CASCADE,
+    count INTEGER NOT NULL CHECK (count >= 0),
+    record_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    duration_seconds INTEGER DEFAULT 120,
+    PRIMARY KEY (record_id, record_date)
+) PARTITION BY RANGE (record_date);
+
+-- Sequence would otherwise be dropped together with the old table
+ALTER SEQUENCE pushup_records_record_id_seq OWNED BY pushup_records.record_id;
+
+-- No DEFAULT partition: it would rule out ordered scans across partitions (history with LIMIT)
+-- One partition per month from the oldest record up to three months ahead
+DO $$
+DECLARE
+    part_start DATE := date_trunc('month', COALESCE((SELECT MIN(record_date) FROM pushup_records_old),
+                                                     CURRENT_TIMESTAMP));
+    last_start DATE := date_trunc('month', CURRENT_TIMESTAMP + INTERVAL '3 months');
+BEGIN
+    WHILE part_start <= last_start LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF pushup_records FOR VALUES FROM (%L) TO (%L)',
+                       'pushup_records_p' || to_char(part_start, 'YYYY_MM'),
+                       part_start, (part_start + INTERVAL '1 month')::DATE);
+        part_start := (part_start + INTERVAL '1 month')::DATE;
+    END LOOP;
+END $$;
+
+-- Records without a date never happened through the API (it always sets one)
+INSERT INTO pushup_records (record_id, user_id, count, record_date, duration_seconds)
+SELECT record_id, user_id, count, COALESCE(record_date, CURRENT_TIMESTAMP), duration_seconds
+FROM pushup_records_old;
+
+DROP TABLE pushup_records_old;
+
+-- Built after the copy. Partitioned index: every partition gets its own, new partitions automatically
+CREATE INDEX idx_pushup_records_user_date
+    ON pushup_records (user_id, record_date DESC, record_id DESC) INCLUDE (count, duration_seconds);
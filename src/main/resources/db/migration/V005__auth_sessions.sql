@@ -0,0 +1,13 @@
+-- Login sessions: any number of token rows per user (one per device), each with its own expiry
+-- Expired rows are deleted in batches by SessionSweeper, not during login
+
+ALTER TABLE auth_tokens ADD COLUMN IF NOT EXISTS expires_at TIMESTAMP;
+
+-- Sessions that exist today stay valid for another day
+UPDATE auth_tokens SET expires_at = CURRENT_TIMESTAMP + INTERVAL '1 day' WHERE expires_at IS NULL;
+
+ALTER TABLE auth_tokens ALTER COLUMN expires_at SET NOT NULL;
+
+-- Sweeper (WHERE expires_at <= now ORDER BY expires_at LIMIT n)
+CREATE INDEX IF NOT EXISTS idx_auth_tokens_expires
+    ON auth_tokens (expires_at);
@@ -0,0 +1,105 @@
+package com.seb;
+
+import com.seb.http.KeepAlive;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestHandlerTest {
+
+    private ServerSocket serverSocket;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        serverSocket = new ServerSocket(0);
+        Thread acceptor = new Thread(() -> {
+            try {
+                while (true) {
+                    new Thread(new RequestHandler(serverSocket.accept(), new KeepAlive(1000, 100), 64 * 1024)).start();
+                }
+            } catch (IOException ignored) {
+                // Server socket closed
+            }
+        });
+        acceptor.start();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        serverSocket.close();
+    }
+
+    @Test
+    public void testPipelinedRequestsWithMultiByteBody() throws IOException {
+        // Arrange
+        String body = "{\"Username\":\"Müller€\"}";
+        String request = "POST /users HTTP/1.1\r\nContent-Length: " + body.getBytes(StandardCharsets.UTF_8).length + "\r\n\r\n" + body
+                + "GET /health HTTP/1.1\r\n\r\n"
+                + "GET /health HTTP/1.1\r\nConnection: close\r\n\r\n";
+
+        // Act
+        String response = send(request);
+
+        // Assert
+        assertTrue(response.startsWith("HTTP/1.1 400 Bad Request"), "First request should be answered first");
+        assertEquals(2, response.split("HTTP/1.1 200 OK", -1).length - 1, "Both pipelined health checks should be answered");
+        assertTrue(response.endsWith("{\"status\":\"up\"}"), "Response should end exactly after Content-Length bytes");
+    }
+
+    @Test
+    public void testContentLengthCountsBytes() throws IOException {
+        // Act
+        String response = send("GET /health HTTP/1.0\r\n\r\n");
+
+        // Assert
+        assertTrue(response.contains("Content-Length: 15\r\n"), "Content-Length should match body bytes");
+        assertTrue(response.contains("Connection: close"), "HTTP/1.0 without keep-alive should close");
+    }
+
+    @Test
+    public void testMadeUpTokensShareOneIpBucket() throws IOException {
+        // Arrange - POST /history allows a burst of 10 per key
+        int limited = 0;
+        int unauthorized = 0;
+
+        // Act - a new random token on every request
+        for (int i = 0; i < 15; i++) {
+            String response = send("POST /history HTTP/1.1\r\nAuthorization: Basic random-" + System.nanoTime() + "-" + i
+                    + "\r\nContent-Length: 0\r\nConnection: close\r\n\r\n");
+            if (response.startsWith("HTTP/1.1 429")) {
+                limited++;
+            } else if (response.startsWith("HTTP/1.1 401")) {
+                unauthorized++;
+            }
+        }
+
+        // Assert
+        assertTrue(unauthorized <= 11, "Unverified tokens should not get a bucket each, got " + unauthorized + " 401s");
+        assertEquals(15, limited + unauthorized);
+    }
+
+    private String send(String request) throws IOException {
+        try (Socket socket = new Socket("localhost", serverSocket.getLocalPort())) {
+            socket.setSoTimeout(5000);
+            socket.getOutputStream().write(request.getBytes(StandardCharsets.UTF_8));
+            socket.getOutputStream().flush();
+
+            InputStream in = socket.getInputStream();
+            ByteArrayOutputStream response = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                response.write(buffer, 0, read);
+            }
+            return response.toString(StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.seb.benchmark;
+
+import com.seb.http.KeepAlive;
+import com.seb.server.ListenerSettings;
+import com.seb.server.NioServer;
+import com.seb.server.WorkerPool;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+// New connections per second by number of acceptor threads
+//
+// Starts an in-process NIO server per acceptor count and hammers /health with one new connection per
+// request (Connection: close), so accept() is on the hot path. No database needed.
+// Args: [seconds per level] [clients]
+public class AcceptorBenchmark {
+
+    private static final int[] ACCEPTOR_COUNTS = {1, 2, 4};
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        long seconds = args.length > 0 ? Long.parseLong(args[0]) : 10;
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        // Only /health is requested, tokens are never checked
+        System.setProperty("seb.auth.allowRandomKey", "true");
+        // Every connection comes from 127.0.0.1, the per-IP limit would measure 429s
+        System.setProperty("seb.rateLimit.ip.perSecond", "0");
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.println("GET /health, new connection per request, " + clients + " clients, "
+                + seconds + "s per level, " + cores + " cores");
+
+        for (int acceptors : ACCEPTOR_COUNTS) {
+            ThreadPoolExecutor workers = WorkerPool.create(cores, 10_000);
+            NioServer server = new NioServer(0, Math.max(1, cores / 2), workers, 64 * 1024,
+                    new KeepAlive(5000, 100), new ListenerSettings(acceptors, true, 4096, true, 0, 0));
+            server.bind();
+            Thread acceptorThread = new Thread(server::acceptLoop, "bench-acceptor");
+            acceptorThread.start();
+
+            try {
+                LoadGenerator generator = new LoadGenerator("localhost", server.getLocalPort(),
+                        LoadGenerator.buildRequest("GET", "/health", null, null));
+                // Warm up (JIT)
+                generator.run(clients, 2000);
+
+                System.out.println(acceptors + " acceptors (" + server.getListenerCount() + " listening sockets): "
+                        + generator.run(clients, seconds * 1000));
+            } finally {
+                server.stop();
+                workers.shutdownNow();
+                acceptorThread.join();
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.seb.benchmark;
+
+// Concurrency scaling benchmark against a running server
+//
+// Start the server in the mode to measure (per-IP rate limit off, all clients share one IP), e.g.
+//   java com.seb.Server --server.mode=blocking --rateLimit.ip.perSecond=0
+//   java com.seb.Server --server.mode=nio --rateLimit.ip.perSecond=0
+//   java com.seb.Server --server.mode=virtual --rateLimit.ip.perSecond=0
+// then run this class (args: [host] [port] [path] [token] [seconds per level]).
+// Use an authenticated endpoint like /stats so every request waits on JDBC.
+public class ConcurrencyBenchmark {
+
+    private static final int[] CLIENT_LEVELS = {10, 100, 1000};
+
+    public static void main(String[] args) throws InterruptedException {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 10001;
+        String path = args.length > 2 ? args[2] : "/stats";
+        String token = args.length > 3 ? args[3] : null;
+        long seconds = args.length > 4 ? Long.parseLong(args[4]) : 10;
+
+        LoadGenerator generator = new LoadGenerator(host, port,
+                LoadGenerator.buildRequest("GET", path, token, null));
+
+        // Warm up server (JIT, DB connections)
+        generator.run(10, 2000);
+
+        System.out.println("GET " + path + " on " + host + ":" + port + " (" + seconds + "s per level)");
+        for (int clients : CLIENT_LEVELS) {
+            System.out.println(generator.run(clients, seconds * 1000));
+        }
+    }
+}
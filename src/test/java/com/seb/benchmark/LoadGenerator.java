@@ -0,0 +1,181 @@
+package com.seb.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Simple closed-loop HTTP load generator (one virtual thread per simulated client)
+// Only 2xx responses count as requests; others (401, 429, 503, ...) are counted as rejected, without latency
+public class LoadGenerator {
+    private final String host;
+    private final int port;
+    private final byte[] request;
+
+    public LoadGenerator(String host, int port, String request) {
+        this.host = host;
+        this.port = port;
+        this.request = request.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Build raw HTTP request
+    public static String buildRequest(String method, String path, String token, String body) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(method).append(' ').append(path).append(" HTTP/1.1\r\n");
+        sb.append("Host: localhost\r\n");
+        sb.append("Connection: close\r\n");
+        if (token != null) {
+            sb.append("Authorization: Basic ").append(token).append("\r\n");
+        }
+        if (body != null) {
+            sb.append("Content-Type: application/json\r\n");
+            sb.append("Content-Length: ").append(body.getBytes(StandardCharsets.UTF_8).length).append("\r\n");
+        }
+        sb.append("\r\n");
+        if (body != null) {
+            sb.append(body);
+        }
+        return sb.toString();
+    }
+
+    // Run given number of clients for given duration
+    public Result run(int clients, long durationMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + durationMillis;
+        AtomicLong errors = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        List<long[]> latencies = new ArrayList<>();
+        List<int[]> counts = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                long[] clientLatencies = new long[1 << 16];
+                int[] clientCount = new int[1];
+                latencies.add(clientLatencies);
+                counts.add(clientCount);
+
+                executor.submit(() -> {
+                    while (System.currentTimeMillis() < deadline) {
+                        long start = System.nanoTime();
+                        int status;
+                        try {
+                            status = sendRequest();
+                        } catch (IOException e) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        if (status < 200 || status > 299) {
+                            rejected.incrementAndGet();
+                            continue;
+                        }
+                        if (clientCount[0] < clientLatencies.length) {
+                            clientLatencies[clientCount[0]] = System.nanoTime() - start;
+                        }
+                        clientCount[0]++;
+                    }
+                });
+            }
+            executor.shutdown();
+            executor.awaitTermination(durationMillis + 60_000, TimeUnit.MILLISECONDS);
+        }
+
+        // Merge per-client samples
+        long total = 0;
+        int samples = 0;
+        for (int[] count : counts) {
+            total += count[0];
+        }
+        long[] all = new long[(int) Math.min(total, Integer.MAX_VALUE - 8)];
+        for (int i = 0; i < latencies.size(); i++) {
+            int n = Math.min(counts.get(i)[0], latencies.get(i).length);
+            System.arraycopy(latencies.get(i), 0, all, samples, n);
+            samples += n;
+        }
+        long[] sorted = Arrays.copyOf(all, samples);
+        Arrays.sort(sorted);
+
+        return new Result(clients, total, rejected.get(), errors.get(), durationMillis, sorted);
+    }
+
+    // Send one request and read full response (server closes connection), returns the status code
+    private int sendRequest() throws IOException {
+        try (Socket socket = new Socket(host, port)) {
+            socket.setSoTimeout(30_000);
+            OutputStream out = socket.getOutputStream();
+            out.write(request);
+            out.flush();
+
+            InputStream in = socket.getInputStream();
+            byte[] buffer = new byte[8192];
+            // "HTTP/1.1 200 ": status code is bytes 9-11
+            int read = 0;
+            while (read < 12) {
+                int n = in.read(buffer, read, buffer.length - read);
+                if (n == -1) {
+                    throw new IOException(read == 0 ? "Empty response" : "Truncated status line");
+                }
+                read += n;
+            }
+            int status = parseStatus(buffer);
+            while (in.read(buffer) != -1) {
+                // Drain rest of response
+            }
+            return status;
+        }
+    }
+
+    private static int parseStatus(byte[] response) throws IOException {
+        String statusLine = new String(response, 0, 12, StandardCharsets.ISO_8859_1);
+        if (!statusLine.startsWith("HTTP/1.") || statusLine.charAt(8) != ' ') {
+            throw new IOException("Malformed status line");
+        }
+        try {
+            return Integer.parseInt(statusLine.substring(9, 12));
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed status code");
+        }
+    }
+
+    public static class Result {
+        private final int clients;
+        private final long requests;
+        private final long rejected;
+        private final long errors;
+        private final long durationMillis;
+        private final long[] sortedLatencies;
+
+        Result(int clients, long requests, long rejected, long errors, long durationMillis, long[] sortedLatencies) {
+            this.clients = clients;
+            this.requests = requests;
+            this.rejected = rejected;
+            this.errors = errors;
+            this.durationMillis = durationMillis;
+            this.sortedLatencies = sortedLatencies;
+        }
+
+        public double requestsPerSecond() {
+            return requests * 1000.0 / durationMillis;
+        }
+
+        public double percentileMillis(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(sortedLatencies.length - 1, Math.ceil(percentile / 100.0 * sortedLatencies.length) - 1);
+            return sortedLatencies[Math.max(0, index)] / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%6d clients  %10.1f req/s  p50 %8.2f ms  p99 %8.2f ms  non-2xx %d  errors %d",
+                    clients, requestsPerSecond(), percentileMillis(50), percentileMillis(99), rejected, errors);
+        }
+    }
+}
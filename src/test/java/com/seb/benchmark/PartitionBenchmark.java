@@ -0,0 +1,147 @@
+package com.seb.benchmark;
+
+import com.seb.config.DatabaseConfig;
+import com.seb.db.PartitionManager;
+import com.seb.db.UnitOfWork;
+import com.seb.dto.HistoryCursor;
+import com.seb.dto.HistoryEntry;
+import com.seb.model.PushupRecord;
+import com.seb.repository.PushupRepository;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.List;
+
+// Insert and history read latency on a large partitioned pushup_records table
+//
+// Needs the database from docker-compose.yml with migrations applied (server started once).
+// Seeds throwaway users ("bench_part_<n>") and tops their records up to the requested row count, spread over
+// the last 24 months (inserted directly, their user_stats rows are not maintained). The data is kept so
+// later runs skip seeding; remove it with
+//   DELETE FROM users WHERE username LIKE 'bench_part_%';
+// Args: [rows (default 10000000)] [samples per measurement (default 2000)]
+public class PartitionBenchmark {
+
+    private static final int USERS = 10_000;
+    private static final int MONTHS = 24;
+    private static final int SEED_BATCH = 1_000_000;
+
+    public static void main(String[] args) throws Exception {
+        long rows = args.length > 0 ? Long.parseLong(args[0]) : 10_000_000L;
+        int samples = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        DatabaseConfig db = DatabaseConfig.getInstance();
+        PushupRepository repository = new PushupRepository();
+
+        int[] userIds = seed(db, rows);
+        System.out.println("Users: " + userIds.length + ", rows: " + countRows(db));
+
+        // Warm up (JIT, prepared statements)
+        measure("warmup", 200, i -> repository.getUserHistoryPage(userIds[i % userIds.length], null, 50));
+
+        measure("insert (addRecord)", samples,
+                i -> repository.addRecord(new PushupRecord(userIds[i % userIds.length], 20, 60)));
+
+        measure("history first page (50)", samples,
+                i -> repository.getUserHistoryPage(userIds[i % userIds.length], null, 50));
+
+        // Cursor in the middle of the user's history: seek instead of OFFSET
+        HistoryCursor[] middle = new HistoryCursor[Math.min(samples, userIds.length)];
+        for (int i = 0; i < middle.length; i++) {
+            List<HistoryEntry> page = repository.getUserHistoryPage(userIds[i], null, 500);
+            middle[i] = page.isEmpty() ? null : HistoryCursor.after(page.get(page.size() / 2));
+        }
+        measure("history deep page (50)", samples,
+                i -> repository.getUserHistoryPage(userIds[i % middle.length], middle[i % middle.length], 50));
+
+        measure("history full stream", Math.max(1, samples / 10), i -> {
+            try (UnitOfWork work = db.beginWork()) {
+                repository.streamUserHistory(userIds[i % userIds.length], entry -> { });
+                work.commit();
+            }
+        });
+
+        db.shutdown();
+    }
+
+    private interface Sample {
+        void run(int i) throws SQLException, IOException;
+    }
+
+    private static void measure(String label, int samples, Sample sample) throws SQLException, IOException {
+        long[] micros = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            long start = System.nanoTime();
+            sample.run(i);
+            micros[i] = (System.nanoTime() - start) / 1_000;
+        }
+        Arrays.sort(micros);
+        System.out.printf("%-26s p50 %7d us  p99 %7d us  max %7d us%n", label,
+                micros[samples / 2], micros[samples * 99 / 100], micros[samples - 1]);
+    }
+
+    // Create the benchmark users and add records until the table holds the requested rows
+    private static int[] seed(DatabaseConfig db, long rows) throws SQLException {
+        YearMonth now = YearMonth.now();
+        new PartitionManager(db.getPool(), 3, 0, 1).ensurePartitions(now.minusMonths(MONTHS), now);
+
+        try (Connection conn = db.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT INTO users (username, password_hash) SELECT 'bench_part_' || g, 'x' " +
+                            "FROM generate_series(1, ?) g ON CONFLICT (username) DO NOTHING")) {
+                stmt.setInt(1, USERS);
+                stmt.executeUpdate();
+            }
+
+            long missing = rows - countRows(db);
+            while (missing > 0) {
+                int batch = (int) Math.min(SEED_BATCH, missing);
+                long start = System.nanoTime();
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "INSERT INTO pushup_records (user_id, count, duration_seconds, record_date) " +
+                                "SELECT u.user_id, 1 + (random() * 80)::int, 30 + (random() * 150)::int, " +
+                                "now() - random() * (? * INTERVAL '1 month') " +
+                                "FROM generate_series(1, ?) g " +
+                                "JOIN users u ON u.username = 'bench_part_' || (1 + g % ?)")) {
+                    stmt.setInt(1, MONTHS);
+                    stmt.setInt(2, batch);
+                    stmt.setInt(3, USERS);
+                    stmt.executeUpdate();
+                }
+                missing -= batch;
+                System.out.printf("Seeded %d rows in %d ms (%d to go)%n", batch,
+                        (System.nanoTime() - start) / 1_000_000, Math.max(0, missing));
+            }
+            try (PreparedStatement stmt = conn.prepareStatement("ANALYZE pushup_records")) {
+                stmt.execute();
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT user_id FROM users WHERE username LIKE 'bench_part_%' ORDER BY user_id");
+                 ResultSet rs = stmt.executeQuery()) {
+                int[] ids = new int[USERS];
+                int n = 0;
+                while (rs.next() && n < ids.length) {
+                    ids[n++] = rs.getInt(1);
+                }
+                return Arrays.copyOf(ids, n);
+            }
+        }
+    }
+
+    private static long countRows(DatabaseConfig db) throws SQLException {
+        // Planner estimate: an exact COUNT(*) over 10M rows would dominate the run
+        try (Connection conn = db.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT COALESCE(SUM(GREATEST(c.reltuples, 0)), 0)::bigint FROM pg_inherits i " +
+                             "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'pushup_records'::regclass");
+             ResultSet rs = stmt.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
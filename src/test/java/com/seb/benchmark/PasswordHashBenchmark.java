@@ -0,0 +1,81 @@
+package com.seb.benchmark;
+
+import com.seb.security.PasswordHasher;
+import com.seb.security.PasswordUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+// Password hashing cost and its effect on other requests
+//   hashesPerCore: PBKDF2 verifications per second on one thread (= per core)
+//   mixed: 8 login threads verify through a PasswordHasher (2 threads) while 8 request threads do ~20 us of
+//   other CPU work; sample mode reports p99 of both, i.e. login latency and what logins cost everyone else
+// Run with -p iterations=100000,310000,600000 to pick --auth.pbkdf2.iterations for the target login p99
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordHashBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Hashes {
+        @Param({"310000"})
+        int iterations;
+
+        String storedHash;
+        PasswordHasher hasher;
+
+        @Setup
+        public void setup() {
+            storedHash = PasswordUtil.hashPassword("secretPassword123", iterations);
+            hasher = new PasswordHasher(2, 64, 30_000);
+        }
+
+        @TearDown
+        public void tearDown() {
+            hasher.shutdown();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(1)
+    public boolean hashesPerCore(Hashes hashes) {
+        return PasswordUtil.verifyPassword("secretPassword123", hashes.storedHash);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @Group("mixed")
+    @GroupThreads(8)
+    public boolean login(Hashes hashes) {
+        try {
+            return hashes.hasher.verify("secretPassword123", hashes.storedHash);
+        } catch (RejectedExecutionException e) {
+            // Would have been a 503
+            return false;
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @Group("mixed")
+    @GroupThreads(8)
+    public void otherRequest() {
+        Blackhole.consumeCPU(20_000);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PasswordHashBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,33 @@
+package com.seb.benchmark;
+
+// POST /history throughput against a running server
+//
+// Start the server with the rate limits off, e.g.
+//   java com.seb.Server --rateLimit.ip.perSecond=0 --rateLimit.historyWrites.perSecond=0
+// then run this class (args: [host] [port] [token] [seconds per level]).
+// For a before/after comparison run it once against a build of the commit before the single-statement
+// ingest (SELECT + UPDATE/INSERT per post) and once against the current build, on the same database.
+// All clients post for the same user, so the old read-modify-write path also shows its lost updates:
+// compare the user's tournament total with requests * 10 afterwards.
+public class PushupIngestBenchmark {
+
+    private static final int[] CLIENT_LEVELS = {1, 10, 50};
+
+    public static void main(String[] args) throws InterruptedException {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 10001;
+        String token = args.length > 2 ? args[2] : "test-sebToken";
+        long seconds = args.length > 3 ? Long.parseLong(args[3]) : 10;
+
+        LoadGenerator generator = new LoadGenerator(host, port, LoadGenerator.buildRequest("POST", "/history", token,
+                "{\"Name\":\"PushUps\",\"Count\":10,\"DurationInSeconds\":60}"));
+
+        // Warm up server (JIT, DB connections, prepared statements)
+        generator.run(5, 2000);
+
+        System.out.println("POST /history on " + host + ":" + port + " (" + seconds + "s per level)");
+        for (int clients : CLIENT_LEVELS) {
+            System.out.println(generator.run(clients, seconds * 1000));
+        }
+    }
+}
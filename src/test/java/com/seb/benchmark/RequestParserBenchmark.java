@@ -0,0 +1,120 @@
+package com.seb.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seb.http.HttpRequest;
+import com.seb.http.HttpRequestParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Byte-level HttpRequestParser vs. the previous BufferedReader/split/HashMap parsing
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RequestParserBenchmark {
+
+    private static final String BODY = "{\"Name\":\"PushUps\",\"Count\":42,\"DurationInSeconds\":60}";
+
+    private byte[] requestBytes;
+    private HttpRequestParser parser;
+    private ObjectMapper mapper;
+
+    @Setup
+    public void setup() {
+        String request = "POST /history HTTP/1.1\r\n" +
+                "Host: localhost:10001\r\n" +
+                "User-Agent: curl/8.5.0\r\n" +
+                "Accept: */*\r\n" +
+                "Content-Type: application/json\r\n" +
+                "Authorization: Basic kienboec-sebToken\r\n" +
+                "Content-Length: " + BODY.getBytes(StandardCharsets.UTF_8).length + "\r\n" +
+                "\r\n" + BODY;
+        requestBytes = request.getBytes(StandardCharsets.UTF_8);
+        parser = new HttpRequestParser(64 * 1024);
+        mapper = new ObjectMapper();
+    }
+
+    @Benchmark
+    public void legacyParser(Blackhole bh) throws IOException {
+        bh.consume(legacyParse(requestBytes));
+    }
+
+    @Benchmark
+    public void byteParser(Blackhole bh) {
+        parser.writableBuffer().put(requestBytes);
+        HttpRequest request = parser.parse();
+        bh.consume(request.getAuthorization());
+        bh.consume(request);
+        parser.consume();
+    }
+
+    @Benchmark
+    public void legacyParserWithJsonBody(Blackhole bh) throws IOException {
+        Object[] parsed = legacyParse(requestBytes);
+        bh.consume(mapper.readValue((String) parsed[3], Map.class));
+    }
+
+    @Benchmark
+    public void byteParserWithJsonBody(Blackhole bh) throws IOException {
+        parser.writableBuffer().put(requestBytes);
+        HttpRequest request = parser.parse();
+        bh.consume(mapper.readValue(request.getBodyArray(), request.getBodyOffset(), request.getBodyLength(), Map.class));
+        parser.consume();
+    }
+
+    // Request parsing as done by RequestHandler before the byte-level parser
+    private static Object[] legacyParse(byte[] bytes) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(bytes)));
+
+        String requestLine = in.readLine();
+        String[] requestParts = requestLine.split(" ");
+        String method = requestParts[0];
+        String path = requestParts[1];
+
+        Map<String, String> headers = new HashMap<>();
+        String headerLine;
+        while ((headerLine = in.readLine()) != null && !headerLine.isEmpty()) {
+            int colonPos = headerLine.indexOf(":");
+            if (colonPos > 0) {
+                String headerName = headerLine.substring(0, colonPos).trim();
+                String headerValue = headerLine.substring(colonPos + 1).trim();
+                headers.put(headerName.toLowerCase(), headerValue);
+            }
+        }
+
+        StringBuilder requestBody = new StringBuilder();
+        if ("POST".equalsIgnoreCase(method) || "PUT".equalsIgnoreCase(method)) {
+            if (headers.containsKey("content-length")) {
+                int contentLength = Integer.parseInt(headers.get("content-length"));
+                char[] buffer = new char[contentLength];
+                in.read(buffer, 0, contentLength);
+                requestBody.append(buffer);
+            }
+        }
+
+        return new Object[]{method, path, headers, requestBody.toString()};
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RequestParserBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,86 @@
+package com.seb.benchmark;
+
+import com.seb.config.DatabaseConfig;
+import com.seb.repository.TournamentRepository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Time of TournamentRepository.completeTournament by number of participants
+//
+// Needs the database from docker-compose.yml (schema.sql applied). Each level creates throwaway users
+// ("bench_<level>_<n>"), one tournament they all joined with random totals, completes it and deletes
+// everything again (users cascade to participants, logs keep a NULL tournament).
+// Args: [largest participant count]
+public class TournamentCompletionBenchmark {
+
+    private static final int[] PARTICIPANT_LEVELS = {10, 100, 1_000, 10_000, 100_000};
+
+    public static void main(String[] args) throws SQLException {
+        int max = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        DatabaseConfig db = DatabaseConfig.getInstance();
+        TournamentRepository repository = new TournamentRepository();
+
+        // Warm up (JIT, prepared statements)
+        completeOnce(db, repository, 10, "warmup");
+
+        for (int participants : PARTICIPANT_LEVELS) {
+            if (participants > max) {
+                break;
+            }
+            long millis = completeOnce(db, repository, participants, String.valueOf(participants));
+            System.out.printf("%7d participants  %8d ms%n", participants, millis);
+        }
+        db.shutdown();
+    }
+
+    private static long completeOnce(DatabaseConfig db, TournamentRepository repository, int participants,
+                                     String label) throws SQLException {
+        String prefix = "bench_" + label + "_";
+        int tournamentId;
+
+        try (Connection conn = db.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT INTO users (username, password_hash) SELECT ? || g, 'x' FROM generate_series(1, ?) g")) {
+                stmt.setString(1, prefix);
+                stmt.setInt(2, participants);
+                stmt.executeUpdate();
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT INTO tournaments (status) VALUES ('ACTIVE') RETURNING tournament_id");
+                 ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                tournamentId = rs.getInt(1);
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT INTO tournament_participants (tournament_id, user_id, total_pushups) " +
+                            "SELECT ?, user_id, (random() * 200)::int FROM users WHERE username LIKE ?")) {
+                stmt.setInt(1, tournamentId);
+                stmt.setString(2, prefix + "%");
+                stmt.executeUpdate();
+            }
+        }
+
+        long start = System.nanoTime();
+        repository.completeTournament(tournamentId);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        try (Connection conn = db.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM logs WHERE tournament_id = ?")) {
+                stmt.setInt(1, tournamentId);
+                stmt.executeUpdate();
+            }
+            try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM tournaments WHERE tournament_id = ?")) {
+                stmt.setInt(1, tournamentId);
+                stmt.executeUpdate();
+            }
+            try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM users WHERE username LIKE ?")) {
+                stmt.setString(1, prefix + "%");
+                stmt.executeUpdate();
+            }
+        }
+        return millis;
+    }
+}
@@ -0,0 +1,166 @@
+package com.seb.db;
+
+import com.seb.metrics.Metrics;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConnectionPoolTest {
+
+    // In-memory stand-in for a physical connection
+    private static class FakeConnection {
+        boolean autoCommit = true;
+        boolean closed;
+        boolean valid = true;
+        int rollbacks;
+
+        Connection proxy() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (p, method, args) -> switch (method.getName()) {
+                        case "close" -> {
+                            closed = true;
+                            yield null;
+                        }
+                        case "isClosed" -> closed;
+                        case "isValid" -> valid;
+                        case "getAutoCommit" -> autoCommit;
+                        case "setAutoCommit" -> {
+                            autoCommit = (Boolean) args[0];
+                            yield null;
+                        }
+                        case "rollback" -> {
+                            rollbacks++;
+                            yield null;
+                        }
+                        default -> null;
+                    });
+        }
+    }
+
+    private final List<FakeConnection> opened = new ArrayList<>();
+
+    private ConnectionPool pool(PoolSettings settings) {
+        return new ConnectionPool("test", () -> {
+            FakeConnection connection = new FakeConnection();
+            opened.add(connection);
+            return connection.proxy();
+        }, settings.housekeepingMillis(0));
+    }
+
+    @Test
+    public void testReturnedConnectionIsReused() throws SQLException {
+        // Arrange
+        ConnectionPool pool = pool(PoolSettings.defaults().maxSize(2));
+
+        // Act
+        Connection first = pool.getConnection();
+        first.close();
+        Connection second = pool.getConnection();
+
+        // Assert
+        assertEquals(1, opened.size(), "Second borrow should reuse the physical connection");
+        assertFalse(opened.get(0).closed);
+        assertTrue(first.isClosed(), "Old handle must not be usable after close()");
+        assertThrows(SQLException.class, first::commit);
+        assertEquals(1, pool.getStats().active());
+        second.close();
+        assertEquals(1, pool.getStats().idle());
+    }
+
+    @Test
+    public void testBorrowTimesOutWhenPoolExhausted() throws SQLException {
+        // Arrange
+        ConnectionPool pool = pool(PoolSettings.defaults().maxSize(1).borrowTimeoutMillis(50));
+        Connection held = pool.getConnection();
+
+        // Act & Assert
+        assertThrows(SQLTransientConnectionException.class, pool::getConnection);
+        held.close();
+        assertNotNull(pool.getConnection(), "Connection should be available again after it was returned");
+    }
+
+    @Test
+    public void testWaitingBorrowerGetsReturnedConnection() throws Exception {
+        // Arrange
+        ConnectionPool pool = pool(PoolSettings.defaults().maxSize(1).borrowTimeoutMillis(5000));
+        Connection held = pool.getConnection();
+        AtomicBoolean got = new AtomicBoolean();
+        Thread waiter = new Thread(() -> {
+            try (Connection connection = pool.getConnection()) {
+                got.set(connection != null);
+            } catch (SQLException e) {
+                fail(e);
+            }
+        });
+
+        // Act
+        waiter.start();
+        Thread.sleep(50);
+        held.close();
+        waiter.join(5000);
+
+        // Assert
+        assertTrue(got.get());
+        assertEquals(1, opened.size());
+    }
+
+    @Test
+    public void testOpenTransactionIsRolledBackOnReturn() throws SQLException {
+        // Arrange
+        ConnectionPool pool = pool(PoolSettings.defaults());
+        Connection connection = pool.getConnection();
+        connection.setAutoCommit(false);
+
+        // Act
+        connection.close();
+
+        // Assert
+        assertEquals(1, opened.get(0).rollbacks);
+        assertTrue(opened.get(0).autoCommit);
+    }
+
+    @Test
+    public void testInvalidAndExpiredConnectionsAreReplaced() throws Exception {
+        // Arrange
+        ConnectionPool pool = pool(PoolSettings.defaults().validationBypassMillis(0).maxLifetimeMillis(100));
+        pool.getConnection().close();
+        opened.get(0).valid = false;
+
+        // Act
+        pool.getConnection().close();
+        Thread.sleep(150);
+        pool.housekeep();
+
+        // Assert
+        assertTrue(opened.get(0).closed, "Invalid connection should be closed");
+        assertTrue(opened.get(1).closed, "Connection past max lifetime should be closed");
+        assertEquals(2, pool.getStats().idle(), "Housekeeping should refill minIdle");
+        assertEquals(4, opened.size());
+    }
+
+    @Test
+    public void testLeakIsReportedOnce() throws Exception {
+        // Arrange
+        ConnectionPool pool = pool(PoolSettings.defaults().minIdle(0).leakDetectionMillis(20));
+        long before = Metrics.counter("db.pool.test.leaks").sum();
+        Connection leaked = pool.getConnection();
+
+        // Act
+        Thread.sleep(50);
+        pool.housekeep();
+        pool.housekeep();
+
+        // Assert
+        assertEquals(before + 1, Metrics.counter("db.pool.test.leaks").sum());
+        leaked.close();
+        assertEquals(0, pool.getStats().active());
+    }
+}
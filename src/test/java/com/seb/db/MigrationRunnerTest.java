@@ -0,0 +1,37 @@
+package com.seb.db;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MigrationRunnerTest {
+
+    @Test
+    public void testMigrationsAreNumberedWithoutGaps() throws SQLException {
+        // Act
+        List<MigrationRunner.Migration> migrations = MigrationRunner.loadMigrations(getClass().getClassLoader());
+
+        // Assert
+        assertFalse(migrations.isEmpty());
+        for (int i = 0; i < migrations.size(); i++) {
+            assertEquals(i + 1, migrations.get(i).version(), "Versions must start at 1 and have no gaps");
+            assertFalse(migrations.get(i).script().isBlank());
+        }
+        assertEquals("baseline schema", migrations.get(0).description());
+    }
+
+    @Test
+    public void testChecksumIgnoresLineEndings() {
+        // Arrange
+        String unix = "CREATE INDEX a ON t (x);\nCREATE INDEX b ON t (y);\n";
+        String windows = unix.replace("\n", "\r\n");
+
+        // Act & Assert
+        assertEquals(64, MigrationRunner.checksum(unix).length());
+        assertEquals(MigrationRunner.checksum(unix), MigrationRunner.checksum(windows));
+        assertNotEquals(MigrationRunner.checksum(unix), MigrationRunner.checksum(unix + "-- changed\n"));
+    }
+}
@@ -0,0 +1,50 @@
+package com.seb.db;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PartitionManagerTest {
+
+    @Test
+    public void testPlanCreatesMissingMonthsAhead() {
+        // Arrange
+        YearMonth current = YearMonth.of(2024, 11);
+        Set<YearMonth> existing = Set.of(YearMonth.of(2024, 10), current);
+
+        // Act
+        PartitionManager.Plan plan = PartitionManager.plan(existing, current, 2, 0);
+
+        // Assert
+        assertEquals(List.of(YearMonth.of(2024, 12), YearMonth.of(2025, 1)), plan.create());
+        assertTrue(plan.detach().isEmpty(), "Retention 0 keeps every partition");
+    }
+
+    @Test
+    public void testPlanDetachesMonthsPastRetention() {
+        // Arrange
+        YearMonth current = YearMonth.of(2024, 3);
+        Set<YearMonth> existing = Set.of(YearMonth.of(2023, 12), YearMonth.of(2024, 1),
+                YearMonth.of(2024, 2), current, YearMonth.of(2024, 4));
+
+        // Act - keep current and the two months before it
+        PartitionManager.Plan plan = PartitionManager.plan(existing, current, 1, 3);
+
+        // Assert
+        assertEquals(List.of(YearMonth.of(2023, 12)), plan.detach());
+        assertTrue(plan.create().isEmpty());
+    }
+
+    @Test
+    public void testPartitionNames() {
+        // Act & Assert
+        assertEquals("pushup_records_p2024_03", PartitionManager.partitionName(YearMonth.of(2024, 3)));
+        assertEquals(YearMonth.of(2024, 3), PartitionManager.parseMonth("pushup_records_p2024_03"));
+        assertNull(PartitionManager.parseMonth("pushup_records_default"));
+        assertNull(PartitionManager.parseMonth("pushup_records_p2024_13"));
+    }
+}
@@ -0,0 +1,121 @@
+package com.seb.db;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UnitOfWorkTest {
+
+    private final AtomicInteger opened = new AtomicInteger();
+    private final AtomicInteger commits = new AtomicInteger();
+    private final AtomicInteger rollbacks = new AtomicInteger();
+
+    private final ConnectionPool pool = new ConnectionPool("uow-test", this::fakeConnection,
+            PoolSettings.defaults().housekeepingMillis(0));
+
+    // Counts commits and rollbacks, everything else does nothing
+    private Connection fakeConnection() {
+        opened.incrementAndGet();
+        boolean[] autoCommit = {true};
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (p, method, args) -> switch (method.getName()) {
+                    case "commit" -> {
+                        commits.incrementAndGet();
+                        yield null;
+                    }
+                    case "rollback" -> {
+                        rollbacks.incrementAndGet();
+                        yield null;
+                    }
+                    case "getAutoCommit" -> autoCommit[0];
+                    case "setAutoCommit" -> {
+                        autoCommit[0] = (Boolean) args[0];
+                        yield null;
+                    }
+                    case "isClosed", "isValid" -> method.getName().equals("isValid");
+                    default -> null;
+                });
+    }
+
+    // What a repository method does: borrow, use, close (and maybe run its own transaction)
+    private void repositoryCall() throws SQLException {
+        Connection conn = UnitOfWork.getConnection(pool);
+        try {
+            conn.setAutoCommit(false);
+            conn.commit();
+        } finally {
+            conn.setAutoCommit(true);
+            conn.close();
+        }
+    }
+
+    @Test
+    public void testRepositoriesShareOneConnectionAndCommit() throws SQLException {
+        // Arrange
+        try (UnitOfWork work = UnitOfWork.begin(pool)) {
+            // Act
+            repositoryCall();
+            repositoryCall();
+            repositoryCall();
+            assertEquals(0, commits.get(), "Repositories must not commit inside a unit of work");
+            work.commit();
+        }
+
+        // Assert
+        assertEquals(1, opened.get());
+        assertEquals(1, commits.get());
+        assertEquals(1, pool.getStats().idle(), "Connection should be back in the pool");
+    }
+
+    @Test
+    public void testCloseWithoutCommitRollsBack() throws SQLException {
+        // Arrange & Act
+        UnitOfWork work = UnitOfWork.begin(pool);
+        try {
+            repositoryCall();
+        } finally {
+            work.close();
+        }
+
+        // Assert
+        assertEquals(0, commits.get());
+        assertEquals(1, rollbacks.get());
+    }
+
+    @Test
+    public void testFailedNestedWorkMarksOuterForRollback() throws SQLException {
+        // Arrange
+        UnitOfWork outer = UnitOfWork.begin(pool);
+        repositoryCall();
+
+        // Act
+        UnitOfWork inner = UnitOfWork.begin(pool);
+        try {
+            repositoryCall();
+        } finally {
+            inner.close();
+        }
+
+        // Assert
+        assertThrows(SQLException.class, outer::commit);
+        outer.close();
+        assertEquals(0, commits.get());
+        assertEquals(1, opened.get());
+    }
+
+    @Test
+    public void testWithoutUnitOfWorkEachCallCommitsItself() throws SQLException {
+        // Act
+        repositoryCall();
+        repositoryCall();
+
+        // Assert
+        assertEquals(2, commits.get());
+        assertEquals(1, opened.get(), "Pool still reuses the physical connection");
+    }
+}
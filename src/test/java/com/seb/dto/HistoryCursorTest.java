@@ -0,0 +1,32 @@
+package com.seb.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HistoryCursorTest {
+
+    @Test
+    public void testEncodeDecodeRoundTrip() {
+        // Arrange
+        HistoryCursor cursor = new HistoryCursor(LocalDateTime.of(2024, 3, 1, 18, 30, 5, 123456000), 42);
+
+        // Act
+        String token = cursor.encode();
+
+        // Assert
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), "Token should be usable in a query string as is");
+        assertEquals(cursor, HistoryCursor.decode(token));
+    }
+
+    @Test
+    public void testInvalidTokenIsRejected() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> HistoryCursor.decode("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> HistoryCursor.decode("aGVsbG8"));
+        assertThrows(IllegalArgumentException.class,
+                () -> HistoryCursor.decode(new HistoryCursor(LocalDateTime.now(), 1).encode().substring(3)));
+    }
+}
@@ -0,0 +1,43 @@
+package com.seb.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClientAddressTest {
+
+    private static HttpRequest request(String remoteAddress, String forwardedFor) {
+        HttpRequestParser parser = new HttpRequestParser(64 * 1024);
+        parser.setRemoteAddress(remoteAddress);
+        String head = "GET /stats HTTP/1.1\r\n" + (forwardedFor != null ? "X-Forwarded-For: " + forwardedFor + "\r\n" : "");
+        parser.writableBuffer().put((head + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        return parser.parse();
+    }
+
+    @Test
+    public void testForwardedForOnlyTrustedFromProxy() {
+        // Arrange
+        ClientAddress clientAddress = new ClientAddress(Set.of("10.0.0.5"));
+
+        // Act & Assert
+        assertEquals("203.0.113.7", clientAddress.resolve(request("10.0.0.5", "203.0.113.7")));
+        assertEquals("198.51.100.1", clientAddress.resolve(request("198.51.100.1", "203.0.113.7")),
+                "Header from a direct client must be ignored");
+        assertEquals("10.0.0.5", clientAddress.resolve(request("10.0.0.5", null)));
+    }
+
+    @Test
+    public void testSpoofedLeftmostEntryIsIgnored() {
+        // Arrange (client sends its own X-Forwarded-For, the proxy appends the real address)
+        ClientAddress clientAddress = new ClientAddress(Set.of("10.0.0.5", "10.0.0.6"));
+
+        // Act
+        String address = clientAddress.resolve(request("10.0.0.5", "1.2.3.4, 203.0.113.7, 10.0.0.6"));
+
+        // Assert
+        assertEquals("203.0.113.7", address);
+    }
+}
@@ -0,0 +1,61 @@
+package com.seb.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompressionTest {
+
+    private final Compression compression = new Compression(true, 6, 1024, 4);
+
+    @Test
+    public void testNegotiate() {
+        // Act & Assert
+        assertEquals(Compression.Encoding.GZIP, compression.negotiate("gzip, deflate, br"));
+        assertEquals(Compression.Encoding.DEFLATE, compression.negotiate("deflate"));
+        assertEquals(Compression.Encoding.DEFLATE, compression.negotiate("gzip;q=0, deflate;q=0.5"));
+        assertEquals(Compression.Encoding.GZIP, compression.negotiate("*"));
+        assertNull(compression.negotiate("br"), "Unsupported encodings should be ignored");
+        assertNull(compression.negotiate("identity"));
+        assertNull(compression.negotiate(null));
+        assertNull(new Compression(false, 6, 1024, 4).negotiate("gzip"), "Disabled compression should never negotiate");
+    }
+
+    @Test
+    public void testGzipRoundTrip() throws Exception {
+        // Arrange
+        byte[] data = "{\"history\":[]} ".repeat(200).getBytes(StandardCharsets.UTF_8);
+
+        // Act - twice, second run reuses pooled Deflater
+        byte[] first = compression.compress(Compression.Encoding.GZIP, data, 0, data.length);
+        byte[] second = compression.compress(Compression.Encoding.GZIP, data, 0, data.length);
+
+        // Assert
+        assertTrue(first.length < data.length, "Repetitive JSON should shrink");
+        assertArrayEquals(data, new GZIPInputStream(new ByteArrayInputStream(first)).readAllBytes());
+        assertArrayEquals(first, second, "Pooled Deflater should be reset between uses");
+    }
+
+    @Test
+    public void testDeflateRoundTrip() throws Exception {
+        // Arrange
+        byte[] data = "{\"scoreboard\":[]} ".repeat(200).getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        byte[] compressed = compression.compress(Compression.Encoding.DEFLATE, data, 0, data.length);
+
+        // Assert
+        assertArrayEquals(data, new InflaterInputStream(new ByteArrayInputStream(compressed)).readAllBytes());
+    }
+
+    @Test
+    public void testThreshold() {
+        // Act & Assert
+        assertFalse(compression.shouldCompress(100), "Small bodies should stay uncompressed");
+        assertTrue(compression.shouldCompress(4096));
+    }
+}
@@ -0,0 +1,40 @@
+package com.seb.http;
+
+import com.seb.metrics.Metrics;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrencyBudgetTest {
+
+    @Test
+    public void testBudgetShedsOverLimit() {
+        // Arrange
+        ConcurrencyBudget budget = new ConcurrencyBudget("test-reads", 2);
+
+        // Act
+        boolean first = budget.tryAcquire();
+        boolean second = budget.tryAcquire();
+        boolean third = budget.tryAcquire();
+
+        // Assert
+        assertTrue(first);
+        assertTrue(second);
+        assertFalse(third, "Request over the limit should be shed");
+        assertEquals(1L, Metrics.snapshot().get("http.shed.budget.test-reads"), "Shed request should be counted");
+        assertEquals(2L, Metrics.snapshot().get("http.budget.test-reads.inUse"));
+    }
+
+    @Test
+    public void testReleaseFreesSlot() {
+        // Arrange
+        ConcurrencyBudget budget = new ConcurrencyBudget("test-release", 1);
+        budget.tryAcquire();
+
+        // Act
+        budget.release();
+
+        // Assert
+        assertTrue(budget.tryAcquire(), "Released slot should be usable again");
+    }
+}
@@ -0,0 +1,119 @@
+package com.seb.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HttpRequestParserTest {
+
+    @Test
+    public void testParseRequestWithBody() {
+        // Arrange
+        String body = "{\"Name\":\"Jürgen\"}";
+        HttpRequestParser parser = new HttpRequestParser(64 * 1024);
+        feed(parser, "PUT /users/test HTTP/1.1\r\nAuthorization: Basic test-sebToken\r\n"
+                + "Content-Type: application/json\r\nContent-Length: " + body.getBytes(StandardCharsets.UTF_8).length
+                + "\r\n\r\n" + body);
+
+        // Act
+        HttpRequest request = parser.parse();
+
+        // Assert
+        assertNotNull(request, "Complete request should be parsed");
+        assertEquals("PUT", request.getMethod());
+        assertEquals("/users/test", request.getPath());
+        assertEquals("Basic test-sebToken", request.getAuthorization());
+        assertEquals("application/json", request.getHeader("Content-Type"), "Other headers should be found on demand");
+        assertEquals(body, request.getBody(), "Multi-byte body should be decoded correctly");
+        assertTrue(request.isKeepAlive(), "HTTP/1.1 should default to keep-alive");
+    }
+
+    @Test
+    public void testPartialRequest() {
+        // Arrange
+        HttpRequestParser parser = new HttpRequestParser(64 * 1024);
+        feed(parser, "POST /history HTTP/1.1\r\nContent-Length: 11\r\n\r\n{\"Cou");
+
+        // Act & Assert - body incomplete
+        assertNull(parser.parse(), "Incomplete body should need more bytes");
+
+        // Act - rest arrives
+        feed(parser, "nt\":5}");
+        HttpRequest request = parser.parse();
+
+        // Assert
+        assertNotNull(request, "Request should be complete now");
+        assertEquals("{\"Count\":5}", request.getBody());
+    }
+
+    @Test
+    public void testPipelinedRequests() {
+        // Arrange
+        HttpRequestParser parser = new HttpRequestParser(64 * 1024);
+        feed(parser, "GET /stats HTTP/1.1\r\n\r\nGET /score HTTP/1.1\r\nConnection: close\r\n\r\n");
+
+        // Act
+        HttpRequest first = parser.parse();
+        parser.consume();
+        HttpRequest second = parser.parse();
+
+        // Assert
+        assertEquals("/stats", first.getPath());
+        assertEquals("/score", second.getPath());
+        assertFalse(second.isKeepAlive(), "Connection: close should be honoured");
+    }
+
+    @Test
+    public void testInvalidRequestLine() {
+        // Arrange
+        HttpRequestParser parser = new HttpRequestParser(64 * 1024);
+        feed(parser, "GARBAGE\r\n\r\n");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, parser::parse);
+    }
+
+    @Test
+    public void testRequestTooLarge() {
+        // Arrange
+        HttpRequestParser parser = new HttpRequestParser(128);
+        feed(parser, "POST /history HTTP/1.1\r\nContent-Length: 1000\r\n\r\n");
+
+        // Act & Assert
+        assertThrows(RequestTooLargeException.class, parser::parse);
+    }
+
+    @Test
+    public void testTransferEncodingIsRejected() {
+        // Arrange
+        HttpRequestParser parser = new HttpRequestParser(64 * 1024);
+        feed(parser, "POST /history HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n"
+                + "5\r\nhello\r\n0\r\n\r\nGET /stats HTTP/1.1\r\n\r\n");
+
+        // Act & Assert - body must not be taken for the next request
+        assertThrows(IllegalArgumentException.class, parser::parse);
+    }
+
+    @Test
+    public void testDuplicateContentLengthIsRejected() {
+        // Arrange
+        HttpRequestParser parser = new HttpRequestParser(64 * 1024);
+        feed(parser, "POST /history HTTP/1.1\r\nContent-Length: 0\r\nContent-Length: 11\r\n\r\n{\"Count\":5}");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, parser::parse);
+    }
+
+    private static void feed(HttpRequestParser parser, String data) {
+        byte[] bytes = data.getBytes(StandardCharsets.UTF_8);
+        int offset = 0;
+        while (offset < bytes.length) {
+            ByteBuffer buffer = parser.writableBuffer();
+            int n = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, n);
+            offset += n;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.seb.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void testBurstThenLimited() {
+        // Arrange - 2 per second, burst of 3
+        RateLimiter limiter = new RateLimiter("test-burst", 2, 3, 60_000);
+        long now = System.nanoTime();
+
+        // Act & Assert
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("Basic a-sebToken", now), "Burst should be allowed");
+        }
+        assertEquals(1, limiter.tryAcquire("Basic a-sebToken", now), "Request over burst should wait");
+        assertEquals(0, limiter.tryAcquire("Basic b-sebToken", now), "Other tokens have their own bucket");
+    }
+
+    @Test
+    public void testRefill() {
+        // Arrange
+        RateLimiter limiter = new RateLimiter("test-refill", 2, 1, 60_000);
+        long now = System.nanoTime();
+        limiter.tryAcquire("key", now);
+
+        // Act & Assert
+        assertNotEquals(0, limiter.tryAcquire("key", now + SECOND / 4), "Half a token is not enough");
+        assertEquals(0, limiter.tryAcquire("key", now + SECOND / 2 + 1000), "Token should be back after 0.5 s");
+    }
+
+    @Test
+    public void testIdleBucketsAreEvicted() {
+        // Arrange - idle buckets dropped after 1 s
+        RateLimiter limiter = new RateLimiter("test-evict", 10, 5, 1000);
+        long now = System.nanoTime();
+        for (int i = 0; i < 500; i++) {
+            limiter.tryAcquire("ip:10.0.0." + i, now);
+        }
+        assertEquals(500, limiter.size());
+
+        // Act - later traffic sweeps the stripes it touches
+        for (int i = 0; i < 500; i++) {
+            limiter.tryAcquire("ip:10.0.1." + i, now + 3 * SECOND);
+        }
+
+        // Assert - stripes are swept when touched, so a few untouched stripes may still hold old buckets
+        assertTrue(limiter.size() < 600, "Idle buckets should be dropped, size was " + limiter.size());
+    }
+}
@@ -0,0 +1,215 @@
+package com.seb.http;
+
+import com.seb.dto.HistoryEntry;
+import com.seb.dto.HistoryResponse;
+import com.seb.dto.ProfileResponse;
+import com.seb.json.Json;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResponseWriterTest {
+
+    @Test
+    public void testSmallJsonUsesContentLength() throws Exception {
+        // Arrange
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ProfileResponse profile = new ProfileResponse(true, null, 1, "jürgen", 1000, "Jürgen", "", "");
+
+        // Act
+        new ResponseWriter(bytes, true, true).sendJson(200, "OK", profile);
+
+        // Assert
+        String response = bytes.toString(StandardCharsets.UTF_8);
+        String body = response.substring(response.indexOf("\r\n\r\n") + 4);
+        assertTrue(response.contains("Content-Length: " + body.getBytes(StandardCharsets.UTF_8).length + "\r\n"),
+                "Content-Length should count UTF-8 bytes");
+        assertTrue(body.contains("\"ELO\":1000"), "DTO should keep API field names");
+        assertFalse(body.contains("message"), "Null fields should be left out");
+    }
+
+    @Test
+    public void testLargeJsonIsChunked() throws Exception {
+        // Arrange
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        HistoryResponse history = largeHistory();
+
+        // Act
+        new ResponseWriter(bytes, true, true).sendJson(200, "OK", history);
+
+        // Assert
+        String response = bytes.toString(StandardCharsets.UTF_8);
+        assertTrue(response.contains("Transfer-Encoding: chunked\r\n"), "Large body should be streamed");
+        assertFalse(response.contains("Content-Length"));
+        assertTrue(response.endsWith("0\r\n\r\n"), "Last chunk should terminate response");
+        assertEquals(new String(Json.toBytes(history), StandardCharsets.UTF_8), dechunk(response));
+    }
+
+    @Test
+    public void testLargeJsonWithoutChunkedSupport() throws Exception {
+        // Arrange
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        HistoryResponse history = largeHistory();
+        ResponseWriter writer = new ResponseWriter(bytes, true, false);
+
+        // Act - HTTP/1.0 client
+        writer.sendJson(200, "OK", history);
+
+        // Assert - streamed without a length, the end of the body is the end of the connection
+        String response = bytes.toString(StandardCharsets.UTF_8);
+        assertFalse(response.contains("Content-Length"), "Large body should not be buffered");
+        assertFalse(response.contains("Transfer-Encoding"));
+        assertTrue(response.contains("Connection: close\r\n"));
+        assertFalse(writer.isKeepAlive());
+        assertEquals(new String(Json.toBytes(history), StandardCharsets.UTF_8),
+                response.substring(response.indexOf("\r\n\r\n") + 4));
+    }
+
+    @Test
+    public void testCompressedJson() throws Exception {
+        // Arrange
+        ByteArrayOutputStream small = new ByteArrayOutputStream();
+        ByteArrayOutputStream large = new ByteArrayOutputStream();
+        Compression compression = new Compression(true, 6, 1024, 4);
+        HistoryResponse history = largeHistory();
+
+        // Act
+        ResponseWriter smallWriter = new ResponseWriter(small, true, true);
+        smallWriter.enableCompression(compression, Compression.Encoding.GZIP);
+        smallWriter.sendJson(200, "OK", new ProfileResponse(true, null, 1, "test", 1000, "test", "", ""));
+
+        ResponseWriter largeWriter = new ResponseWriter(large, true, true);
+        largeWriter.enableCompression(compression, Compression.Encoding.GZIP);
+        largeWriter.sendJson(200, "OK", history);
+
+        // Assert
+        String smallResponse = small.toString(StandardCharsets.ISO_8859_1);
+        assertFalse(smallResponse.contains("Content-Encoding"), "Body below threshold should not be compressed");
+        assertTrue(smallResponse.contains("Vary: Accept-Encoding\r\n"));
+
+        String largeResponse = large.toString(StandardCharsets.ISO_8859_1);
+        assertTrue(largeResponse.contains("Content-Encoding: gzip\r\n"));
+        assertTrue(largeResponse.contains("Transfer-Encoding: chunked\r\n"));
+        byte[] body = dechunk(largeResponse).getBytes(StandardCharsets.ISO_8859_1);
+        assertArrayEquals(Json.toBytes(history), new GZIPInputStream(new ByteArrayInputStream(body)).readAllBytes());
+    }
+
+    @Test
+    public void testStreamedJsonMatchesSerializedBody() throws Exception {
+        // Arrange
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        HistoryResponse history = largeHistory();
+
+        // Act - entries written one at a time, as from a ResultSet
+        new ResponseWriter(bytes, true, true).streamJson(200, "OK", json -> {
+            json.writeStartObject();
+            json.writeBooleanField("success", true);
+            json.writeArrayFieldStart("history");
+            for (HistoryEntry entry : history.history()) {
+                json.writeObject(entry);
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        });
+
+        // Assert
+        String response = bytes.toString(StandardCharsets.UTF_8);
+        assertTrue(response.contains("Transfer-Encoding: chunked\r\n"));
+        assertEquals(new String(Json.toBytes(history), StandardCharsets.UTF_8), dechunk(response));
+    }
+
+    @Test
+    public void testStreamFailure() throws Exception {
+        // Arrange
+        ByteArrayOutputStream early = new ByteArrayOutputStream();
+        ByteArrayOutputStream late = new ByteArrayOutputStream();
+        ResponseWriter lateWriter = new ResponseWriter(late, true, true);
+
+        // Act & Assert - nothing sent yet: caller gets the exception and can still answer
+        ResponseWriter earlyWriter = new ResponseWriter(early, true, true);
+        assertThrows(IllegalStateException.class, () -> earlyWriter.streamJson(200, "OK", json -> {
+            json.writeStartArray();
+            throw new IllegalStateException("database gone");
+        }));
+        assertEquals(0, early.size());
+        assertFalse(earlyWriter.hasFailed());
+
+        // Part of the body already sent: response stays unterminated and the connection is not reused
+        lateWriter.streamJson(200, "OK", json -> {
+            json.writeStartArray();
+            for (int i = 0; i < 2000; i++) {
+                json.writeString("entry " + i);
+            }
+            throw new IllegalStateException("database gone");
+        });
+        assertTrue(lateWriter.hasFailed());
+        assertFalse(late.toString(StandardCharsets.UTF_8).endsWith("0\r\n\r\n"));
+    }
+
+    @Test
+    public void testStreamStopsWhenClientIsGone() {
+        // Arrange - client disconnects after the first 20 KB
+        OutputStream client = new OutputStream() {
+            private int written;
+
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                written += len;
+                if (written > 20_000) {
+                    throw new IOException("Broken pipe");
+                }
+            }
+        };
+        ResponseWriter writer = new ResponseWriter(client, true, true);
+        int[] rows = {0};
+
+        // Act - producer of a huge CSV
+        assertDoesNotThrow(() -> writer.stream(200, "OK", "text/csv", out -> {
+            while (rows[0] < 10_000_000) {
+                out.write(("user,20,60,2024-01-31 18:00:00\n").getBytes(StandardCharsets.UTF_8));
+                rows[0]++;
+            }
+        }));
+
+        // Assert
+        assertTrue(writer.hasFailed());
+        assertTrue(rows[0] < 10_000, "Producer should stop soon after the client is gone, wrote " + rows[0]);
+    }
+
+    private static HistoryResponse largeHistory() {
+        List<HistoryEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            entries.add(new HistoryEntry(i, "PushUps", 20 + i, 60, LocalDateTime.of(2024, 1, 1, 12, 0)));
+        }
+        return new HistoryResponse(true, null, entries);
+    }
+
+    // Concatenate chunk payloads of a chunked response
+    private static String dechunk(String response) {
+        StringBuilder body = new StringBuilder();
+        int pos = response.indexOf("\r\n\r\n") + 4;
+        while (true) {
+            int lineEnd = response.indexOf("\r\n", pos);
+            int size = Integer.parseInt(response.substring(pos, lineEnd), 16);
+            if (size == 0) {
+                return body.toString();
+            }
+            body.append(response, lineEnd + 2, lineEnd + 2 + size);
+            pos = lineEnd + 2 + size + 2;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.seb.http;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RouterTest {
+
+    private Router router;
+
+    @BeforeEach
+    public void setup() {
+        RouteHandler noop = ctx -> { };
+        router = new Router()
+                .add("GET", "/health", false, noop)
+                .add("POST", "/users", false, noop)
+                .add("GET", "/users/{username}", true, noop)
+                .add("PUT", "/users/{username}", true, noop)
+                .add("GET", "/users/me", true, noop)
+                .add("GET", "/tournaments/{tournamentId}/logs", true, noop);
+    }
+
+    @Test
+    public void testLiteralRoute() {
+        // Act
+        Router.Match match = router.match("GET", "/health");
+
+        // Assert
+        assertNotNull(match, "Literal route should match");
+        assertFalse(match.getRoute().isAuthRequired(), "Health check should not require auth");
+    }
+
+    @Test
+    public void testParameterRoute() {
+        // Act
+        Router.Match match = router.match("PUT", "/users/kienboec");
+
+        // Assert
+        assertNotNull(match, "Parameter route should match");
+        assertEquals("/users/{username}", match.getRoute().getPattern());
+        assertEquals("kienboec", match.getParams().get("username"));
+        assertTrue(match.getParams().matches("username", "kienboec"), "Parameter should compare without substring");
+        assertFalse(match.getParams().matches("username", "kienboe"), "Different value should not match");
+    }
+
+    @Test
+    public void testLiteralSegmentWinsOverParameter() {
+        // Act
+        Router.Match match = router.match("GET", "/users/me");
+
+        // Assert
+        assertEquals("/users/me", match.getRoute().getPattern());
+    }
+
+    @Test
+    public void testNestedParameterRouteWithQuery() {
+        // Act
+        Router.Match match = router.match("GET", "/tournaments/42/logs?verbose=1");
+
+        // Assert
+        assertNotNull(match, "Query string should be ignored for matching");
+        assertEquals("42", match.getParams().get("tournamentId"));
+    }
+
+    @Test
+    public void testNoMatch() {
+        // Assert
+        assertNull(router.match("DELETE", "/users/kienboec"), "Unknown method should not match");
+        assertNull(router.match("GET", "/users/"), "Empty parameter should not match");
+        assertNull(router.match("GET", "/users/a/b"), "Extra segment should not match");
+        assertNull(router.match("GET", "/unknown"), "Unknown path should not match");
+    }
+
+    @Test
+    public void testDuplicateRoute() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> router.add("GET", "/health", false, ctx -> { }));
+    }
+}
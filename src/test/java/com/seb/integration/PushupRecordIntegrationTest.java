@@ -3,14 +3,17 @@ package com.seb.integration;
 import com.seb.controller.PushupController;
 import com.seb.controller.UserController;
 import org.junit.jupiter.api.Test;
+import com.seb.dto.AuthResponse;
+import com.seb.dto.HistoryEntry;
+import com.seb.dto.HistoryResponse;
+import com.seb.dto.RecordPushupsResponse;
+import com.seb.dto.StatsResponse;
 import java.util.List;
-import java.util.Map;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class PushupRecordIntegrationTest {
 
     @Test
-    @SuppressWarnings("unchecked")
     public void testRecordPushupsAndViewHistory() {
         // Arrange
         UserController userController = new UserController();
@@ -18,40 +21,40 @@ public class PushupRecordIntegrationTest {
 
         // Create test user
         String username = "pushup" + System.currentTimeMillis();
-        Map<String, Object> registerResult = userController.register(username, "password");
-        int userId = (Integer)registerResult.get("userId");
+        AuthResponse registerResult = userController.register(username, "password");
+        int userId = registerResult.userId();
 
         // Act - Record pushups
         int count1 = 40;
         int duration1 = 60;
-        Map<String, Object> record1Result = pushupController.recordPushups(userId, count1, duration1);
+        RecordPushupsResponse record1Result = pushupController.recordPushups(userId, count1, duration1);
 
         // Assert - Recording successful
-        assertTrue((Boolean)record1Result.get("success"), "First pushup record should succeed");
+        assertTrue(record1Result.success(), "First pushup record should succeed");
 
         // Act - Record more pushups
         int count2 = 30;
         int duration2 = 45;
-        Map<String, Object> record2Result = pushupController.recordPushups(userId, count2, duration2);
+        RecordPushupsResponse record2Result = pushupController.recordPushups(userId, count2, duration2);
 
         // Assert - Second recording successful
-        assertTrue((Boolean)record2Result.get("success"), "Second pushup record should succeed");
+        assertTrue(record2Result.success(), "Second pushup record should succeed");
 
         // Act - Get history
-        Map<String, Object> historyResult = pushupController.getUserHistory(userId);
+        HistoryResponse historyResult = pushupController.getUserHistory(userId);
 
         // Assert - History includes both records
-        assertTrue((Boolean)historyResult.get("success"), "History retrieval should succeed");
-        List<Map<String, Object>> history = (List<Map<String, Object>>)historyResult.get("history");
+        assertTrue(historyResult.success(), "History retrieval should succeed");
+        List<HistoryEntry> history = historyResult.history();
 
         assertEquals(2, history.size(), "History should contain 2 entries");
 
         boolean found1 = false;
         boolean found2 = false;
 
-        for (Map<String, Object> entry : history) {
-            int count = (Integer)entry.get("Count");
-            int duration = (Integer)entry.get("DurationInSeconds");
+        for (HistoryEntry entry : history) {
+            int count = entry.count();
+            int duration = entry.durationInSeconds();
 
             if (count == count1 && duration == duration1) {
                 found1 = true;
@@ -64,11 +67,11 @@ public class PushupRecordIntegrationTest {
         assertTrue(found2, "Second record should be in history");
 
         // Act - Get stats
-        Map<String, Object> statsResult = pushupController.getUserStats(userId);
+        StatsResponse statsResult = pushupController.getUserStats(userId);
 
         // Assert - Stats are correct
-        assertTrue((Boolean)statsResult.get("success"), "Stats retrieval should succeed");
-        assertEquals(2, statsResult.get("entryCount"), "Entry count should be 2");
-        assertEquals(count1 + count2, (int)(statsResult.get("totalPushups")), "Total pushups should be the sum");
+        assertTrue(statsResult.success(), "Stats retrieval should succeed");
+        assertEquals(2, statsResult.entryCount(), "Entry count should be 2");
+        assertEquals(count1 + count2, (int) statsResult.totalPushups(), "Total pushups should be the sum");
     }
 }
\ No newline at end of file
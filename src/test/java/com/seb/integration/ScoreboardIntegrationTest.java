@@ -5,8 +5,10 @@ import com.seb.controller.PushupController;
 import com.seb.controller.UserController;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import com.seb.dto.AuthResponse;
+import com.seb.dto.ScoreboardEntry;
+import com.seb.dto.ScoreboardResponse;
 import java.util.List;
-import java.util.Map;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class ScoreboardIntegrationTest {
@@ -29,11 +31,11 @@ public class ScoreboardIntegrationTest {
         username1 = "score1" + System.currentTimeMillis();
         username2 = "score2" + System.currentTimeMillis();
 
-        Map<String, Object> result1 = userController.register(username1, "password");
-        Map<String, Object> result2 = userController.register(username2, "password");
+        AuthResponse result1 = userController.register(username1, "password");
+        AuthResponse result2 = userController.register(username2, "password");
 
-        userId1 = (Integer)result1.get("userId");
-        userId2 = (Integer)result2.get("userId");
+        userId1 = result1.userId();
+        userId2 = result2.userId();
 
         // Record some pushups
         pushupController.recordPushups(userId1, 50, 60);
@@ -41,26 +43,25 @@ public class ScoreboardIntegrationTest {
     }
 
     @Test
-    @SuppressWarnings("unchecked")
     public void testScoreboardContainsUsers() {
         // Act
-        Map<String, Object> scoreboardResult = profileController.getScoreboard();
+        ScoreboardResponse scoreboardResult = profileController.getScoreboard();
 
         // Assert
-        assertTrue((Boolean)scoreboardResult.get("success"), "Scoreboard retrieval should succeed");
-        List<Map<String, Object>> scoreboard = (List<Map<String, Object>>)scoreboardResult.get("scoreboard");
+        assertTrue(scoreboardResult.success(), "Scoreboard retrieval should succeed");
+        List<ScoreboardEntry> scoreboard = scoreboardResult.scoreboard();
 
         boolean user1Found = false;
         boolean user2Found = false;
 
-        for (Map<String, Object> entry : scoreboard) {
-            String username = (String)entry.get("username");
+        for (ScoreboardEntry entry : scoreboard) {
+            String username = entry.username();
             if (username.equals(username1)) {
                 user1Found = true;
-                assertEquals(50, entry.get("totalPushups"), "User 1's pushups should be correct");
+                assertEquals(50, entry.totalPushups(), "User 1's pushups should be correct");
             } else if (username.equals(username2)) {
                 user2Found = true;
-                assertEquals(30, entry.get("totalPushups"), "User 2's pushups should be correct");
+                assertEquals(30, entry.totalPushups(), "User 2's pushups should be correct");
             }
         }
 
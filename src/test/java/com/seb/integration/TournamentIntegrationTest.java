@@ -3,13 +3,14 @@ package com.seb.integration;
 import com.seb.controller.PushupController;
 import com.seb.controller.TournamentController;
 import com.seb.controller.UserController;
+import com.seb.dto.AuthResponse;
+import com.seb.dto.TournamentResponse;
 import com.seb.model.Tournament;
 import com.seb.model.TournamentParticipant;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
-import java.util.Map;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class TournamentIntegrationTest {
@@ -30,33 +31,32 @@ public class TournamentIntegrationTest {
         String username1 = "tournament1" + System.currentTimeMillis();
         String username2 = "tournament2" + System.currentTimeMillis();
 
-        Map<String, Object> result1 = userController.register(username1, "password");
-        Map<String, Object> result2 = userController.register(username2, "password");
+        AuthResponse result1 = userController.register(username1, "password");
+        AuthResponse result2 = userController.register(username2, "password");
 
-        userId1 = (Integer)result1.get("userId");
-        userId2 = (Integer)result2.get("userId");
+        userId1 = result1.userId();
+        userId2 = result2.userId();
     }
 
     @Test
     public void testTournamentParticipation() {
         // Act - Get active tournament
-        Map<String, Object> tournamentResult = tournamentController.getActiveTournament();
+        TournamentResponse tournamentResult = tournamentController.getActiveTournament();
 
         // Assert - Tournament created
-        assertTrue((Boolean)tournamentResult.get("success"), "Should get active tournament");
-        assertNotNull(tournamentResult.get("tournamentId"), "Tournament ID should be returned");
-        assertEquals("ACTIVE", tournamentResult.get("status"), "Tournament should be active");
+        assertTrue(tournamentResult.success(), "Should get active tournament");
+        assertNotNull(tournamentResult.tournamentId(), "Tournament ID should be returned");
+        assertEquals("ACTIVE", tournamentResult.status(), "Tournament should be active");
 
         // Act - Record pushups for both users
         pushupController.recordPushups(userId1, 40, 60);
         pushupController.recordPushups(userId2, 30, 45);
 
         // Act - Get updated tournament
-        Map<String, Object> updatedTournament = tournamentController.getActiveTournament();
+        TournamentResponse updatedTournament = tournamentController.getActiveTournament();
 
         // Assert - Participants added
-        @SuppressWarnings("unchecked")
-        List<TournamentParticipant> participants = (List<TournamentParticipant>)updatedTournament.get("participants");
+        List<TournamentParticipant> participants = updatedTournament.participants();
 
         boolean user1Found = false;
         boolean user2Found = false;
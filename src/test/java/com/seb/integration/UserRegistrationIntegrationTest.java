@@ -2,7 +2,7 @@ package com.seb.integration;
 
 import com.seb.controller.UserController;
 import org.junit.jupiter.api.Test;
-import java.util.Map;
+import com.seb.dto.AuthResponse;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class UserRegistrationIntegrationTest {
@@ -15,20 +15,20 @@ public class UserRegistrationIntegrationTest {
         String password = "testPassword123";
 
         // Act - Register user
-        Map<String, Object> registrationResult = userController.register(username, password);
+        AuthResponse registrationResult = userController.register(username, password);
 
         // Assert - Registration successful
-        assertTrue((Boolean)registrationResult.get("success"), "Registration should succeed");
-        assertNotNull(registrationResult.get("userId"), "User ID should be returned");
-        assertNotNull(registrationResult.get("token"), "Token should be returned");
+        assertTrue(registrationResult.success(), "Registration should succeed");
+        assertNotNull(registrationResult.userId(), "User ID should be returned");
+        assertNotNull(registrationResult.token(), "Token should be returned");
 
         // Act - Login with created user
-        Map<String, Object> loginResult = userController.login(username, password);
+        AuthResponse loginResult = userController.login(username, password);
 
         // Assert - Login successful
-        assertTrue((Boolean)loginResult.get("success"), "Login should succeed");
-        assertEquals(registrationResult.get("userId"), loginResult.get("userId"), "User ID should match");
-        assertEquals(1000, loginResult.get("elo"), "Initial ELO should be 1000");
+        assertTrue(loginResult.success(), "Login should succeed");
+        assertEquals(registrationResult.userId(), loginResult.userId(), "User ID should match");
+        assertEquals(1000, loginResult.elo(), "Initial ELO should be 1000");
     }
 
     @Test
@@ -42,10 +42,10 @@ public class UserRegistrationIntegrationTest {
         userController.register(username, password);
 
         // Act - Try to register again with same username
-        Map<String, Object> result = userController.register(username, password);
+        AuthResponse result = userController.register(username, password);
 
         // Assert
-        assertFalse((Boolean)result.get("success"), "Duplicate registration should fail");
-        assertEquals("Username already exists", result.get("message"), "Error message should indicate duplicate username");
+        assertFalse(result.success(), "Duplicate registration should fail");
+        assertEquals("Username already exists", result.message(), "Error message should indicate duplicate username");
     }
 }
\ No newline at end of file
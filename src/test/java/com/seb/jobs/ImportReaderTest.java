@@ -0,0 +1,77 @@
+package com.seb.jobs;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ImportReaderTest {
+
+    private static ImportReader reader(String content, ImportReader.Format format) {
+        return new ImportReader(new BufferedReader(new StringReader(content)), format);
+    }
+
+    @Test
+    public void testCsvWithHeaderQuotesAndDefaults() throws Exception {
+        // Arrange
+        ImportReader reader = reader("""
+                username,count,duration,date
+                alice,20,60,2024-01-31T18:00:00
+                "bob, jr.",15,,2024-02-01 07:30:00
+
+                carol,30,90,2024-02-02
+                """, ImportReader.Format.CSV);
+
+        // Act & Assert
+        assertEquals(new ImportRow("alice", 20, 60, LocalDateTime.of(2024, 1, 31, 18, 0)), reader.next());
+        assertEquals(new ImportRow("bob, jr.", 15, ImportReader.DEFAULT_DURATION,
+                LocalDateTime.of(2024, 2, 1, 7, 30)), reader.next());
+        assertEquals(new ImportRow("carol", 30, 90, LocalDateTime.of(2024, 2, 2, 0, 0)), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void testNdjson() throws Exception {
+        // Arrange
+        ImportReader reader = reader("""
+                {"username":"alice","count":20,"duration":60,"date":"2024-01-31T18:00:00"}
+                {"username":"bob","count":15,"date":"2024-02-01","gym":"ignored"}
+                """, ImportReader.Format.NDJSON);
+
+        // Act & Assert
+        assertEquals(new ImportRow("alice", 20, 60, LocalDateTime.of(2024, 1, 31, 18, 0)), reader.next());
+        assertEquals(new ImportRow("bob", 15, ImportReader.DEFAULT_DURATION,
+                LocalDateTime.of(2024, 2, 1, 0, 0)), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void testInvalidLineIsReportedAndSkippable() throws Exception {
+        // Arrange
+        ImportReader reader = reader("""
+                alice,twenty,60,2024-01-31
+                alice,-5,60,2024-01-31
+                alice,20,60,yesterday
+                alice,20,60,2024-01-31
+                """, ImportReader.Format.CSV);
+
+        // Act & Assert
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, reader::next);
+        assertTrue(error.getMessage().startsWith("Line 1"));
+        assertThrows(IllegalArgumentException.class, reader::next);
+        assertThrows(IllegalArgumentException.class, reader::next);
+        assertEquals(20, reader.next().count(), "Reader should continue after invalid lines");
+        assertEquals(4, reader.getLineNumber());
+    }
+
+    @Test
+    public void testFormatFromFileName() {
+        // Act & Assert
+        assertEquals(ImportReader.Format.NDJSON, ImportReader.Format.of(null, "logs.ndjson"));
+        assertEquals(ImportReader.Format.CSV, ImportReader.Format.of(null, "logs.csv"));
+        assertEquals(ImportReader.Format.NDJSON, ImportReader.Format.of("ndjson", "logs.txt"));
+    }
+}
@@ -0,0 +1,56 @@
+package com.seb.scheduler;
+
+import com.seb.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SessionSweeperTest {
+
+    // Expired sessions counted in memory instead of the database
+    private static class InMemorySessions extends UserRepository {
+        int expired;
+        final List<Integer> batches = new ArrayList<>();
+
+        @Override
+        public int deleteExpiredSessions(int batchSize) {
+            int deleted = Math.min(expired, batchSize);
+            expired -= deleted;
+            batches.add(deleted);
+            return deleted;
+        }
+    }
+
+    @Test
+    public void testDeletesInBatchesUntilNothingIsLeft() throws Exception {
+        // Arrange
+        InMemorySessions sessions = new InMemorySessions();
+        sessions.expired = 2_500;
+        SessionSweeper sweeper = new SessionSweeper(sessions, 1_000, 60_000);
+
+        // Act
+        int deleted = sweeper.runOnce();
+
+        // Assert
+        assertEquals(2_500, deleted);
+        assertEquals(List.of(1_000, 1_000, 500), sessions.batches);
+    }
+
+    @Test
+    public void testFullLastBatchChecksOnceMore() throws Exception {
+        // Arrange
+        InMemorySessions sessions = new InMemorySessions();
+        sessions.expired = 2_000;
+        SessionSweeper sweeper = new SessionSweeper(sessions, 1_000, 60_000);
+
+        // Act
+        sweeper.runOnce();
+
+        // Assert
+        assertEquals(List.of(1_000, 1_000, 0), sessions.batches);
+        assertEquals(0, sessions.expired);
+    }
+}
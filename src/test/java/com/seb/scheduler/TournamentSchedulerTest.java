@@ -0,0 +1,147 @@
+package com.seb.scheduler;
+
+import com.seb.model.Tournament;
+import com.seb.repository.TournamentRepository;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TournamentSchedulerTest {
+
+    private static final long IDLE_MILLIS = 1000;
+
+    // Tournaments kept in memory instead of the database
+    private static class InMemoryTournaments extends TournamentRepository {
+        final List<Tournament> active = new ArrayList<>();
+        final List<Integer> completed = new ArrayList<>();
+        final List<Integer> dropped = new ArrayList<>();
+        final Set<Integer> joined = new HashSet<>();
+        int nextId = 1;
+
+        @Override
+        public <T> T withSchedulingLock(LockedWork<T> work) throws SQLException {
+            return work.run();
+        }
+
+        @Override
+        public List<Tournament> getActiveTournaments() {
+            return new ArrayList<>(active);
+        }
+
+        @Override
+        public Tournament createTournament(LocalDateTime startTime) {
+            Tournament tournament = new Tournament(nextId++, startTime, "ACTIVE");
+            active.add(tournament);
+            return tournament;
+        }
+
+        @Override
+        public boolean hasParticipants(int tournamentId) {
+            return joined.contains(tournamentId);
+        }
+
+        @Override
+        public boolean dropEmptyTournament(int tournamentId) {
+            if (joined.contains(tournamentId)) {
+                return false;
+            }
+            active.removeIf(t -> t.getTournamentId() == tournamentId);
+            dropped.add(tournamentId);
+            return true;
+        }
+
+        @Override
+        public void completeTournament(int tournamentId) {
+            active.removeIf(t -> t.getTournamentId() == tournamentId);
+            completed.add(tournamentId);
+        }
+    }
+
+    @Test
+    public void testIdlePeriodCreatesNothing() throws Exception {
+        // Arrange
+        InMemoryTournaments tournaments = new InMemoryTournaments();
+        TournamentScheduler scheduler = new TournamentScheduler(tournaments, 1000, IDLE_MILLIS);
+        LocalDateTime now = LocalDateTime.now();
+
+        // Act - ten minutes without any post
+        long delay = 0;
+        for (int minute = 0; minute < 10; minute++) {
+            delay = scheduler.runOnce(now.plusMinutes(minute));
+        }
+
+        // Assert
+        assertTrue(tournaments.active.isEmpty());
+        assertEquals(1, tournaments.nextId, "No tournament should be created");
+        assertTrue(tournaments.completed.isEmpty());
+        assertEquals(IDLE_MILLIS, delay);
+    }
+
+    @Test
+    public void testCreatesNextTournamentOnceRunningOneHasParticipants() throws Exception {
+        // Arrange - started by a post's request path
+        InMemoryTournaments tournaments = new InMemoryTournaments();
+        TournamentScheduler scheduler = new TournamentScheduler(tournaments, 1000, IDLE_MILLIS);
+        LocalDateTime now = LocalDateTime.now();
+        tournaments.createTournament(now);
+
+        // Act
+        long emptyDelay = scheduler.runOnce(now);
+        int beforeJoin = tournaments.active.size();
+        tournaments.joined.add(1);
+        long delay = scheduler.runOnce(now);
+
+        // Assert
+        assertEquals(1, beforeJoin, "Nobody joined yet, no next tournament");
+        assertTrue(emptyDelay <= IDLE_MILLIS, "Should look again before it ends, was " + emptyDelay);
+        assertEquals(2, tournaments.active.size());
+        assertEquals(now.plus(Tournament.DURATION), tournaments.active.get(1).getStartTime(),
+                "Next tournament should start when the running one expires");
+        assertTrue(delay > 0 && delay <= Tournament.DURATION.toMillis() + 1, "Next run at expiry, was " + delay);
+    }
+
+    @Test
+    public void testSettlesExpiredTournamentAndPromotesNext() throws Exception {
+        // Arrange
+        InMemoryTournaments tournaments = new InMemoryTournaments();
+        TournamentScheduler scheduler = new TournamentScheduler(tournaments, 1000, IDLE_MILLIS);
+        LocalDateTime start = LocalDateTime.now().minus(Tournament.DURATION).minusSeconds(1);
+        tournaments.createTournament(start);
+        tournaments.joined.add(1);
+        scheduler.runOnce(start);
+        tournaments.joined.add(2);
+
+        // Act
+        scheduler.runOnce(LocalDateTime.now());
+
+        // Assert
+        assertEquals(List.of(1), tournaments.completed);
+        assertEquals(2, tournaments.active.get(0).getTournamentId(), "Pre-created tournament is now running");
+        assertEquals(3, tournaments.active.get(1).getTournamentId(), "A new next tournament was created");
+        assertEquals(2, tournaments.active.size());
+    }
+
+    @Test
+    public void testDropsExpiredTournamentWithoutParticipants() throws Exception {
+        // Arrange - the last players left: the pre-created tournament ran without anybody joining
+        InMemoryTournaments tournaments = new InMemoryTournaments();
+        TournamentScheduler scheduler = new TournamentScheduler(tournaments, 1000, IDLE_MILLIS);
+        tournaments.createTournament(LocalDateTime.now().minus(Tournament.DURATION).minusSeconds(1));
+
+        // Act
+        long delay = scheduler.runOnce(LocalDateTime.now());
+
+        // Assert
+        assertEquals(List.of(1), tournaments.dropped);
+        assertTrue(tournaments.completed.isEmpty(), "Empty tournament should not be completed and logged");
+        assertTrue(tournaments.active.isEmpty());
+        assertEquals(IDLE_MILLIS, delay);
+    }
+}
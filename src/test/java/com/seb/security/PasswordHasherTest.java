@@ -0,0 +1,53 @@
+package com.seb.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordHasherTest {
+
+    @Test
+    public void testSaturatedHasherRejectsRightAway() throws Exception {
+        // Arrange (thread busy, queue half full with background work, a login waiting in the other half)
+        PasswordHasher hasher = new PasswordHasher(1, 2, 5_000);
+        CountDownLatch release = new CountDownLatch(1);
+        assertTrue(hasher.runLater(() -> awaitQuietly(release)));
+        Thread.sleep(50);
+        assertTrue(hasher.runLater(() -> awaitQuietly(release)));
+        assertFalse(hasher.runLater(() -> { }), "Background work must leave queue room for logins");
+        Thread waitingLogin = new Thread(() -> hasher.verify("secret", "invalid"));
+        waitingLogin.start();
+        Thread.sleep(50);
+
+        // Act & Assert
+        long start = System.nanoTime();
+        assertThrows(RejectedExecutionException.class, () -> hasher.verify("secret", "invalid"));
+        assertTrue(System.nanoTime() - start < 1_000_000_000L, "Rejection must not wait for a free thread");
+        release.countDown();
+        waitingLogin.join(5_000);
+        hasher.shutdown();
+    }
+
+    @Test
+    public void testVerifiesOnHasherThread() {
+        // Arrange
+        PasswordHasher hasher = new PasswordHasher(1, 4, 5_000);
+        String hash = PasswordUtil.hashPassword("secretPassword123", 1_000);
+
+        // Act & Assert
+        assertTrue(hasher.verify("secretPassword123", hash));
+        assertFalse(hasher.verify("wrongPassword", hash));
+        hasher.shutdown();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,6 +1,11 @@
 package com.seb.security;
 
 import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class PasswordUtilTest {
@@ -45,4 +50,32 @@ public class PasswordUtilTest {
         // Assert
         assertFalse(result, "Password verification should fail with wrong password");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testLegacyHashStillVerifiesAndNeedsRehash() throws Exception {
+        // Arrange (old format: salt and one SHA-256 of salt + password)
+        byte[] salt = new byte[16];
+        MessageDigest md = MessageDigest.getInstance("SHA-256");
+        md.update(salt);
+        byte[] hash = md.digest("secretPassword123".getBytes(StandardCharsets.UTF_8));
+        String legacyHash = Base64.getEncoder().encodeToString(salt) + ":" + Base64.getEncoder().encodeToString(hash);
+
+        // Act & Assert
+        assertTrue(PasswordUtil.verifyPassword("secretPassword123", legacyHash));
+        assertFalse(PasswordUtil.verifyPassword("wrongPassword", legacyHash));
+        assertTrue(PasswordUtil.needsRehash(legacyHash), "Old format should be rehashed on login");
+    }
+
+    @Test
+    public void testHashWithOutdatedIterationsNeedsRehash() {
+        // Arrange
+        String outdated = PasswordUtil.hashPassword("secretPassword123", 1_000);
+        String current = PasswordUtil.hashPassword("secretPassword123");
+
+        // Act & Assert
+        assertTrue(PasswordUtil.verifyPassword("secretPassword123", outdated), "Iterations are read from the hash");
+        assertTrue(PasswordUtil.needsRehash(outdated));
+        assertFalse(PasswordUtil.needsRehash(current));
+        assertFalse(PasswordUtil.verifyPassword("secretPassword123", "pbkdf2-sha256:0:AAAA:AAAA"));
+    }
+}
@@ -0,0 +1,71 @@
+package com.seb.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenCacheTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void testCachedTokenExpiresAfterTtl() {
+        // Arrange
+        TokenCache cache = new TokenCache(100, 60_000, 100, 5_000);
+        cache.put("alice-sebToken", Optional.of(7), cache.stamp("alice-sebToken"), 0);
+
+        // Act & Assert
+        assertNull(cache.get("bob-sebToken", 0), "Unknown token must be looked up");
+        assertEquals(Optional.of(7), cache.get("alice-sebToken", 59 * SECOND));
+        assertNull(cache.get("alice-sebToken", 61 * SECOND), "Expired entry must be looked up again");
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testInvalidTokenIsRememberedBriefly() {
+        // Arrange
+        TokenCache cache = new TokenCache(100, 60_000, 100, 5_000);
+        cache.put("guess-sebToken", Optional.empty(), cache.stamp("guess-sebToken"), 0);
+
+        // Act & Assert
+        assertEquals(Optional.empty(), cache.get("guess-sebToken", 4 * SECOND));
+        assertNull(cache.get("guess-sebToken", 6 * SECOND));
+    }
+
+    @Test
+    public void testInvalidTokenFloodDoesNotEvictValidTokens() {
+        // Arrange
+        TokenCache cache = new TokenCache(1_000, 60_000, 100, 5_000);
+        for (int i = 0; i < 500; i++) {
+            cache.put("user" + i + "-sebToken", Optional.of(i), cache.stamp("user" + i + "-sebToken"), 0);
+        }
+
+        // Act
+        for (int i = 0; i < 100_000; i++) {
+            cache.put("random" + i, Optional.empty(), cache.stamp("random" + i), 0);
+        }
+
+        // Assert
+        for (int i = 0; i < 500; i++) {
+            assertEquals(Optional.of(i), cache.get("user" + i + "-sebToken", SECOND));
+        }
+        assertTrue(cache.size() <= 500 + 16 * 7, "Invalid tokens must stay within their own bound");
+    }
+
+    @Test
+    public void testResultReadBeforeInvalidationIsNotCached() {
+        // Arrange
+        TokenCache cache = new TokenCache(100, 60_000, 100, 5_000);
+        long stamp = cache.stamp("alice-sebToken");
+
+        // Act (login replaces the token while the lookup is still running)
+        cache.invalidate("alice-sebToken");
+        cache.put("alice-sebToken", Optional.empty(), stamp, 0);
+
+        // Assert
+        assertNull(cache.get("alice-sebToken", SECOND), "Stale lookup result must be dropped");
+    }
+}
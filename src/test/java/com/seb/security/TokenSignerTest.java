@@ -0,0 +1,81 @@
+package com.seb.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenSignerTest {
+
+    private static final long NOW = 1_800_000_000L;
+
+    private static byte[] secret(int seed) {
+        byte[] secret = new byte[32];
+        Arrays.fill(secret, (byte) seed);
+        return secret;
+    }
+
+    private static TokenSigner signer(String... keyIds) {
+        Map<String, byte[]> secrets = new LinkedHashMap<>();
+        for (int i = 0; i < keyIds.length; i++) {
+            secrets.put(keyIds[i], secret(i + 1));
+        }
+        return new TokenSigner(secrets, 3600);
+    }
+
+    @Test
+    public void testIssuedTokenVerifiesUntilExpiry() {
+        // Arrange
+        TokenSigner signer = signer("k1");
+        String token = signer.issue(42, "kienboec", NOW);
+
+        // Act
+        Optional<TokenSigner.Claims> claims = signer.verify(token, NOW + 10);
+
+        // Assert
+        assertTrue(claims.isPresent());
+        assertEquals(42, claims.get().userId());
+        assertEquals("kienboec", claims.get().username());
+        assertFalse(signer.verify(token, NOW + 3600).isPresent(), "Expired token must be rejected");
+    }
+
+    @Test
+    public void testTamperedTokenIsRejected() {
+        // Arrange
+        TokenSigner signer = signer("k1");
+        String token = signer.issue(42, "kienboec", NOW);
+        String[] parts = token.split("\\.");
+        String otherPayload = signer.issue(1, "admin", NOW).split("\\.")[1];
+
+        // Act & Assert
+        assertFalse(signer.verify(parts[0] + "." + otherPayload + "." + parts[2], NOW).isPresent());
+        assertFalse(signer.verify(token + "x", NOW).isPresent());
+        assertFalse(signer.verify("kienboec-sebToken", NOW).isPresent());
+        assertFalse(signer.verify("k1..", NOW).isPresent());
+        assertFalse(signer("k1", "k2").verify(signer("k2").issue(42, "kienboec", NOW), NOW).isPresent(),
+                "Same key id with another secret must not verify");
+    }
+
+    @Test
+    public void testRotatedKeyStillVerifies() {
+        // Arrange
+        TokenSigner before = signer("old");
+        String oldToken = before.issue(7, "alice", NOW);
+        Map<String, byte[]> rotated = new LinkedHashMap<>();
+        rotated.put("new", secret(9));
+        rotated.put("old", secret(1));
+        TokenSigner after = new TokenSigner(rotated, 3600);
+
+        // Act
+        String newToken = after.issue(7, "alice", NOW);
+
+        // Assert
+        assertTrue(newToken.startsWith("new."), "First key signs new tokens");
+        assertEquals(Optional.of(7), after.verify(oldToken, NOW).map(TokenSigner.Claims::userId));
+        assertFalse(before.verify(newToken, NOW).isPresent(), "Unknown key id must be rejected");
+    }
+}
@@ -0,0 +1,94 @@
+package com.seb.server;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NioResponseStreamTest {
+
+    private final BlockingQueue<ByteBuffer> segments = new LinkedBlockingQueue<>();
+
+    @Test
+    public void testSmallResponseIsOneSegmentOnFlush() throws IOException {
+        // Arrange
+        NioResponseStream stream = new NioResponseStream(segments::add, 1000);
+
+        // Act
+        stream.write(new byte[300]);
+        stream.write(new byte[2000]);
+        assertTrue(segments.isEmpty(), "Nothing should be handed over before flush");
+        stream.flush();
+
+        // Assert
+        assertEquals(1, segments.size());
+        assertEquals(2300, segments.peek().remaining());
+    }
+
+    @Test
+    public void testWorkerWaitsForSlowClient() throws Exception {
+        // Arrange - body four times larger than what may wait for the socket
+        NioResponseStream stream = new NioResponseStream(segments::add, 5000);
+        int total = 4 * NioResponseStream.MAX_IN_FLIGHT_BYTES;
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread worker = new Thread(() -> {
+            try {
+                stream.write(new byte[total]);
+                stream.flush();
+            } catch (Throwable e) {
+                error.set(e);
+            }
+        });
+
+        // Act
+        worker.start();
+        Thread.sleep(100);
+        int handedOver = segments.stream().mapToInt(ByteBuffer::remaining).sum();
+
+        // Assert
+        assertTrue(worker.isAlive(), "Worker should block while the client doesn't read");
+        assertEquals(NioResponseStream.MAX_IN_FLIGHT_BYTES, handedOver);
+
+        // Client reads: every written segment lets the worker continue
+        int received = 0;
+        while (received < total) {
+            ByteBuffer segment = segments.poll(5, TimeUnit.SECONDS);
+            assertNotNull(segment, "Worker should continue once segments are written");
+            received += segment.remaining();
+            stream.written(segment.limit());
+        }
+        worker.join(5000);
+        assertNull(error.get());
+        assertEquals(total, received);
+    }
+
+    @Test
+    public void testClosedConnectionReleasesWaitingWorker() throws Exception {
+        // Arrange
+        NioResponseStream stream = new NioResponseStream(segments::add, 60_000);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread worker = new Thread(() -> {
+            try {
+                stream.write(new byte[2 * NioResponseStream.MAX_IN_FLIGHT_BYTES]);
+            } catch (Throwable e) {
+                error.set(e);
+            }
+        });
+        worker.start();
+        Thread.sleep(100);
+
+        // Act
+        stream.abort();
+        worker.join(5000);
+
+        // Assert
+        assertFalse(worker.isAlive());
+        assertTrue(error.get() instanceof IOException, "Waiting write should fail, got " + error.get());
+    }
+}
@@ -0,0 +1,205 @@
+package com.seb.server;
+
+import com.seb.http.KeepAlive;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NioServerTest {
+
+    private ExecutorService workers;
+    private NioServer server;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        workers = Executors.newFixedThreadPool(2);
+        server = new NioServer(0, 2, workers, 64 * 1024, new KeepAlive(1000, 3));
+        server.bind();
+        new Thread(server::acceptLoop, "test-acceptor").start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop();
+        workers.shutdownNow();
+    }
+
+    @Test
+    public void testHealthRequest() throws IOException {
+        // Act
+        String response = send("GET /health HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n");
+
+        // Assert
+        assertTrue(response.startsWith("HTTP/1.1 200 OK"), "Health check should return 200");
+        assertTrue(response.contains("{\"status\":\"up\"}"), "Health check should return status body");
+    }
+
+    @Test
+    public void testIdleConnectionsDoNotBlockOtherClients() throws IOException {
+        // Arrange - more idle connections than worker threads
+        List<Socket> idleClients = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Socket idle = new Socket("localhost", server.getLocalPort());
+            idle.getOutputStream().write("GET /hea".getBytes(StandardCharsets.US_ASCII));
+            idleClients.add(idle);
+        }
+
+        try {
+            // Act
+            String response = send("GET /health HTTP/1.1\r\nConnection: close\r\n\r\n");
+
+            // Assert
+            assertTrue(response.startsWith("HTTP/1.1 200 OK"), "Server should still answer while clients are idle");
+        } finally {
+            for (Socket idle : idleClients) {
+                idle.close();
+            }
+        }
+    }
+
+    @Test
+    public void testFullQueueIsShed() throws Exception {
+        // Arrange - one worker busy, one task queued
+        ThreadPoolExecutor pool = WorkerPool.create(1, 1);
+        NioServer busyServer = new NioServer(0, 1, pool, 64 * 1024, new KeepAlive(1000, 3));
+        busyServer.bind();
+        new Thread(busyServer::acceptLoop, "test-busy-acceptor").start();
+        CountDownLatch release = new CountDownLatch(1);
+        pool.submit(() -> {
+            release.await();
+            return null;
+        });
+        pool.submit(() -> {
+            release.await();
+            return null;
+        });
+        long shedBefore = WorkerPool.SHED_QUEUE_FULL.sum();
+
+        try {
+            // Act
+            String response = send(busyServer, "GET /health HTTP/1.1\r\n\r\n");
+
+            // Assert
+            assertTrue(response.startsWith("HTTP/1.1 503 Service Unavailable"), "Full queue should be answered with 503");
+            assertTrue(response.contains("Retry-After: "), "503 should tell client when to retry");
+            assertTrue(response.contains("Connection: close"));
+            assertEquals(shedBefore + 1, WorkerPool.SHED_QUEUE_FULL.sum(), "Shed request should be counted");
+        } finally {
+            release.countDown();
+            busyServer.stop();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testMultipleAcceptors() throws Exception {
+        // Arrange
+        NioServer multiServer = new NioServer(0, 2, workers, 64 * 1024, new KeepAlive(1000, 3),
+                new ListenerSettings(3, true, 128, true, 0, 0));
+        multiServer.bind();
+        new Thread(multiServer::acceptLoop, "test-multi-acceptor").start();
+
+        try {
+            // Act
+            List<String> responses = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                responses.add(send(multiServer, "GET /health HTTP/1.1\r\nConnection: close\r\n\r\n"));
+            }
+
+            // Assert
+            assertTrue(multiServer.getListenerCount() == 1 || multiServer.getListenerCount() == 3,
+                    "One listening socket per acceptor with SO_REUSEPORT, otherwise one shared");
+            for (String response : responses) {
+                assertTrue(response.startsWith("HTTP/1.1 200 OK"), "Every acceptor should hand over connections");
+            }
+        } finally {
+            multiServer.stop();
+        }
+    }
+
+    @Test
+    public void testMalformedRequest() throws IOException {
+        // Act
+        String response = send("GARBAGE\r\n\r\n");
+
+        // Assert
+        assertTrue(response.startsWith("HTTP/1.1 400 Bad Request"), "Malformed request should return 400");
+    }
+
+    @Test
+    public void testPipelinedRequestsOnKeepAliveConnection() throws IOException {
+        // Arrange - body with multi-byte chars (Content-Length counts bytes), then a pipelined second request
+        String body = "{\"Username\":\"M\u00fcller\u20ac\"}";
+        String request = "POST /users HTTP/1.1\r\nContent-Length: " + body.getBytes(StandardCharsets.UTF_8).length + "\r\n\r\n" + body
+                + "GET /health HTTP/1.1\r\nConnection: close\r\n\r\n";
+
+        // Act
+        String response = send(request);
+
+        // Assert - both answered in order on one connection
+        int first = response.indexOf("HTTP/1.1 400 Bad Request");
+        int second = response.indexOf("HTTP/1.1 200 OK");
+        assertTrue(first >= 0, "First request should be answered");
+        assertTrue(second > first, "Pipelined request should be answered after the first one");
+        assertTrue(response.contains("Connection: keep-alive"), "First response should keep connection open");
+        assertTrue(response.endsWith("{\"status\":\"up\"}"), "Response should end exactly after Content-Length bytes");
+    }
+
+    @Test
+    public void testMaxRequestsPerConnection() throws IOException {
+        // Arrange - limit is 3 requests per connection
+        String request = "GET /health HTTP/1.1\r\n\r\n".repeat(5);
+
+        // Act - server closes after third response, so reading to EOF terminates
+        String response = send(request);
+
+        // Assert
+        assertEquals(3, response.split("HTTP/1.1 200 OK", -1).length - 1, "Only 3 requests should be answered");
+        assertTrue(response.contains("Connection: close"), "Last response should announce close");
+    }
+
+    @Test
+    public void testIdleConnectionIsClosed() throws IOException {
+        // Act - keep-alive request, then stay idle (timeout is 1 second)
+        String response = send("GET /health HTTP/1.1\r\n\r\n");
+
+        // Assert - read returned because server closed idle connection
+        assertTrue(response.startsWith("HTTP/1.1 200 OK"), "Request should be answered before idle close");
+    }
+
+    private String send(String request) throws IOException {
+        return send(server, request);
+    }
+
+    private static String send(NioServer target, String request) throws IOException {
+        try (Socket socket = new Socket("localhost", target.getLocalPort())) {
+            socket.setSoTimeout(5000);
+            OutputStream out = socket.getOutputStream();
+            out.write(request.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+
+            InputStream in = socket.getInputStream();
+            ByteArrayOutputStream response = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                response.write(buffer, 0, read);
+            }
+            return response.toString(StandardCharsets.UTF_8);
+        }
+    }
+}